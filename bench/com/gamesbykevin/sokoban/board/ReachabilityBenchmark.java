@@ -0,0 +1,129 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the click to move path queries, run with "ant bench".<br>
+ * The layout with the longest walk from the player is used, walking to the farthest cell.
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReachabilityBenchmark
+{
+    //the board of the layout used
+    private Board board;
+    
+    //the paths being searched
+    private Reachability reachability;
+    
+    //the paths are written here
+    private final Direction[] path = new Direction[Board.MAX_CELLS * 8];
+    
+    //the cell walked to, and a second cell to walk from so the search isn't cached
+    private int target, other;
+    
+    //the box pushed, and the cell it is pushed to
+    private int box, destination;
+    
+    @Setup
+    public void setup() throws Exception
+    {
+        final List<Layout> layouts = Layouts.read();
+        
+        reachability = new Reachability();
+        
+        //use the layout with the longest walk from the player
+        int longest = -1;
+        
+        for (Layout layout : layouts)
+        {
+            final Board tmp = new Board(layout);
+            
+            reachability.reset(tmp);
+            
+            for (int cell = 0; cell < layout.getSize(); cell++)
+            {
+                final int length = reachability.getPath(tmp.getPlayer(), cell, path);
+                
+                if (length > longest)
+                {
+                    longest = length;
+                    board = tmp;
+                    target = cell;
+                }
+            }
+        }
+        
+        reachability.reset(board);
+        
+        final Layout layout = board.getLayout();
+        
+        //a cell next to the player
+        for (int cell = 0; cell < layout.getSize(); cell++)
+        {
+            if (reachability.getPath(board.getPlayer(), cell, path) == 1)
+                other = cell;
+        }
+        
+        //push the box with the longest push path
+        longest = -1;
+        
+        for (int tmp = 0; tmp < layout.getSize(); tmp++)
+        {
+            if (!board.hasBox(tmp))
+                continue;
+            
+            for (int cell = 0; cell < layout.getSize(); cell++)
+            {
+                final int length = reachability.getPushPath(board.getPlayer(), tmp, cell, path);
+                
+                if (length > longest)
+                {
+                    longest = length;
+                    box = tmp;
+                    destination = cell;
+                }
+            }
+        }
+    }
+    
+    @Benchmark
+    public int getPathCached()
+    {
+        return reachability.getPath(board.getPlayer(), target, path);
+    }
+    
+    @Benchmark
+    public int getPathSearched()
+    {
+        //searching from a different cell each time means the search is never cached
+        reachability.getPath(other, target, path);
+        
+        return reachability.getPath(board.getPlayer(), target, path);
+    }
+    
+    @Benchmark
+    public int getPushPath()
+    {
+        return reachability.getPushPath(board.getPlayer(), box, destination, path);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.gamesbykevin.sokoban.level;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the level hot paths, run with "ant bench".<br>
+ * The levels are created from the bundled levels.txt, and the level with the most boxes is used.
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark
+{
+    //the same seed every run, so the same levels are created
+    private static final long SEED = 0L;
+    
+    //the location of the resources on the class path
+    private static final String LEVELS_FILE = "/resources/text/levels.txt";
+    private static final String SPRITE_SHEET = "/resources/images/game/sprites.png";
+    
+    //the lines of the levels file
+    private List<String> lines;
+    
+    //all the levels, and the level used
+    private Levels levels;
+    private Level level;
+    
+    //the image we draw the level to
+    private BufferedImage image;
+    private Graphics2D graphics;
+    
+    @Setup
+    public void setup() throws Exception
+    {
+        lines = new ArrayList<>();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(LevelBenchmark.class.getResourceAsStream(LEVELS_FILE))))
+        {
+            String line;
+            
+            while ((line = reader.readLine()) != null)
+            {
+                lines.add(line);
+            }
+        }
+        
+        levels = new Levels(Levels.DIFFICULTY_HARDEST);
+        levels.create(lines, new Random(SEED));
+        
+        //use the level with the most boxes
+        level = levels.getLevel(0);
+        
+        for (int i = 1; i < levels.getCount(); i++)
+        {
+            if (levels.getLevel(i).getBoxCount() > level.getBoxCount())
+                level = levels.getLevel(i);
+        }
+        
+        level.setImage(ImageIO.read(LevelBenchmark.class.getResource(SPRITE_SHEET)));
+        
+        image = new BufferedImage(level.getColumns() * Level.DEFAULT_DIMENSION, level.getRows() * Level.DEFAULT_DIMENSION, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+    
+    @TearDown
+    public void tearDown()
+    {
+        graphics.dispose();
+        image.flush();
+        levels.dispose();
+    }
+    
+    @Benchmark
+    public Levels createLevels() throws Exception
+    {
+        final Levels tmp = new Levels(Levels.DIFFICULTY_HARDEST);
+        tmp.create(lines, new Random(SEED));
+        return tmp;
+    }
+    
+    @Benchmark
+    public void getPhysicalLevelObject(final Blackhole blackhole)
+    {
+        //check every location in the level
+        for (int row = 0; row < level.getRows(); row++)
+        {
+            for (int col = 0; col < level.getColumns(); col++)
+            {
+                blackhole.consume(level.getPhysicalLevelObject(col, row));
+            }
+        }
+    }
+    
+    @Benchmark
+    public void render() throws Exception
+    {
+        level.render(graphics);
+    }
+    
+    @Benchmark
+    public int canMove()
+    {
+        //the number of valid moves
+        int count = 0;
+        
+        //check every direction from every location in the level, the same check the player makes for each move
+        for (int row = 0; row < level.getRows(); row++)
+        {
+            for (int col = 0; col < level.getColumns(); col++)
+            {
+                for (Direction direction : Direction.values())
+                {
+                    if (level.canMove(col, row, direction))
+                        count++;
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    @Benchmark
+    public boolean hasCompleted()
+    {
+        return level.hasCompleted();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.gamesbykevin.sokoban.agent;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.level.Direction;
+
+/**
+ * An agent plays a level by choosing one direction at a time.<br>
+ * An agent is only used by one thread, each thread of a tournament creates its own.
+ * @author GOD
+ */
+public interface Agent
+{
+    /**
+     * Get the name
+     * @return The name of the agent, used to report the results
+     */
+    public String getName();
+    
+    /**
+     * Create a new agent of the same kind
+     * @return The new agent
+     */
+    public Agent create();
+    
+    /**
+     * Start playing a level
+     * @param board The board at the start of the level
+     * @param seed The seed for any random choices, so the results can be repeated
+     */
+    public void start(final Board board, final long seed);
+    
+    /**
+     * Choose the next move
+     * @param board The current board, this should not be changed
+     * @return The direction to move, null to give up on the level
+     */
+    public Direction next(final Board board);
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.gamesbykevin.sokoban.agent;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Looks one move ahead, preferring pushes that move a box closer to a goal.<br>
+ * When no push helps it walks toward the closest box that isn't on a goal, avoiding cells it has already visited.
+ * Boxes are never pushed into a cell they can't be moved to a goal from.
+ * @author GOD
+ */
+public final class GreedyAgent implements Agent
+{
+    //every direction
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //how much a push is worth compared to walking
+    private static final int PUSH_WEIGHT = 100;
+    
+    //the cost of walking into a cell already visited since the last push
+    private static final int VISIT_WEIGHT = 4;
+    
+    //object used to make random decisions
+    private final Random random = new Random();
+    
+    //the distance of each cell to the closest goal
+    private int[] distances;
+    
+    //the number of times each cell was visited since the last push
+    private int[] visits;
+    
+    @Override
+    public String getName()
+    {
+        return "greedy";
+    }
+    
+    @Override
+    public Agent create()
+    {
+        return new GreedyAgent();
+    }
+    
+    @Override
+    public void start(final Board board, final long seed)
+    {
+        random.setSeed(seed);
+        distances = Solver.getDistances(board.getLayout());
+        visits = new int[board.getLayout().getSize()];
+        visits[board.getPlayer()]++;
+    }
+    
+    @Override
+    public Direction next(final Board board)
+    {
+        Direction best = null;
+        int bestScore = Integer.MAX_VALUE;
+        
+        for (Direction direction : DIRECTIONS)
+        {
+            final int result = board.check(direction);
+            
+            if (result == Board.BLOCKED)
+                continue;
+            
+            final int next = board.getNeighbor(board.getPlayer(), direction);
+            
+            int score;
+            
+            if (result == Board.PUSHED)
+            {
+                final int target = board.getNeighbor(next, direction);
+                
+                //never push a box where it can't reach a goal
+                if (distances[target] >= Solver.UNREACHABLE)
+                    continue;
+                
+                score = (distances[target] - distances[next]) * PUSH_WEIGHT;
+            }
+            else
+            {
+                score = getBoxDistance(board, next) + (visits[next] * VISIT_WEIGHT);
+            }
+            
+            //add a little noise so ties are broken randomly
+            score = (score * 4) + random.nextInt(4);
+            
+            if (score < bestScore)
+            {
+                bestScore = score;
+                best = direction;
+            }
+        }
+        
+        if (best != null)
+        {
+            final int next = board.getNeighbor(board.getPlayer(), best);
+            
+            //start counting visits again after a push
+            if (board.hasBox(next))
+                Arrays.fill(visits, 0);
+            
+            visits[next]++;
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Get the distance to the closest box that isn't on a goal
+     * @param board The board
+     * @param cell The cell we are measuring from
+     * @return The distance in cells, ignoring walls
+     */
+    private static int getBoxDistance(final Board board, final int cell)
+    {
+        final Layout layout = board.getLayout();
+        final int col = cell % layout.getColumns();
+        final int row = cell / layout.getColumns();
+        
+        int closest = layout.getSize();
+        
+        for (int tmp = 0; tmp < layout.getSize(); tmp++)
+        {
+            if (board.hasBox(tmp) && !layout.isGoal(tmp))
+                closest = Math.min(closest, Math.abs((tmp % layout.getColumns()) - col) + Math.abs((tmp / layout.getColumns()) - row));
+        }
+        
+        return closest;
+    }
+}
\ No newline at end of file
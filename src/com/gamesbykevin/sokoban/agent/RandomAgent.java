@@ -0,0 +1,55 @@
+package com.gamesbykevin.sokoban.agent;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.Random;
+
+/**
+ * Moves in a random direction that isn't blocked
+ * @author GOD
+ */
+public final class RandomAgent implements Agent
+{
+    //every direction
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //the directions that can be chosen
+    private final Direction[] choices = new Direction[DIRECTIONS.length];
+    
+    //object used to make random decisions
+    private final Random random = new Random();
+    
+    @Override
+    public String getName()
+    {
+        return "random";
+    }
+    
+    @Override
+    public Agent create()
+    {
+        return new RandomAgent();
+    }
+    
+    @Override
+    public void start(final Board board, final long seed)
+    {
+        random.setSeed(seed);
+    }
+    
+    @Override
+    public Direction next(final Board board)
+    {
+        int count = 0;
+        
+        for (Direction direction : DIRECTIONS)
+        {
+            if (board.check(direction) != Board.BLOCKED)
+                choices[count++] = direction;
+        }
+        
+        //if every direction is blocked there is nothing we can do
+        return (count > 0) ? choices[random.nextInt(count)] : null;
+    }
+}
\ No newline at end of file
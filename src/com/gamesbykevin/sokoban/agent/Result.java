@@ -0,0 +1,131 @@
+package com.gamesbykevin.sokoban.agent;
+
+/**
+ * The results of an agent playing a set of levels
+ * @author GOD
+ */
+public final class Result
+{
+    //the name of the agent
+    private final String name;
+    
+    //the number of levels played and solved
+    private int levels = 0, solved = 0;
+    
+    //the moves and pushes made in the solved levels
+    private long moves = 0, pushes = 0;
+    
+    //the moves made in every level, solved or not
+    private long steps = 0;
+    
+    //the time taken to play every level (nanoseconds)
+    private long time = 0;
+    
+    /**
+     * Create the result
+     * @param name The name of the agent
+     */
+    public Result(final String name)
+    {
+        this.name = name;
+    }
+    
+    /**
+     * Add a level played
+     * @param solved Was the level solved
+     * @param moves The moves made
+     * @param pushes The pushes made
+     */
+    protected void add(final boolean solved, final int moves, final int pushes)
+    {
+        this.levels++;
+        this.steps += moves;
+        
+        if (solved)
+        {
+            this.solved++;
+            this.moves += moves;
+            this.pushes += pushes;
+        }
+    }
+    
+    /**
+     * Add the levels from another result
+     * @param result The result to add
+     */
+    protected synchronized void add(final Result result)
+    {
+        this.levels += result.levels;
+        this.solved += result.solved;
+        this.moves += result.moves;
+        this.pushes += result.pushes;
+        this.steps += result.steps;
+    }
+    
+    /**
+     * Set the time taken
+     * @param time The time taken to play every level (nanoseconds)
+     */
+    protected void setTime(final long time)
+    {
+        this.time = time;
+    }
+    
+    public String getName()
+    {
+        return this.name;
+    }
+    
+    public int getLevels()
+    {
+        return this.levels;
+    }
+    
+    public int getSolved()
+    {
+        return this.solved;
+    }
+    
+    /**
+     * Get the success rate
+     * @return The fraction of levels solved, 0 - 1
+     */
+    public double getSuccessRate()
+    {
+        return (levels == 0) ? 0 : (double)solved / levels;
+    }
+    
+    /**
+     * Get the average moves
+     * @return The average moves made in a solved level
+     */
+    public double getMoves()
+    {
+        return (solved == 0) ? 0 : (double)moves / solved;
+    }
+    
+    /**
+     * Get the average pushes
+     * @return The average pushes made in a solved level
+     */
+    public double getPushes()
+    {
+        return (solved == 0) ? 0 : (double)pushes / solved;
+    }
+    
+    /**
+     * Get the number of steps each second
+     * @return The moves made in every level divided by the time taken, including the time the agent spent choosing
+     */
+    public double getStepsPerSecond()
+    {
+        return (time == 0) ? 0 : steps * 1000000000.0 / time;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return String.format("%-8s levels=%d solved=%d (%.1f%%) moves=%.1f pushes=%.1f steps=%d steps/sec=%.0f time=%.1fs",
+            name, levels, solved, getSuccessRate() * 100, getMoves(), getPushes(), steps, getStepsPerSecond(), time / 1000000000.0);
+    }
+}
\ No newline at end of file
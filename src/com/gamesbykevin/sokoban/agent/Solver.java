@@ -0,0 +1,368 @@
+package com.gamesbykevin.sokoban.agent;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Searches for a solution by pushes, always expanding the position whose boxes are closest to the goals.<br>
+ * Boxes are never pushed into a cell they can't be moved to a goal from, and the search stops after a number of positions,
+ * so a solution is not always found and is not always the shortest.
+ * @author GOD
+ */
+final class Solver
+{
+    //every direction
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //the distance of a cell that can't reach a goal
+    protected static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+    
+    /**
+     * A position in the search, reached by a single push from its parent
+     */
+    private static final class Node
+    {
+        //the cell of each box, sorted
+        private final int[] boxes;
+        
+        //the cell of the player after the push
+        private final int player;
+        
+        //the position we pushed from, null for the start
+        private final Node parent;
+        
+        //the direction pushed
+        private final Direction direction;
+        
+        //the number of pushes from the start, and the estimate of pushes left
+        private final int pushes, estimate;
+        
+        private Node(final int[] boxes, final int player, final Node parent, final Direction direction, final int pushes, final int estimate)
+        {
+            this.boxes = boxes;
+            this.player = player;
+            this.parent = parent;
+            this.direction = direction;
+            this.pushes = pushes;
+            this.estimate = estimate;
+        }
+    }
+    
+    //positions closest to solved are expanded first
+    private static final Comparator<Node> ORDER = new Comparator<Node>()
+    {
+        @Override
+        public int compare(final Node a, final Node b)
+        {
+            if (a.estimate != b.estimate)
+                return (a.estimate < b.estimate) ? -1 : 1;
+            
+            return (a.pushes < b.pushes) ? -1 : (a.pushes > b.pushes) ? 1 : 0;
+        }
+    };
+    
+    //the most positions expanded before giving up
+    private final int maxNodes;
+    
+    //the layout being solved
+    private Layout layout;
+    
+    //the distance of each cell to the closest goal
+    private int[] distances;
+    
+    //cells with a box, and cells the player can reach, for the position being expanded
+    private boolean[] occupied, reached;
+    
+    //the cells to visit while searching the cells the player can reach
+    private int[] queue, from;
+    
+    protected Solver(final int maxNodes)
+    {
+        this.maxNodes = maxNodes;
+    }
+    
+    /**
+     * Search for a solution from the current board
+     * @param board The board to solve
+     * @return The moves that solve the level, null if no solution was found
+     */
+    protected List<Direction> solve(final Board board)
+    {
+        this.layout = board.getLayout();
+        this.distances = getDistances(layout);
+        this.occupied = new boolean[layout.getSize()];
+        this.reached = new boolean[layout.getSize()];
+        this.queue = new int[layout.getSize()];
+        this.from = new int[layout.getSize()];
+        
+        int[] boxes = new int[layout.getBoxCount()];
+        int count = 0;
+        
+        for (int cell = 0; cell < layout.getSize(); cell++)
+        {
+            if (board.hasBox(cell))
+                boxes[count++] = cell;
+        }
+        
+        final PriorityQueue<Node> open = new PriorityQueue<>(1024, ORDER);
+        final Set<String> seen = new HashSet<>();
+        
+        final Node start = new Node(boxes, board.getPlayer(), null, null, 0, estimate(boxes));
+        open.add(start);
+        seen.add(getKey(boxes, start.player));
+        
+        int expanded = 0;
+        
+        while (!open.isEmpty() && expanded < maxNodes)
+        {
+            final Node node = open.poll();
+            expanded++;
+            
+            if (isSolved(node.boxes))
+                return getMoves(node);
+            
+            //find every cell the player can reach without pushing
+            fill(node.boxes, node.player);
+            
+            for (int i = 0; i < node.boxes.length; i++)
+            {
+                final int box = node.boxes[i];
+                
+                for (Direction direction : DIRECTIONS)
+                {
+                    final int behind = getNeighbor(box, direction, -1);
+                    final int target = getNeighbor(box, direction, 1);
+                    
+                    //the player has to reach the cell behind the box, and the box can only move to a free cell that can still reach a goal
+                    if (behind < 0 || !reached[behind] || target < 0 || layout.isWall(target) || occupied[target] || distances[target] >= UNREACHABLE)
+                        continue;
+                    
+                    final int[] tmp = Arrays.copyOf(node.boxes, node.boxes.length);
+                    tmp[i] = target;
+                    Arrays.sort(tmp);
+                    
+                    if (seen.add(getKey(tmp, box)))
+                        open.add(new Node(tmp, box, node, direction, node.pushes + 1, estimate(tmp)));
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get the distance of each cell to the closest goal, in pushes, ignoring the other boxes
+     * @param layout The layout
+     * @return The distance of each cell, UNREACHABLE if a box in the cell can never reach a goal
+     */
+    protected static int[] getDistances(final Layout layout)
+    {
+        final int[] distances = new int[layout.getSize()];
+        final int[] queue = new int[layout.getSize()];
+        int head = 0, tail = 0;
+        
+        Arrays.fill(distances, UNREACHABLE);
+        
+        //work backwards from every goal, pulling the box
+        for (int cell = 0; cell < layout.getSize(); cell++)
+        {
+            if (layout.isGoal(cell))
+            {
+                distances[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        
+        while (head < tail)
+        {
+            final int cell = queue[head++];
+            final int col = cell % layout.getColumns();
+            final int row = cell / layout.getColumns();
+            
+            for (Direction direction : DIRECTIONS)
+            {
+                //the box came from the neighbor, pushed by the player standing one cell further
+                final int previous = layout.getCell(col + direction.getCol(), row + direction.getRow());
+                final int player = layout.getCell(col + (direction.getCol() * 2), row + (direction.getRow() * 2));
+                
+                if (previous < 0 || player < 0 || layout.isWall(previous) || layout.isWall(player) || distances[previous] < UNREACHABLE)
+                    continue;
+                
+                distances[previous] = distances[cell] + 1;
+                queue[tail++] = previous;
+            }
+        }
+        
+        return distances;
+    }
+    
+    /**
+     * Get the neighbor of the cell
+     * @param cell The cell index
+     * @param direction The direction of the neighbor
+     * @param scale 1 for the neighbor in the direction, -1 for the opposite
+     * @return The cell index of the neighbor, -1 if it is outside of the level
+     */
+    private int getNeighbor(final int cell, final Direction direction, final int scale)
+    {
+        return layout.getCell((cell % layout.getColumns()) + (direction.getCol() * scale), (cell / layout.getColumns()) + (direction.getRow() * scale));
+    }
+    
+    /**
+     * Estimate the pushes left
+     * @param boxes The cell of each box
+     * @return The total distance of each box to its closest goal
+     */
+    private int estimate(final int[] boxes)
+    {
+        int total = 0;
+        
+        for (int box : boxes)
+        {
+            total += distances[box];
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Is every box on a goal
+     * @param boxes The cell of each box
+     * @return true if the level is solved, false otherwise
+     */
+    private boolean isSolved(final int[] boxes)
+    {
+        for (int box : boxes)
+        {
+            if (!layout.isGoal(box))
+                return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Get the key of a position, used to skip positions already seen
+     * @param boxes The cell of each box, sorted
+     * @param player The cell of the player
+     * @return The key
+     */
+    private static String getKey(final int[] boxes, final int player)
+    {
+        final char[] key = new char[boxes.length + 1];
+        
+        for (int i = 0; i < boxes.length; i++)
+        {
+            key[i] = (char)boxes[i];
+        }
+        
+        key[boxes.length] = (char)player;
+        
+        return new String(key);
+    }
+    
+    /**
+     * Find every cell the player can reach without pushing a box, remembering the cell each was reached from
+     * @param boxes The cell of each box
+     * @param player The cell of the player
+     */
+    private void fill(final int[] boxes, final int player)
+    {
+        Arrays.fill(occupied, false);
+        Arrays.fill(reached, false);
+        
+        for (int box : boxes)
+        {
+            occupied[box] = true;
+        }
+        
+        int head = 0, tail = 0;
+        
+        queue[tail++] = player;
+        reached[player] = true;
+        from[player] = -1;
+        
+        while (head < tail)
+        {
+            final int cell = queue[head++];
+            
+            for (Direction direction : DIRECTIONS)
+            {
+                final int next = getNeighbor(cell, direction, 1);
+                
+                if (next < 0 || reached[next] || occupied[next] || layout.isWall(next))
+                    continue;
+                
+                reached[next] = true;
+                from[next] = cell;
+                queue[tail++] = next;
+            }
+        }
+    }
+    
+    /**
+     * Get the moves from the start to the position
+     * @param node The solved position
+     * @return The moves, walking between pushes
+     */
+    private List<Direction> getMoves(final Node node)
+    {
+        final List<Node> path = new ArrayList<>();
+        
+        for (Node tmp = node; tmp.parent != null; tmp = tmp.parent)
+        {
+            path.add(tmp);
+        }
+        
+        Collections.reverse(path);
+        
+        final List<Direction> moves = new ArrayList<>();
+        
+        for (Node tmp : path)
+        {
+            //walk to the cell behind the box, then push
+            final Node parent = tmp.parent;
+            final int behind = getNeighbor(tmp.player, tmp.direction, -1);
+            
+            fill(parent.boxes, parent.player);
+            
+            final int start = moves.size();
+            
+            for (int cell = behind; from[cell] >= 0; cell = from[cell])
+            {
+                moves.add(start, getDirection(from[cell], cell));
+            }
+            
+            moves.add(tmp.direction);
+        }
+        
+        return moves;
+    }
+    
+    /**
+     * Get the direction between two neighboring cells
+     * @param cell The cell we are moving from
+     * @param next The cell we are moving to
+     * @return The direction
+     */
+    private Direction getDirection(final int cell, final int next)
+    {
+        for (Direction direction : DIRECTIONS)
+        {
+            if (getNeighbor(cell, direction, 1) == next)
+                return direction;
+        }
+        
+        return null;
+    }
+}
\ No newline at end of file
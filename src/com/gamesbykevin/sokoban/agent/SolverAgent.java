@@ -0,0 +1,67 @@
+package com.gamesbykevin.sokoban.agent;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.List;
+
+/**
+ * Searches for a solution when the level starts, then plays the moves found.<br>
+ * If no solution was found the agent gives up right away.
+ * @author GOD
+ */
+public final class SolverAgent implements Agent
+{
+    //the default number of positions searched before giving up
+    public static final int DEFAULT_MAX_NODES = 20000;
+    
+    //the most positions searched
+    private final int maxNodes;
+    
+    //the object searching for the solution
+    private final Solver solver;
+    
+    //the moves of the solution, and the next move to make
+    private List<Direction> moves;
+    private int index;
+    
+    public SolverAgent()
+    {
+        this(DEFAULT_MAX_NODES);
+    }
+    
+    /**
+     * Create the agent
+     * @param maxNodes The most positions searched for each level
+     */
+    public SolverAgent(final int maxNodes)
+    {
+        this.maxNodes = maxNodes;
+        this.solver = new Solver(maxNodes);
+    }
+    
+    @Override
+    public String getName()
+    {
+        return "solver";
+    }
+    
+    @Override
+    public Agent create()
+    {
+        return new SolverAgent(maxNodes);
+    }
+    
+    @Override
+    public void start(final Board board, final long seed)
+    {
+        moves = solver.solve(board);
+        index = 0;
+    }
+    
+    @Override
+    public Direction next(final Board board)
+    {
+        return (moves != null && index < moves.size()) ? moves.get(index++) : null;
+    }
+}
\ No newline at end of file
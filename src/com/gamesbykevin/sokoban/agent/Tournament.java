@@ -0,0 +1,242 @@
+package com.gamesbykevin.sokoban.agent;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays every level with an agent, without a window, on many threads.<br>
+ * Each thread takes the next level not yet played, so a slow level doesn't hold up the others.
+ * A level ends when it is solved, the agent gives up or the move limit of the level is reached.
+ * The move limit is a number of moves for each cell inside the level, so bigger levels allow more moves.
+ * @author GOD
+ */
+public final class Tournament implements Disposable
+{
+    //the default number of moves allowed for each cell inside a level
+    public static final int DEFAULT_MOVES_PER_CELL = 20;
+    
+    //the layouts played
+    private final List<Layout> layouts;
+    
+    //the moves allowed for each cell inside a level
+    private final int movesPerCell;
+    
+    //the number of threads playing
+    private final int threads;
+    
+    //the threads playing the levels
+    private ExecutorService executor;
+    
+    /**
+     * Create the tournament
+     * @param layouts The layouts played
+     * @param threads The number of threads playing
+     * @param movesPerCell The moves allowed for each cell inside a level
+     */
+    public Tournament(final List<Layout> layouts, final int threads, final int movesPerCell)
+    {
+        this.layouts = layouts;
+        this.threads = threads;
+        this.movesPerCell = movesPerCell;
+        
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "Tournament");
+                
+                //don't keep the application running because of the tournament
+                thread.setDaemon(true);
+                
+                return thread;
+            }
+        });
+    }
+    
+    /**
+     * Get the move limit
+     * @param layout The layout
+     * @return The most moves allowed in the level
+     */
+    public int getMoveLimit(final Layout layout)
+    {
+        int cells = 0;
+        
+        for (int cell = 0; cell < layout.getSize(); cell++)
+        {
+            if (layout.isInside(cell))
+                cells++;
+        }
+        
+        return cells * movesPerCell;
+    }
+    
+    /**
+     * Play every level with the agent
+     * @param agent The agent, each thread plays with its own copy
+     * @return The results
+     * @throws Exception if there was a problem playing on a thread
+     */
+    public Result run(final Agent agent) throws Exception
+    {
+        final Result result = new Result(agent.getName());
+        
+        //the next level to play
+        final AtomicInteger next = new AtomicInteger();
+        
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        
+        for (int i = 0; i < threads; i++)
+        {
+            tasks.add(new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    play(agent.create(), next, result);
+                    return null;
+                }
+            });
+        }
+        
+        final long time = System.nanoTime();
+        
+        //wait for every thread to finish, if there was a problem the exception will be thrown here
+        for (Future<Void> future : executor.invokeAll(tasks))
+        {
+            future.get();
+        }
+        
+        result.setTime(System.nanoTime() - time);
+        
+        return result;
+    }
+    
+    /**
+     * Play levels until every level has been played
+     * @param agent The agent of this thread
+     * @param next The index of the next level to play
+     * @param result The results, the results of this thread are added once done
+     */
+    private void play(final Agent agent, final AtomicInteger next, final Result result)
+    {
+        final Result tmp = new Result(agent.getName());
+        
+        Board board = null;
+        
+        int index;
+        
+        while ((index = next.getAndIncrement()) < layouts.size())
+        {
+            final Layout layout = layouts.get(index);
+            
+            if (board == null)
+            {
+                board = new Board(layout);
+            }
+            else
+            {
+                board.reset(layout);
+            }
+            
+            final int limit = getMoveLimit(layout);
+            
+            agent.start(board, index);
+            
+            while (!board.isSolved() && board.getMoves() < limit)
+            {
+                final Direction direction = agent.next(board);
+                
+                //the agent gave up
+                if (direction == null)
+                    break;
+                
+                //a move that is not allowed ends the level
+                if (board.step(direction) == Board.BLOCKED)
+                    break;
+            }
+            
+            tmp.add(board.isSolved(), board.getMoves(), board.getPushes());
+        }
+        
+        result.add(tmp);
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Play the levels included with the game with each agent, and print the results
+     * @param args The agents to play (random, greedy, solver), the number of threads, and the number of levels
+     * @throws Exception if the levels can't be read or there was a problem playing
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        final String[] names = (args.length > 0) ? args[0].split(",") : new String[] {"random", "greedy", "solver"};
+        final int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        
+        List<Layout> layouts = Layouts.read();
+        
+        if (args.length > 2)
+            layouts = layouts.subList(0, Math.min(layouts.size(), Integer.parseInt(args[2])));
+        
+        final Tournament tournament = new Tournament(layouts, threads, DEFAULT_MOVES_PER_CELL);
+        
+        try
+        {
+            for (String name : names)
+            {
+                System.out.println(tournament.run(create(name)));
+            }
+        }
+        finally
+        {
+            tournament.dispose();
+        }
+    }
+    
+    /**
+     * Create the agent
+     * @param name The name of the agent
+     * @return The agent
+     * @throws Exception if there is no agent with the name
+     */
+    public static Agent create(final String name) throws Exception
+    {
+        switch (name.trim().toLowerCase())
+        {
+            case "random":
+                return new RandomAgent();
+            
+            case "greedy":
+                return new GreedyAgent();
+            
+            case "solver":
+                return new SolverAgent();
+            
+            default:
+                throw new Exception("Agent not found " + name);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,392 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.Levels;
+
+/**
+ * The state of a level being played, without anything needed to draw it.<br>
+ * The walls and goals come from the shared layout, the board only keeps where the boxes and player are.
+ * A board can be reset to any layout, so it can be reused without creating new objects.
+ * @author GOD
+ */
+public final class Board
+{
+    //the result of a step
+    public static final int BLOCKED = -1;
+    public static final int MOVED = 0;
+    public static final int PUSHED = 1;
+    
+    //the largest number of cells in any level
+    public static final int MAX_CELLS = Levels.MAX_DIMENSIONS * Levels.MAX_DIMENSIONS;
+    
+    //the directions, by their index
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //the layout being played
+    private Layout layout;
+    
+    //is there a box in each cell
+    private final boolean[] boxes = new boolean[MAX_CELLS];
+    
+    //the cell the player is in
+    private int player;
+    
+    //the number of boxes on a goal
+    private int placed;
+    
+    //the number of moves and pushes made
+    private int moves, pushes;
+    
+    /**
+     * Create a board
+     * @param layout The layout to start playing
+     */
+    public Board(final Layout layout)
+    {
+        reset(layout);
+    }
+    
+    /**
+     * Start the layout from the beginning
+     * @param layout The layout we want to play
+     */
+    public void reset(final Layout layout)
+    {
+        //remove the boxes of the previous layout
+        if (this.layout != null)
+        {
+            for (int i = 0; i < this.layout.getSize(); i++)
+            {
+                boxes[i] = false;
+            }
+        }
+        
+        this.layout = layout;
+        this.player = layout.getPlayer();
+        this.placed = 0;
+        this.moves = 0;
+        this.pushes = 0;
+        
+        for (int i = 0; i < layout.getBoxCount(); i++)
+        {
+            boxes[layout.getBox(i)] = true;
+            
+            if (layout.isGoal(layout.getBox(i)))
+                placed++;
+        }
+    }
+    
+    /**
+     * Start the current layout from the beginning
+     */
+    public void reset()
+    {
+        reset(layout);
+    }
+    
+    /**
+     * Get the direction
+     * @param index The index of the direction (the ordinal)
+     * @return The direction
+     */
+    public static Direction getDirection(final int index)
+    {
+        return DIRECTIONS[index];
+    }
+    
+    /**
+     * Get the cell next to this one
+     * @param cell The cell index
+     * @param direction The direction of the neighbor
+     * @return The cell index of the neighbor, -1 if it is outside of the level
+     */
+    public int getNeighbor(final int cell, final Direction direction)
+    {
+        return layout.getCell((cell % layout.getColumns()) + direction.getCol(), (cell / layout.getColumns()) + direction.getRow());
+    }
+    
+    /**
+     * Is the cell blocked, a box can't be pushed into a blocked cell
+     * @param cell The cell index, -1 is outside of the level
+     * @return true if the cell is outside of the level, or contains a wall or box
+     */
+    public boolean isBlocked(final int cell)
+    {
+        return (cell < 0 || layout.isWall(cell) || boxes[cell]);
+    }
+    
+    /**
+     * Check the move without making it
+     * @param direction The direction we want to move the player
+     * @return BLOCKED if the player can't move, PUSHED if a box would be pushed, MOVED otherwise
+     */
+    public int check(final Direction direction)
+    {
+        final int next = getNeighbor(player, direction);
+        
+        //we can't move outside of the level or into a wall
+        if (next < 0 || layout.isWall(next))
+            return BLOCKED;
+        
+        if (!boxes[next])
+            return MOVED;
+        
+        //the box can only be pushed if nothing is behind it
+        return isBlocked(getNeighbor(next, direction)) ? BLOCKED : PUSHED;
+    }
+    
+    /**
+     * Move the player, pushing a box if one is in the way
+     * @param direction The direction we want to move the player
+     * @return BLOCKED if the player can't move, PUSHED if a box was pushed, MOVED otherwise
+     */
+    public int step(final Direction direction)
+    {
+        final int result = check(direction);
+        
+        if (result == BLOCKED)
+            return result;
+        
+        final int next = getNeighbor(player, direction);
+        
+        if (result == PUSHED)
+        {
+            moveBox(next, getNeighbor(next, direction));
+            pushes++;
+        }
+        
+        player = next;
+        moves++;
+        
+        return result;
+    }
+    
+    /**
+     * Reverse the last step made
+     * @param direction The direction of the step
+     * @param pushed Did the step push a box
+     */
+    public void undo(final Direction direction, final boolean pushed)
+    {
+        final int col = player % layout.getColumns();
+        final int row = player / layout.getColumns();
+        
+        //pull the box back into the cell the player is leaving
+        if (pushed)
+        {
+            moveBox(getNeighbor(player, direction), player);
+            pushes--;
+        }
+        
+        player = layout.getCell(col - direction.getCol(), row - direction.getRow());
+        moves--;
+    }
+    
+    /**
+     * Undo the last move recorded in the journal
+     * @param journal The moves made on this board
+     * @return true if a move was undone, false if there was nothing to undo
+     */
+    public boolean undo(final Journal journal)
+    {
+        final int move = journal.undo();
+        
+        if (move == Journal.NONE)
+            return false;
+        
+        undo(Journal.getDirection(move), Journal.isPushed(move));
+        
+        return true;
+    }
+    
+    /**
+     * Redo the last move undone in the journal, only if it can be made the same way it was recorded
+     * @param journal The moves made on this board
+     * @return true if a move was redone, false if there was nothing to redo or the move doesn't match the board
+     */
+    public boolean redo(final Journal journal)
+    {
+        final int move = journal.redo();
+        
+        if (move == Journal.NONE)
+            return false;
+        
+        final int result = check(Journal.getDirection(move));
+        
+        //the move has to be possible, and push only when the journal says it did
+        if (result == BLOCKED || (result == PUSHED) != Journal.isPushed(move))
+        {
+            //the journal goes back to where it was
+            journal.undo();
+            return false;
+        }
+        
+        step(Journal.getDirection(move));
+        
+        return true;
+    }
+    
+    /**
+     * Place the boxes and player where they were when the snapshot was created
+     * @param snapshot A snapshot of the layout being played
+     * @throws Exception if the snapshot doesn't fit the layout
+     */
+    public void restore(final Snapshot snapshot) throws Exception
+    {
+        if (snapshot.getBoxCount() != layout.getBoxCount())
+            throw new Exception("Snapshot has " + snapshot.getBoxCount() + " boxes, the layout has " + layout.getBoxCount());
+        if (snapshot.getPlayer() >= layout.getSize() || layout.isWall(snapshot.getPlayer()))
+            throw new Exception("Snapshot player is not on the floor " + snapshot.getPlayer());
+        
+        //check every box before anything is changed
+        for (int i = 0; i < snapshot.getBoxCount(); i++)
+        {
+            if (snapshot.getBox(i) >= layout.getSize() || layout.isWall(snapshot.getBox(i)))
+                throw new Exception("Snapshot box is not on the floor " + snapshot.getBox(i));
+        }
+        
+        for (int i = 0; i < layout.getSize(); i++)
+        {
+            boxes[i] = false;
+        }
+        
+        this.placed = 0;
+        
+        for (int i = 0; i < snapshot.getBoxCount(); i++)
+        {
+            boxes[snapshot.getBox(i)] = true;
+            
+            if (layout.isGoal(snapshot.getBox(i)))
+                placed++;
+        }
+        
+        this.player = snapshot.getPlayer();
+        this.moves = snapshot.getMoves();
+        this.pushes = snapshot.getPushes();
+    }
+    
+    /**
+     * Move the box, keeping the count of placed boxes
+     * @param from The cell of the box
+     * @param to The cell the box moves to
+     */
+    protected void moveBox(final int from, final int to)
+    {
+        boxes[from] = false;
+        boxes[to] = true;
+        
+        if (layout.isGoal(from))
+            placed--;
+        if (layout.isGoal(to))
+            placed++;
+    }
+    
+    /**
+     * Place the player, without checking if the move is valid
+     * @param cell The cell index
+     */
+    protected void setPlayer(final int cell)
+    {
+        this.player = cell;
+    }
+    
+    /**
+     * Is the level solved
+     * @return true if every box is on a goal, false otherwise
+     */
+    public boolean isSolved()
+    {
+        return (placed == layout.getBoxCount());
+    }
+    
+    /**
+     * Is there a box in the cell
+     * @param cell The cell index
+     * @return true if there is a box in the cell, false otherwise
+     */
+    public boolean hasBox(final int cell)
+    {
+        return boxes[cell];
+    }
+    
+    /**
+     * Get the layout
+     * @return The layout being played
+     */
+    public Layout getLayout()
+    {
+        return this.layout;
+    }
+    
+    /**
+     * Get the player
+     * @return The cell index the player is in
+     */
+    public int getPlayer()
+    {
+        return this.player;
+    }
+    
+    /**
+     * Get the number of boxes on a goal
+     * @return The total number of boxes placed on a goal
+     */
+    public int getPlaced()
+    {
+        return this.placed;
+    }
+    
+    /**
+     * Get the number of moves made
+     * @return The total number of moves, including pushes
+     */
+    public int getMoves()
+    {
+        return this.moves;
+    }
+    
+    /**
+     * Get the number of pushes made
+     * @return The total number of moves that pushed a box
+     */
+    public int getPushes()
+    {
+        return this.pushes;
+    }
+    
+    /**
+     * Describe the board using the same characters as the levels text file, one line per row
+     * @return The board as text
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder(layout.getSize() + layout.getRows());
+        
+        for (int cell = 0; cell < layout.getSize(); cell++)
+        {
+            if (cell > 0 && cell % layout.getColumns() == 0)
+                builder.append('\n');
+            
+            if (layout.isWall(cell))
+            {
+                builder.append(Level.KEY_WALL);
+            }
+            else if (cell == player)
+            {
+                builder.append(layout.isGoal(cell) ? Level.KEY_PLAYER_ON_GOAL : Level.KEY_PLAYER);
+            }
+            else if (boxes[cell])
+            {
+                builder.append(layout.isGoal(cell) ? Level.KEY_BOX_ON_GOAL : Level.KEY_BOX);
+            }
+            else
+            {
+                builder.append(layout.isGoal(cell) ? Level.KEY_GOAL : Level.KEY_FLOOR);
+            }
+        }
+        
+        return builder.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+/**
+ * The moves made in a level, so they can be undone and redone one at a time.<br>
+ * Each move is stored in 4 bits, the direction and if a box was pushed, 2 moves to a byte.
+ * Undo and redo only move the current position, so both take the same time no matter how many moves were made.
+ * The moves are kept in a ring, once full the oldest move is forgotten and can no longer be undone.
+ * @author GOD
+ */
+public final class Journal
+{
+    //the bit marking a move that pushed a box, the lower bits are the direction
+    private static final int PUSH = 4;
+    
+    //the value returned when there is no move to undo or redo
+    public static final int NONE = -1;
+    
+    //the directions, by their index
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //the moves, 2 to a byte
+    private final byte[] entries;
+    
+    //the most moves kept
+    private final int capacity;
+    
+    //the index of the oldest move kept
+    private int start = 0;
+    
+    //the number of moves made (that can be undone), and the number of moves kept including the ones that can be redone
+    private int position = 0, size = 0;
+    
+    /**
+     * Create the journal
+     * @param capacity The most moves kept
+     */
+    public Journal(final int capacity)
+    {
+        this.capacity = capacity;
+        this.entries = new byte[(capacity + 1) / 2];
+    }
+    
+    /**
+     * Record a move, any moves that could be redone are forgotten
+     * @param direction The direction moved
+     * @param pushed Did the move push a box
+     */
+    public void add(final Direction direction, final boolean pushed)
+    {
+        //if full forget the oldest move
+        if (position == capacity)
+        {
+            start = (start + 1) % capacity;
+            position--;
+        }
+        
+        set((start + position) % capacity, direction.ordinal() | (pushed ? PUSH : 0));
+        
+        position++;
+        size = position;
+    }
+    
+    /**
+     * Step back one move
+     * @return The move undone, NONE if there is nothing to undo
+     */
+    public int undo()
+    {
+        if (position == 0)
+            return NONE;
+        
+        position--;
+        
+        return read((start + position) % capacity);
+    }
+    
+    /**
+     * Step forward one move that was undone
+     * @return The move redone, NONE if there is nothing to redo
+     */
+    public int redo()
+    {
+        if (position == size)
+            return NONE;
+        
+        position++;
+        
+        return read((start + position - 1) % capacity);
+    }
+    
+    /**
+     * Is there a move to undo
+     * @return true if undo will return a move, false otherwise
+     */
+    public boolean canUndo()
+    {
+        return (position > 0);
+    }
+    
+    /**
+     * Is there a move to redo
+     * @return true if redo will return a move, false otherwise
+     */
+    public boolean canRedo()
+    {
+        return (position < size);
+    }
+    
+    /**
+     * Forget every move
+     */
+    public void clear()
+    {
+        start = 0;
+        position = 0;
+        size = 0;
+    }
+    
+    /**
+     * Get the number of moves that can be undone
+     * @return The number of moves made that are kept
+     */
+    public int getPosition()
+    {
+        return this.position;
+    }
+    
+    /**
+     * Get the number of moves kept
+     * @return The number of moves that can be undone plus the number that can be redone
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+    
+    /**
+     * Get the move kept
+     * @param index The index of the move, 0 is the oldest move kept
+     * @return The move
+     */
+    public int get(final int index)
+    {
+        return read((start + index) % capacity);
+    }
+    
+    /**
+     * Get the direction of a move
+     * @param move The move
+     * @return The direction moved
+     */
+    public static Direction getDirection(final int move)
+    {
+        return DIRECTIONS[move & (PUSH - 1)];
+    }
+    
+    /**
+     * Did the move push a box
+     * @param move The move
+     * @return true if a box was pushed, false otherwise
+     */
+    public static boolean isPushed(final int move)
+    {
+        return ((move & PUSH) != 0);
+    }
+    
+    /**
+     * Read the move stored at the slot
+     * @param slot The slot in the ring
+     * @return The move
+     */
+    private int read(final int slot)
+    {
+        return (entries[slot / 2] >> ((slot % 2) * 4)) & 0xf;
+    }
+    
+    /**
+     * Store the move in the slot
+     * @param slot The slot in the ring
+     * @param move The move
+     */
+    private void set(final int slot, final int move)
+    {
+        final int shift = (slot % 2) * 4;
+        
+        entries[slot / 2] = (byte)((entries[slot / 2] & ~(0xf << shift)) | (move << shift));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.gamesbykevin.sokoban.board;
+
+/**
+ * The parsed layout of a single level, the walls, goals and the starting location of the boxes and player.<br>
+ * A layout never changes once created, so it can be shared by any number of boards and threads.
+ * Each location is a cell index, which is (row * columns) + column.
+ * @author GOD
+ */
+public final class Layout
+{
+    //the index of this level in the file, and the name of the level if it has one
+    private final int index;
+    private final String name;
+    
+    //the dimensions of the level
+    private final int cols, rows;
+    
+    //is there a wall or goal in each cell
+    private final boolean[] walls, goals;
+    
+    //is each cell inside the walls, where the player can reach if there were no boxes
+    private final boolean[] inside;
+    
+    //the starting cell of each box
+    private final int[] boxes;
+    
+    //the starting cell of the player
+    private final int player;
+    
+    protected Layout(final int index, final String name, final int cols, final int rows, final boolean[] walls, final boolean[] goals, final int[] boxes, final int player)
+    {
+        this.index = index;
+        this.name = name;
+        this.cols = cols;
+        this.rows = rows;
+        this.walls = walls;
+        this.goals = goals;
+        this.boxes = boxes;
+        this.player = player;
+        this.inside = new boolean[cols * rows];
+        
+        //every cell the player can reach from the start is inside
+        final int[] queue = new int[cols * rows];
+        int head = 0, tail = 0;
+        
+        queue[tail++] = player;
+        inside[player] = true;
+        
+        while (head < tail)
+        {
+            final int cell = queue[head++];
+            final int col = cell % cols;
+            final int row = cell / cols;
+            
+            //check the 4 neighbors
+            for (int i = 0; i < 4; i++)
+            {
+                final int tmpCol = col + ((i == 0) ? -1 : (i == 1) ? 1 : 0);
+                final int tmpRow = row + ((i == 2) ? -1 : (i == 3) ? 1 : 0);
+                
+                if (tmpCol < 0 || tmpCol >= cols || tmpRow < 0 || tmpRow >= rows)
+                    continue;
+                
+                final int tmp = (tmpRow * cols) + tmpCol;
+                
+                if (!walls[tmp] && !inside[tmp])
+                {
+                    inside[tmp] = true;
+                    queue[tail++] = tmp;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get the index of this level
+     * @return The index of the level in the order it was found in the file, the same index the game gives the level
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+    
+    /**
+     * Get the name
+     * @return The name of the level, null if it doesn't have one
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+    
+    /**
+     * Get the columns
+     * @return The total number of columns in this level
+     */
+    public int getColumns()
+    {
+        return this.cols;
+    }
+    
+    /**
+     * Get the rows
+     * @return The total number of rows in this level
+     */
+    public int getRows()
+    {
+        return this.rows;
+    }
+    
+    /**
+     * Get the number of cells
+     * @return The total number of cells (columns * rows)
+     */
+    public int getSize()
+    {
+        return (cols * rows);
+    }
+    
+    /**
+     * Get the cell index
+     * @param col Column
+     * @param row Row
+     * @return The cell index, -1 if the location is outside of the level
+     */
+    public int getCell(final int col, final int row)
+    {
+        if (col < 0 || col >= cols || row < 0 || row >= rows)
+            return -1;
+        
+        return (row * cols) + col;
+    }
+    
+    /**
+     * Is there a wall
+     * @param cell The cell index
+     * @return true if there is a wall in the cell, false otherwise
+     */
+    public boolean isWall(final int cell)
+    {
+        return walls[cell];
+    }
+    
+    /**
+     * Is there a goal
+     * @param cell The cell index
+     * @return true if there is a goal in the cell, false otherwise
+     */
+    public boolean isGoal(final int cell)
+    {
+        return goals[cell];
+    }
+    
+    /**
+     * Is the cell inside the walls
+     * @param cell The cell index
+     * @return true if the player could reach this cell if there were no boxes, false otherwise
+     */
+    public boolean isInside(final int cell)
+    {
+        return inside[cell];
+    }
+    
+    /**
+     * Get the number of boxes
+     * @return The total number of boxes in this level
+     */
+    public int getBoxCount()
+    {
+        return boxes.length;
+    }
+    
+    /**
+     * Get the starting cell of the box
+     * @param index The index of the box
+     * @return The cell index the box starts at
+     */
+    public int getBox(final int index)
+    {
+        return boxes[index];
+    }
+    
+    /**
+     * Get the starting cell of the player
+     * @return The cell index the player starts at
+     */
+    public int getPlayer()
+    {
+        return this.player;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.Levels;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates the layouts from the levels text file, using the same rules as the game when it creates the levels.<br>
+ * A level starts at the first line beginning with a level key, and ends at the next line that does not.
+ * Levels larger than the maximum dimensions are skipped, the same as in the game.
+ * @author GOD
+ */
+public final class Layouts
+{
+    //the location of the levels text file included with the game
+    public static final String LEVELS_FILE = "/resources/text/levels.txt";
+    
+    //the lines describing a level start with
+    private static final String COMMENT = ";";
+    
+    private Layouts()
+    {
+        //no instances of this class
+    }
+    
+    /**
+     * Read the layouts from the levels text file included with the game
+     * @return Every layout in the file
+     * @throws Exception if the file can't be read, or a level can't be created
+     */
+    public static List<Layout> read() throws Exception
+    {
+        final InputStream input = Layouts.class.getResourceAsStream(LEVELS_FILE);
+        
+        if (input == null)
+            throw new Exception("Levels file not found " + LEVELS_FILE);
+        
+        return read(input);
+    }
+    
+    /**
+     * Read the layouts
+     * @param input The text to read, this will be closed
+     * @return Every layout in the text
+     * @throws Exception if the text can't be read, or a level can't be created
+     */
+    public static List<Layout> read(final InputStream input) throws Exception
+    {
+        final List<String> lines = new ArrayList<>();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8")))
+        {
+            String line;
+            
+            while ((line = reader.readLine()) != null)
+            {
+                lines.add(line);
+            }
+        }
+        
+        return parse(lines);
+    }
+    
+    /**
+     * Create the layouts
+     * @param lines All of the lines in the text file
+     * @return Every layout in the lines
+     * @throws Exception if a level contains a character that isn't a level key
+     */
+    public static List<Layout> parse(final List<String> lines) throws Exception
+    {
+        final List<Layout> layouts = new ArrayList<>();
+        
+        //did we locate the first line of the level
+        boolean began = false;
+        
+        //the maximum number of columns in a row
+        int maxCols = 0;
+        
+        //line where the current level starts
+        int start = 0;
+        
+        //the index the game gives the next level, the game counts levels that can't be played so we do too
+        int index = 0;
+        
+        for (int i = 0; i < lines.size(); i++)
+        {
+            final String line = lines.get(i);
+            
+            if (line.length() == 0)
+                continue;
+            
+            if (isLevelKey(line.charAt(0)))
+            {
+                //if we did not find the level start yet mark the start position
+                if (!began)
+                {
+                    start = i;
+                    began = true;
+                }
+                
+                //find the row with the most columns
+                maxCols = Math.max(maxCols, line.length());
+            }
+            else if (began)
+            {
+                //only create level if within the allowed dimension size
+                if (maxCols <= Levels.MAX_DIMENSIONS && (i - start) <= Levels.MAX_DIMENSIONS)
+                {
+                    //the line ending the level is its name
+                    final String name = line.startsWith(COMMENT) ? line.substring(COMMENT.length()).trim() : null;
+                    
+                    final Layout layout = create(index++, name, start, i - 1, maxCols, lines);
+                    
+                    //a level without a player (such as a line with only a space) can't be played
+                    if (layout != null)
+                        layouts.add(layout);
+                }
+                
+                //reset variables for next level
+                maxCols = 0;
+                began = false;
+            }
+        }
+        
+        return layouts;
+    }
+    
+    /**
+     * Find the layout with the index the game gives the level
+     * @param layouts The layouts, in the order they were read
+     * @param index The index of the level
+     * @return The layout, null if there is no playable level with the index
+     */
+    public static Layout find(final List<Layout> layouts, final int index)
+    {
+        int low = 0;
+        int high = layouts.size() - 1;
+        
+        //the layouts are in order of their index, with a gap for each level skipped
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final int tmp = layouts.get(middle).getIndex();
+            
+            if (tmp < index)
+            {
+                low = middle + 1;
+            }
+            else if (tmp > index)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return layouts.get(middle);
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Is the character one of the level keys
+     * @param key The character
+     * @return true if the character is part of a level, false otherwise
+     */
+    private static boolean isLevelKey(final char key)
+    {
+        switch (String.valueOf(key))
+        {
+            case Level.KEY_WALL:
+            case Level.KEY_PLAYER:
+            case Level.KEY_PLAYER_ON_GOAL:
+            case Level.KEY_BOX:
+            case Level.KEY_BOX_ON_GOAL:
+            case Level.KEY_GOAL:
+            case Level.KEY_FLOOR:
+                return true;
+            
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Create the layout
+     * @param index The index of the level
+     * @param name The name of the level, can be null
+     * @param start Starting line position of level
+     * @param finish Finish line position of level
+     * @param cols The maximum column dimension for this level
+     * @param lines The lines of the text file
+     * @return The layout of the level, null if there is no player
+     * @throws Exception if the level contains a character that isn't a level key
+     */
+    private static Layout create(final int index, final String name, final int start, final int finish, final int cols, final List<String> lines) throws Exception
+    {
+        final int rows = (finish + 1) - start;
+        
+        final boolean[] walls = new boolean[cols * rows];
+        final boolean[] goals = new boolean[cols * rows];
+        
+        //the boxes found, there can't be more than the number of cells
+        int[] boxes = new int[cols * rows];
+        int count = 0;
+        
+        int player = -1;
+        
+        for (int row = 0; row < rows; row++)
+        {
+            final String line = lines.get(start + row);
+            
+            for (int col = 0; col < line.length(); col++)
+            {
+                final int cell = (row * cols) + col;
+                
+                switch (line.substring(col, col + 1))
+                {
+                    case Level.KEY_WALL:
+                        walls[cell] = true;
+                        break;
+                    
+                    case Level.KEY_BOX:
+                        boxes[count++] = cell;
+                        break;
+                    
+                    case Level.KEY_BOX_ON_GOAL:
+                        goals[cell] = true;
+                        boxes[count++] = cell;
+                        break;
+                    
+                    case Level.KEY_GOAL:
+                        goals[cell] = true;
+                        break;
+                    
+                    case Level.KEY_PLAYER_ON_GOAL:
+                        goals[cell] = true;
+                        player = cell;
+                        break;
+                    
+                    case Level.KEY_PLAYER:
+                        player = cell;
+                        break;
+                    
+                    case Level.KEY_FLOOR:
+                        //do nothing for the floor
+                        break;
+                    
+                    default:
+                        throw new Exception("Character not found '" + line.substring(col, col + 1) + "', line = " + (start + row) + ", column = " + col);
+                }
+            }
+        }
+        
+        if (player < 0)
+            return null;
+        
+        return new Layout(index, name, cols, rows, walls, goals, Arrays.copyOf(boxes, count), player);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+/**
+ * The standard notation for Sokoban solutions, one letter for each move.<br>
+ * l, u, r, d are moves left, up, right and down, the upper case letter is used when the move pushes a box.
+ * @author GOD
+ */
+public final class Lurd
+{
+    //the letter of each direction, by the index of the direction
+    private static final char[] MOVES = {'l', 'r', 'u', 'd'};
+    private static final char[] PUSHES = {'L', 'R', 'U', 'D'};
+    
+    private Lurd()
+    {
+        //no instances of this class
+    }
+    
+    /**
+     * Get the letter for a move
+     * @param direction The direction moved
+     * @param pushed Did the move push a box
+     * @return The letter
+     */
+    public static char toChar(final Direction direction, final boolean pushed)
+    {
+        return pushed ? PUSHES[direction.ordinal()] : MOVES[direction.ordinal()];
+    }
+    
+    /**
+     * Get the direction of a letter
+     * @param move The letter
+     * @return The direction, null if the letter is not a move
+     */
+    public static Direction getDirection(final char move)
+    {
+        switch (move)
+        {
+            case 'l':
+            case 'L':
+                return Direction.WEST;
+            
+            case 'r':
+            case 'R':
+                return Direction.EAST;
+            
+            case 'u':
+            case 'U':
+                return Direction.NORTH;
+            
+            case 'd':
+            case 'D':
+                return Direction.SOUTH;
+            
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Does the letter mark a push
+     * @param move The letter
+     * @return true if the letter is upper case, false otherwise
+     */
+    public static boolean isPush(final char move)
+    {
+        return (move >= 'A' && move <= 'Z');
+    }
+    
+    /**
+     * Write the moves that can be undone in the journal
+     * @param journal The moves made
+     * @return The moves, oldest first
+     */
+    public static String toString(final Journal journal)
+    {
+        final StringBuilder builder = new StringBuilder(journal.getPosition());
+        
+        for (int i = 0; i < journal.getPosition(); i++)
+        {
+            builder.append(toChar(Journal.getDirection(journal.get(i)), Journal.isPushed(journal.get(i))));
+        }
+        
+        return builder.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,518 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Finds where the player can walk, the shortest paths to walk, and the fewest pushes to move a box, on a grid of walls and boxes.<br>
+ * Every cell of a level fits in 4 longs, one bit per cell, so each step of the search moves the whole frontier at once with shifts.
+ * The search from a cell is kept until a wall or box changes, so asking for many paths from the same cell only searches once.
+ * No objects are created while searching.
+ * @author GOD
+ */
+public final class Reachability
+{
+    //the number of longs needed for one bit per cell
+    private static final int WORDS = (Board.MAX_CELLS + 63) / 64;
+    
+    //the most pushes a single box can make, one state for each cell and side of the box
+    private static final int STATES = Board.MAX_CELLS * 4;
+    
+    //the directions, by their index
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //the dimensions of the grid
+    private int cols, rows;
+    
+    //cells that are not walls, and cells with a box
+    private final long[] floors = new long[WORDS];
+    private final long[] boxes = new long[WORDS];
+    
+    //cells not in the first column, and cells not in the last column
+    private final long[] notFirst = new long[WORDS];
+    private final long[] notLast = new long[WORDS];
+    
+    //the cells first reached at each distance of the search, and every cell reached
+    private final long[][] layers = new long[Board.MAX_CELLS + 1][WORDS];
+    private final long[] reached = new long[WORDS];
+    
+    //the number of layers of the search, and the cell the search is from (-1 if there is no search)
+    private int depth = 0, origin = -1;
+    
+    //temporary bits used while searching
+    private final long[] west = new long[WORDS];
+    private final long[] east = new long[WORDS];
+    private final long[] region = new long[WORDS];
+    private final long[] frontier = new long[WORDS];
+    private final long[] next = new long[WORDS];
+    
+    //the push search, the previous state of each state, and the states to visit
+    private final int[] parents = new int[STATES];
+    private final int[] queue = new int[STATES];
+    
+    /**
+     * Start a new grid, every cell is a floor with no box
+     * @param cols The number of columns
+     * @param rows The number of rows
+     */
+    public void reset(final int cols, final int rows)
+    {
+        this.cols = cols;
+        this.rows = rows;
+        
+        Arrays.fill(floors, 0L);
+        Arrays.fill(boxes, 0L);
+        Arrays.fill(notFirst, 0L);
+        Arrays.fill(notLast, 0L);
+        
+        for (int cell = 0; cell < cols * rows; cell++)
+        {
+            set(floors, cell, true);
+            set(notFirst, cell, (cell % cols) != 0);
+            set(notLast, cell, (cell % cols) != cols - 1);
+        }
+        
+        origin = -1;
+    }
+    
+    /**
+     * Set the walls and boxes from a board
+     * @param board The board
+     */
+    public void reset(final Board board)
+    {
+        final Layout layout = board.getLayout();
+        
+        reset(layout.getColumns(), layout.getRows());
+        
+        for (int cell = 0; cell < layout.getSize(); cell++)
+        {
+            setWall(cell, layout.isWall(cell));
+            setBox(cell, board.hasBox(cell));
+        }
+    }
+    
+    /**
+     * Set a wall
+     * @param cell The cell index
+     * @param wall Is there a wall in the cell
+     */
+    public void setWall(final int cell, final boolean wall)
+    {
+        if (get(floors, cell) == wall)
+        {
+            set(floors, cell, !wall);
+            origin = -1;
+        }
+    }
+    
+    /**
+     * Set a box, the cached search is only forgotten if the box changed
+     * @param cell The cell index
+     * @param box Is there a box in the cell
+     */
+    public void setBox(final int cell, final boolean box)
+    {
+        if (get(boxes, cell) != box)
+        {
+            set(boxes, cell, box);
+            origin = -1;
+        }
+    }
+    
+    /**
+     * Can the player walk between the cells without pushing a box
+     * @param from The cell of the player
+     * @param to The cell we want to reach
+     * @return true if there is a path, false otherwise
+     */
+    public boolean isReachable(final int from, final int to)
+    {
+        search(from);
+        
+        return (to >= 0 && to < cols * rows && get(reached, to));
+    }
+    
+    /**
+     * Get the shortest path between the cells that doesn't push a box
+     * @param from The cell of the player
+     * @param to The cell we want to reach
+     * @param path The directions of the path are written here
+     * @return The length of the path, -1 if there is no path or it doesn't fit
+     */
+    public int getPath(final int from, final int to, final Direction[] path)
+    {
+        return getPath(from, to, path, 0);
+    }
+    
+    /**
+     * Get the shortest path between the cells that doesn't push a box
+     * @param from The cell of the player
+     * @param to The cell we want to reach
+     * @param path The directions of the path are written here
+     * @param offset The index in the path to start writing
+     * @return The length of the path, -1 if there is no path or it doesn't fit
+     */
+    private int getPath(final int from, final int to, final Direction[] path, final int offset)
+    {
+        if (!isReachable(from, to))
+            return -1;
+        
+        //find the distance of the cell
+        int distance = 0;
+        
+        while (!get(layers[distance], to))
+        {
+            distance++;
+        }
+        
+        if (offset + distance > path.length)
+            return -1;
+        
+        //walk back one layer at a time
+        int cell = to;
+        
+        for (int layer = distance - 1; layer >= 0; layer--)
+        {
+            for (Direction direction : DIRECTIONS)
+            {
+                //the cell we would have come from moving in this direction
+                final int previous = getNeighbor(cell, direction, -1);
+                
+                if (previous >= 0 && get(layers[layer], previous))
+                {
+                    path[offset + layer] = direction;
+                    cell = previous;
+                    break;
+                }
+            }
+        }
+        
+        return distance;
+    }
+    
+    /**
+     * Get a path that pushes a box to the cell with the fewest pushes.<br>
+     * Before each push the player walks the shortest way behind the box, but the total walking is not always the least.
+     * @param player The cell of the player
+     * @param box The cell of the box
+     * @param to The cell we want the box in
+     * @param path The directions of the path are written here
+     * @return The length of the path, -1 if there is no path or it doesn't fit
+     */
+    public int getPushPath(final int player, final int box, final int to, final Direction[] path)
+    {
+        if (box < 0 || box >= cols * rows || !get(boxes, box) || to < 0 || to >= cols * rows || !get(floors, to))
+            return -1;
+        
+        //the box is planned on its own, the other boxes stay where they are
+        set(boxes, box, false);
+        origin = -1;
+        
+        try
+        {
+            final int state = searchPushes(player, box, to);
+            
+            return (state < 0) ? -1 : writePushPath(player, box, state, path);
+        }
+        finally
+        {
+            set(boxes, box, true);
+            origin = -1;
+        }
+    }
+    
+    /**
+     * Search for the least pushes, a state is the cell of the box and the side the player is on
+     * @param player The cell of the player
+     * @param box The cell of the box, the box is not in the boxes
+     * @param to The cell we want the box in
+     * @return The state reached with the box in the cell, -1 if the box can't reach the cell
+     */
+    private int searchPushes(final int player, final int box, final int to)
+    {
+        Arrays.fill(parents, 0, cols * rows * 4, -2);
+        
+        int head = 0, tail = 0;
+        
+        //the sides of the box the player can walk to
+        fill(player, box, region);
+        
+        for (int side = 0; side < DIRECTIONS.length; side++)
+        {
+            final int cell = getNeighbor(box, DIRECTIONS[side], 1);
+            
+            if (cell >= 0 && get(region, cell))
+            {
+                parents[(box * 4) + side] = -1;
+                queue[tail++] = (box * 4) + side;
+            }
+        }
+        
+        while (head < tail)
+        {
+            final int state = queue[head++];
+            final int cell = state / 4;
+            
+            if (cell == to)
+                return state;
+            
+            //the cells the player can walk to with the box here
+            fill(getNeighbor(cell, DIRECTIONS[state % 4], 1), cell, region);
+            
+            for (int index = 0; index < DIRECTIONS.length; index++)
+            {
+                final Direction direction = DIRECTIONS[index];
+                final int behind = getNeighbor(cell, direction, -1);
+                final int target = getNeighbor(cell, direction, 1);
+                
+                //the player has to reach the cell behind the box, and the cell in front has to be free
+                if (behind < 0 || target < 0 || !get(region, behind) || !isOpen(target))
+                    continue;
+                
+                //after the push the player is on the side of the box opposite the direction
+                final int tmp = (target * 4) + getSide(direction);
+                
+                if (parents[tmp] == -2)
+                {
+                    parents[tmp] = state;
+                    queue[tail++] = tmp;
+                }
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Write the walking and pushing that reaches the state
+     * @param player The cell of the player
+     * @param box The cell of the box at the start
+     * @param state The final state
+     * @param path The directions of the path are written here
+     * @return The length of the path, -1 if it doesn't fit
+     */
+    private int writePushPath(final int player, final int box, final int state, final Direction[] path)
+    {
+        //list the states from the start, reusing the queue
+        int count = 0;
+        
+        for (int tmp = state; tmp >= 0; tmp = parents[tmp])
+        {
+            queue[count++] = tmp;
+        }
+        
+        int length = 0;
+        int cell = player;
+        int current = box;
+        
+        //the first state is the start, each state after is a push
+        for (int i = count - 2; i >= 0; i--)
+        {
+            final int target = queue[i] / 4;
+            final Direction direction = getDirection(current, target);
+            
+            //walk behind the box with the box in its current cell
+            set(boxes, current, true);
+            origin = -1;
+            
+            final int walk = getPath(cell, getNeighbor(current, direction, -1), path, length);
+            
+            set(boxes, current, false);
+            origin = -1;
+            
+            if (walk < 0 || length + walk + 1 > path.length)
+                return -1;
+            
+            length += walk;
+            path[length++] = direction;
+            
+            cell = current;
+            current = target;
+        }
+        
+        return length;
+    }
+    
+    /**
+     * Search from the cell, the search is kept until a wall or box changes
+     * @param from The cell the search is from
+     */
+    private void search(final int from)
+    {
+        if (origin == from)
+            return;
+        
+        origin = from;
+        depth = 0;
+        
+        Arrays.fill(reached, 0L);
+        Arrays.fill(layers[0], 0L);
+        
+        if (from < 0 || from >= cols * rows)
+            return;
+        
+        set(layers[0], from, true);
+        set(reached, from, true);
+        depth = 1;
+        
+        //every cell in the next layer is a neighbor of this layer, that isn't reached yet
+        while (expand(layers[depth - 1], layers[depth], reached))
+        {
+            for (int w = 0; w < WORDS; w++)
+            {
+                reached[w] |= layers[depth][w];
+            }
+            
+            depth++;
+        }
+    }
+    
+    /**
+     * Find every cell reachable from the cell without a path, used by the push search
+     * @param from The cell the search is from
+     * @param box The cell of the box being pushed
+     * @param result The cells reached are written here
+     */
+    private void fill(final int from, final int box, final long[] result)
+    {
+        Arrays.fill(result, 0L);
+        Arrays.fill(frontier, 0L);
+        
+        set(boxes, box, true);
+        
+        set(frontier, from, true);
+        set(result, from, true);
+        
+        while (expand(frontier, next, result))
+        {
+            for (int w = 0; w < WORDS; w++)
+            {
+                result[w] |= next[w];
+                frontier[w] = next[w];
+            }
+        }
+        
+        set(boxes, box, false);
+    }
+    
+    /**
+     * Find the neighbors of the cells that are open and not reached yet
+     * @param cells The cells
+     * @param neighbors The neighbors are written here
+     * @param visited The cells already reached
+     * @return true if there is at least 1 neighbor, false otherwise
+     */
+    private boolean expand(final long[] cells, final long[] neighbors, final long[] visited)
+    {
+        for (int w = 0; w < WORDS; w++)
+        {
+            west[w] = cells[w] & notFirst[w];
+            east[w] = cells[w] & notLast[w];
+        }
+        
+        long any = 0L;
+        
+        for (int w = 0; w < WORDS; w++)
+        {
+            //moving west or north lowers the cell index, east or south raises it
+            long tmp = (west[w] >>> 1) | (east[w] << 1) | (cells[w] >>> cols) | (cells[w] << cols);
+            
+            if (w + 1 < WORDS)
+                tmp |= (west[w + 1] << 63) | (cells[w + 1] << (64 - cols));
+            if (w > 0)
+                tmp |= (east[w - 1] >>> 63) | (cells[w - 1] >>> (64 - cols));
+            
+            neighbors[w] = tmp & floors[w] & ~boxes[w] & ~visited[w];
+            any |= neighbors[w];
+        }
+        
+        return (any != 0L);
+    }
+    
+    /**
+     * Is the cell a floor without a box
+     * @param cell The cell index
+     * @return true if a box can be pushed into the cell, false otherwise
+     */
+    private boolean isOpen(final int cell)
+    {
+        return get(floors, cell) && !get(boxes, cell);
+    }
+    
+    /**
+     * Get the neighbor of the cell
+     * @param cell The cell index
+     * @param direction The direction of the neighbor
+     * @param scale 1 for the neighbor in the direction, -1 for the opposite
+     * @return The cell index of the neighbor, -1 if it is outside of the grid
+     */
+    private int getNeighbor(final int cell, final Direction direction, final int scale)
+    {
+        final int col = (cell % cols) + (direction.getCol() * scale);
+        final int row = (cell / cols) + (direction.getRow() * scale);
+        
+        if (col < 0 || col >= cols || row < 0 || row >= rows)
+            return -1;
+        
+        return (row * cols) + col;
+    }
+    
+    /**
+     * Get the direction between two neighboring cells
+     * @param cell The cell we are moving from
+     * @param target The cell we are moving to
+     * @return The direction
+     */
+    private Direction getDirection(final int cell, final int target)
+    {
+        for (Direction direction : DIRECTIONS)
+        {
+            if (getNeighbor(cell, direction, 1) == target)
+                return direction;
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get the side of the box the player is on after pushing
+     * @param direction The direction pushed
+     * @return The index of the direction from the box to the player
+     */
+    private static int getSide(final Direction direction)
+    {
+        switch (direction)
+        {
+            case WEST:
+                return Direction.EAST.ordinal();
+            
+            case EAST:
+                return Direction.WEST.ordinal();
+            
+            case NORTH:
+                return Direction.SOUTH.ordinal();
+            
+            default:
+                return Direction.NORTH.ordinal();
+        }
+    }
+    
+    private static boolean get(final long[] bits, final int cell)
+    {
+        return (bits[cell >>> 6] & (1L << cell)) != 0L;
+    }
+    
+    private static void set(final long[] bits, final int cell, final boolean value)
+    {
+        if (value)
+        {
+            bits[cell >>> 6] |= (1L << cell);
+        }
+        else
+        {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The state of a level at one point in time, so it can be restored later.<br>
+ * A snapshot never changes once created, the boxes are kept as one byte per cell in ascending order.
+ * Since the boxes all look the same, a snapshot doesn't remember which box was in which cell.
+ * @author GOD
+ */
+public final class Snapshot
+{
+    //the directions, by their index
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    //stored when the direction the player faces isn't known
+    private static final int NO_FACING = -1;
+    
+    //the index of the level
+    private final int level;
+    
+    //the cell the player is in
+    private final int player;
+    
+    //the index of the direction the player faces, or NO_FACING
+    private final int facing;
+    
+    //the number of moves and pushes made
+    private final int moves, pushes;
+    
+    //the cell of each box, in ascending order
+    private final byte[] boxes;
+    
+    /**
+     * Create a snapshot
+     * @param level The index of the level
+     * @param player The cell the player is in
+     * @param facing The direction the player faces, can be null
+     * @param moves The number of moves made
+     * @param pushes The number of pushes made
+     * @param boxes The cell of each box, in any order, the array is not kept
+     * @param count The number of boxes
+     * @throws Exception if a cell is outside of the largest level, or two boxes share a cell
+     */
+    public Snapshot(final int level, final int player, final Direction facing, final int moves, final int pushes, final int[] boxes, final int count) throws Exception
+    {
+        if (player < 0 || player >= Board.MAX_CELLS)
+            throw new Exception("Player cell is outside of the level " + player);
+        if (moves < 0 || pushes < 0 || pushes > moves)
+            throw new Exception("Invalid moves " + moves + " and pushes " + pushes);
+        
+        final int[] sorted = Arrays.copyOf(boxes, count);
+        
+        Arrays.sort(sorted);
+        
+        this.boxes = new byte[count];
+        
+        for (int i = 0; i < count; i++)
+        {
+            if (sorted[i] < 0 || sorted[i] >= Board.MAX_CELLS)
+                throw new Exception("Box cell is outside of the level " + sorted[i]);
+            if (i > 0 && sorted[i] == sorted[i - 1])
+                throw new Exception("Two boxes are in cell " + sorted[i]);
+            
+            this.boxes[i] = (byte)sorted[i];
+        }
+        
+        this.level = level;
+        this.player = player;
+        this.facing = (facing != null) ? facing.ordinal() : NO_FACING;
+        this.moves = moves;
+        this.pushes = pushes;
+    }
+    
+    /**
+     * Create a snapshot of the board
+     * @param board The board we want to keep
+     * @param facing The direction the player faces, can be null
+     * @return The snapshot of the board
+     * @throws Exception if the snapshot can't be created
+     */
+    public static Snapshot create(final Board board, final Direction facing) throws Exception
+    {
+        final Layout layout = board.getLayout();
+        
+        final int[] cells = new int[layout.getBoxCount()];
+        
+        int count = 0;
+        
+        for (int cell = 0; cell < layout.getSize() && count < cells.length; cell++)
+        {
+            if (board.hasBox(cell))
+                cells[count++] = cell;
+        }
+        
+        return new Snapshot(layout.getIndex(), board.getPlayer(), facing, board.getMoves(), board.getPushes(), cells, count);
+    }
+    
+    /**
+     * Get the level
+     * @return The index of the level
+     */
+    public int getLevel()
+    {
+        return this.level;
+    }
+    
+    /**
+     * Get the player
+     * @return The cell the player is in
+     */
+    public int getPlayer()
+    {
+        return this.player;
+    }
+    
+    /**
+     * Get the direction the player faces
+     * @return The direction, null if not known
+     */
+    public Direction getFacing()
+    {
+        return (facing != NO_FACING) ? DIRECTIONS[facing] : null;
+    }
+    
+    /**
+     * Get the number of moves made
+     * @return The total number of moves, including pushes
+     */
+    public int getMoves()
+    {
+        return this.moves;
+    }
+    
+    /**
+     * Get the number of pushes made
+     * @return The total number of moves that pushed a box
+     */
+    public int getPushes()
+    {
+        return this.pushes;
+    }
+    
+    /**
+     * Count the boxes
+     * @return The total number of boxes
+     */
+    public int getBoxCount()
+    {
+        return boxes.length;
+    }
+    
+    /**
+     * Get the cell of the box
+     * @param index The index of the box, the boxes are in ascending order of their cell
+     * @return The cell index
+     */
+    public int getBox(final int index)
+    {
+        return (boxes[index] & 0xff);
+    }
+    
+    /**
+     * Write the snapshot, this takes 15 bytes plus 1 byte per box
+     * @param output Where the snapshot is written
+     * @throws IOException if the snapshot can't be written
+     */
+    public void write(final DataOutput output) throws IOException
+    {
+        output.writeInt(level);
+        output.writeByte(player);
+        output.writeByte(facing);
+        output.writeInt(moves);
+        output.writeInt(pushes);
+        output.writeByte(boxes.length);
+        output.write(boxes);
+    }
+    
+    /**
+     * Read a snapshot written by write
+     * @param input Where the snapshot is read from
+     * @return The snapshot read
+     * @throws Exception if the snapshot can't be read, or is not valid
+     */
+    public static Snapshot read(final DataInput input) throws Exception
+    {
+        final int level = input.readInt();
+        final int player = input.readUnsignedByte();
+        final int facing = input.readByte();
+        final int moves = input.readInt();
+        final int pushes = input.readInt();
+        
+        if (facing < NO_FACING || facing >= DIRECTIONS.length)
+            throw new Exception("Invalid facing " + facing);
+        
+        final int[] cells = new int[input.readUnsignedByte()];
+        
+        for (int i = 0; i < cells.length; i++)
+        {
+            cells[i] = input.readUnsignedByte();
+        }
+        
+        return new Snapshot(level, player, (facing != NO_FACING) ? DIRECTIONS[facing] : null, moves, pushes, cells, cells.length);
+    }
+}
\ No newline at end of file
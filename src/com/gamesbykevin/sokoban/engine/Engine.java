@@ -4,7 +4,9 @@ import com.gamesbykevin.sokoban.resources.Resources;
 import com.gamesbykevin.sokoban.main.Main;
 import com.gamesbykevin.sokoban.manager.Manager;
 import com.gamesbykevin.sokoban.menu.CustomMenu;
+import com.gamesbykevin.sokoban.shared.Events;
 import com.gamesbykevin.sokoban.shared.Shared;
+import com.gamesbykevin.sokoban.shared.Timings;
 
 import com.gamesbykevin.framework.input.*;
 
@@ -29,6 +31,20 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
     //keyboard object that will be recording key input
     private Keyboard keyboard;
     
+    //input events received on the AWT event thread, waiting to be applied on the game thread
+    private final InputQueue input = new InputQueue();
+    
+    //the time from each key press until the move is drawn
+    private final Latency latency = new Latency();
+    
+    //keys to show the debug overlay, and to write the measurements and events to a file
+    private static final int KEY_OVERLAY = KeyEvent.VK_F3;
+    private static final int KEY_WRITE = KeyEvent.VK_F4;
+    private static final int KEY_EVENTS = KeyEvent.VK_F5;
+    
+    //do we draw the debug overlay
+    private boolean overlay = false;
+    
     //object containing all of the game elements
     private Manager manager;
     
@@ -108,6 +124,12 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
             }
             
             random = null;
+            
+            //keep the measurements of this session
+            latency.write();
+            
+            //keep the events of this session
+            Events.write();
         }
         catch(Exception e)
         {
@@ -118,6 +140,9 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
     @Override
     public void update(Main main) throws Exception
     {
+        //apply the input received since the last update
+        applyInput();
+        
         if (menu == null)
         {
             //create new menu
@@ -160,8 +185,12 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
                         manager.reset(this);
                     }
 
+                    final long time = System.nanoTime();
+                    
                     //update main game logic
                     manager.update(this);
+                    
+                    main.getTimings().add(Timings.Key.ManagerUpdate, System.nanoTime() - time);
                 }
             }
 
@@ -171,6 +200,120 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
         }
     }
     
+    /**
+     * Apply every input event waiting in the queue to the mouse and keyboard, in the order received.<br>
+     * This is the only place the mouse and keyboard are changed by input, so it all happens on the game thread.
+     */
+    private void applyInput()
+    {
+        while (input.next())
+        {
+            switch (input.getType())
+            {
+                case InputQueue.KEY_PRESSED:
+                    latency.setPressed(input.getKeyCode(), input.getTime());
+                    keyboard.addKeyPressed(input.getKeyCode());
+                    break;
+                
+                case InputQueue.KEY_RELEASED:
+                    checkDebugKey(input.getKeyCode());
+                    keyboard.addKeyReleased(input.getKeyCode());
+                    break;
+                
+                case InputQueue.MOUSE_CLICKED:
+                    mouse.setMouseClicked(input.getMouseEvent());
+                    break;
+                
+                case InputQueue.MOUSE_PRESSED:
+                    mouse.setMousePressed(input.getMouseEvent());
+                    break;
+                
+                case InputQueue.MOUSE_RELEASED:
+                    mouse.setMouseReleased(input.getMouseEvent());
+                    break;
+                
+                case InputQueue.MOUSE_ENTERED:
+                    mouse.setMouseEntered(input.getMouseEvent().getPoint());
+                    break;
+                
+                case InputQueue.MOUSE_EXITED:
+                    mouse.setMouseExited(input.getMouseEvent().getPoint());
+                    break;
+                
+                case InputQueue.MOUSE_MOVED:
+                    mouse.setMouseMoved(input.getMouseEvent().getPoint());
+                    break;
+                
+                case InputQueue.MOUSE_DRAGGED:
+                    mouse.setMouseDragged(input.getMouseEvent().getPoint());
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Check the keys used for debugging
+     * @param keyCode The key code released
+     */
+    private void checkDebugKey(final int keyCode)
+    {
+        switch (keyCode)
+        {
+            case KEY_OVERLAY:
+                overlay = !overlay;
+                break;
+            
+            case KEY_WRITE:
+                try
+                {
+                    latency.write();
+                }
+                catch (Exception e)
+                {
+                    e.printStackTrace();
+                }
+                break;
+            
+            case KEY_EVENTS:
+                try
+                {
+                    Events.write();
+                }
+                catch (Exception e)
+                {
+                    e.printStackTrace();
+                }
+                break;
+        }
+    }
+    
+    /**
+     * Is the debug overlay drawn
+     * @return true if the debug overlay is visible, false otherwise
+     */
+    public boolean hasOverlay()
+    {
+        return this.overlay;
+    }
+    
+    /**
+     * Get the object timing each move
+     * @return The object measuring the time from a key press until the move is drawn
+     */
+    public Latency getLatency()
+    {
+        return this.latency;
+    }
+    
+    /**
+     * Get the queue of input events
+     * @return The queue the input events are added to before they are applied
+     */
+    public InputQueue getInput()
+    {
+        return this.input;
+    }
+    
     public long getSeed()
     {
         return this.seed;
@@ -263,6 +406,15 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
             //draw menu on top of the game if visible
             renderMenu(graphics);
         }
+        
+        //draw the debug overlay on top of everything
+        if (overlay)
+        {
+            graphics.setFont(font);
+            int y = latency.render(graphics, 0, 0);
+            y = main.getTimings().render(graphics, 0, y);
+            main.getAllocations().render(graphics, 0, y);
+        }
     }
     
     /**
@@ -307,13 +459,13 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
     @Override
     public void keyReleased(KeyEvent e)
     {
-        keyboard.addKeyReleased(e.getKeyCode());
+        input.addKey(InputQueue.KEY_RELEASED, e.getKeyCode());
     }
     
     @Override
     public void keyPressed(KeyEvent e)
     {
-        keyboard.addKeyPressed(e.getKeyCode());
+        input.addKey(InputQueue.KEY_PRESSED, e.getKeyCode());
     }
     
     @Override
@@ -326,43 +478,43 @@ public final class Engine implements KeyListener, MouseMotionListener, MouseList
     @Override
     public void mouseClicked(MouseEvent e)
     {
-        mouse.setMouseClicked(e);
+        input.addMouse(InputQueue.MOUSE_CLICKED, e);
     }
     
     @Override
     public void mousePressed(MouseEvent e)
     {
-        mouse.setMousePressed(e);
+        input.addMouse(InputQueue.MOUSE_PRESSED, e);
     }
     
     @Override
     public void mouseReleased(MouseEvent e)
     {
-        mouse.setMouseReleased(e);
+        input.addMouse(InputQueue.MOUSE_RELEASED, e);
     }
     
     @Override
     public void mouseEntered(MouseEvent e)
     {
-        mouse.setMouseEntered(e.getPoint());
+        input.addMouse(InputQueue.MOUSE_ENTERED, e);
     }
     
     @Override
     public void mouseExited(MouseEvent e)
     {
-        mouse.setMouseExited(e.getPoint());
+        input.addMouse(InputQueue.MOUSE_EXITED, e);
     }
     
     @Override
     public void mouseMoved(MouseEvent e)
     {
-        mouse.setMouseMoved(e.getPoint());
+        input.addMouse(InputQueue.MOUSE_MOVED, e);
     }
     
     @Override
     public void mouseDragged(MouseEvent e)
     {
-        mouse.setMouseDragged(e.getPoint());
+        input.addMouse(InputQueue.MOUSE_DRAGGED, e);
     }
     
     public Mouse getMouse()
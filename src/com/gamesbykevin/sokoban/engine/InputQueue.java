@@ -0,0 +1,176 @@
+package com.gamesbykevin.sokoban.engine;
+
+import java.awt.event.MouseEvent;
+
+/**
+ * Queue of input events between the AWT event thread, which adds them, and the game thread, which reads them.<br>
+ * There is exactly one thread adding and one thread reading, so no locks are needed.
+ * The events are kept in fixed arrays so nothing is created while adding or reading.
+ * @author GOD
+ */
+public final class InputQueue
+{
+    //the different types of events
+    public static final int KEY_PRESSED = 0;
+    public static final int KEY_RELEASED = 1;
+    public static final int MOUSE_CLICKED = 2;
+    public static final int MOUSE_PRESSED = 3;
+    public static final int MOUSE_RELEASED = 4;
+    public static final int MOUSE_ENTERED = 5;
+    public static final int MOUSE_EXITED = 6;
+    public static final int MOUSE_MOVED = 7;
+    public static final int MOUSE_DRAGGED = 8;
+    
+    //the number of events that can wait to be read, must be a power of 2
+    private static final int CAPACITY = 256;
+    
+    //used to wrap the event count into the arrays
+    private static final int MASK = CAPACITY - 1;
+    
+    //the data for each event
+    private final int[] types = new int[CAPACITY];
+    private final int[] keyCodes = new int[CAPACITY];
+    private final MouseEvent[] mouseEvents = new MouseEvent[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    
+    //the total number of events added, only changed by the adding thread
+    private volatile long added = 0;
+    
+    //the total number of events read, only changed by the reading thread
+    private volatile long read = 0;
+    
+    //the number of events that were dropped because the queue was full
+    private volatile long dropped = 0;
+    
+    //the event currently being read
+    private int current = -1;
+    
+    //the number of key pressed events read, only used by the reading thread
+    private long keyPresses = 0;
+    
+    /**
+     * Add a key event, this is called from the AWT event thread
+     * @param type The type of event
+     * @param keyCode The key code of the event
+     */
+    public void addKey(final int type, final int keyCode)
+    {
+        add(type, keyCode, null);
+    }
+    
+    /**
+     * Add a mouse event, this is called from the AWT event thread
+     * @param type The type of event
+     * @param event The mouse event
+     */
+    public void addMouse(final int type, final MouseEvent event)
+    {
+        add(type, 0, event);
+    }
+    
+    private void add(final int type, final int keyCode, final MouseEvent event)
+    {
+        final long index = added;
+        
+        //if the queue is full the event is dropped
+        if (index - read >= CAPACITY)
+        {
+            dropped++;
+            return;
+        }
+        
+        final int slot = (int)(index & MASK);
+        
+        //store the event data before it is made visible to the reading thread
+        types[slot] = type;
+        keyCodes[slot] = keyCode;
+        mouseEvents[slot] = event;
+        times[slot] = System.nanoTime();
+        
+        //publish the event
+        added = index + 1;
+    }
+    
+    /**
+     * Move to the next event, this is called from the game thread
+     * @return true if there is an event to read, false if the queue is empty
+     */
+    public boolean next()
+    {
+        //free the slot of the event we finished reading
+        if (current >= 0)
+        {
+            mouseEvents[current] = null;
+            current = -1;
+            read = read + 1;
+        }
+        
+        final long index = read;
+        
+        //there is nothing to read
+        if (index >= added)
+            return false;
+        
+        //the slot stays reserved until the next call, so its data can't be replaced while we read it
+        current = (int)(index & MASK);
+        
+        if (types[current] == KEY_PRESSED)
+            keyPresses++;
+        
+        return true;
+    }
+    
+    /**
+     * Get the type of the current event
+     * @return The type of event
+     */
+    public int getType()
+    {
+        return types[current];
+    }
+    
+    /**
+     * Get the key code of the current event
+     * @return The key code, only valid for key events
+     */
+    public int getKeyCode()
+    {
+        return keyCodes[current];
+    }
+    
+    /**
+     * Get the mouse event of the current event
+     * @return The mouse event, only valid for mouse events
+     */
+    public MouseEvent getMouseEvent()
+    {
+        return mouseEvents[current];
+    }
+    
+    /**
+     * Get the time the current event was added
+     * @return The time the event was received (nanoseconds)
+     */
+    public long getTime()
+    {
+        return times[current];
+    }
+    
+    /**
+     * Get the number of key pressed events read, this is called from the game thread
+     * @return The total number of keys pressed, this only increases so a change means a key was pressed
+     */
+    public long getKeyPresses()
+    {
+        return this.keyPresses;
+    }
+    
+    /**
+     * Get the number of events dropped
+     * @return The total number of events dropped because the queue was full
+     */
+    public long getDropped()
+    {
+        return this.dropped;
+    }
+}
\ No newline at end of file
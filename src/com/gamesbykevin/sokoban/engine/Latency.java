@@ -0,0 +1,173 @@
+package com.gamesbykevin.sokoban.engine;
+
+import com.gamesbykevin.sokoban.shared.Histogram;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.Date;
+
+/**
+ * Measures the time from a key press until the move it caused is first drawn on the screen.<br>
+ * Each move is timed through the stages it goes through:
+ * <ul>
+ * <li>Queued: the key is pressed until the player makes the move</li>
+ * <li>Update: the move is made until the first update that moves the character</li>
+ * <li>Present: the character has moved until the image is drawn to the screen</li>
+ * </ul>
+ * @author GOD
+ */
+public final class Latency
+{
+    //the file the results are written to, in the user's home directory
+    private static final String FILE_NAME = "sokoban-latency.txt";
+    
+    //each bucket is 1 millisecond, up to 1 second
+    private static final long BUCKET_WIDTH = 1000000L;
+    private static final int BUCKETS = 1000;
+    
+    //the number of key codes we track, the keys used in the game are all below this
+    private static final int KEYS = 256;
+    
+    //the time each key was last pressed (nanoseconds)
+    private final long[] pressed = new long[KEYS];
+    
+    //the time of each stage for the move being measured, 0 if the stage has not happened
+    private long start = 0, made = 0, moved = 0;
+    
+    //the time for each stage, and the total
+    private final Histogram queued = new Histogram(BUCKET_WIDTH, BUCKETS);
+    private final Histogram update = new Histogram(BUCKET_WIDTH, BUCKETS);
+    private final Histogram present = new Histogram(BUCKET_WIDTH, BUCKETS);
+    private final Histogram total = new Histogram(BUCKET_WIDTH, BUCKETS);
+    
+    //when the measurements started
+    private final Date session = new Date();
+    
+    public Latency()
+    {
+        //nothing is measured until a key is pressed
+    }
+    
+    /**
+     * Store the time the key was pressed
+     * @param keyCode The key code pressed
+     * @param time The time the key event was received (nanoseconds)
+     */
+    protected void setPressed(final int keyCode, final long time)
+    {
+        if (keyCode >= 0 && keyCode < KEYS)
+            pressed[keyCode] = time;
+    }
+    
+    /**
+     * Get the time the key was last pressed
+     * @param keyCode The key code
+     * @return The time the key was pressed (nanoseconds), 0 if not tracked
+     */
+    public long getPressed(final int keyCode)
+    {
+        return (keyCode >= 0 && keyCode < KEYS) ? pressed[keyCode] : 0;
+    }
+    
+    /**
+     * The player made a move, start measuring it
+     * @param time The time the key for this move was pressed (nanoseconds), 0 if not known
+     */
+    public void setMade(final long time)
+    {
+        //we can't measure without knowing when the key was pressed
+        if (time == 0)
+            return;
+        
+        this.start = time;
+        this.made = System.nanoTime();
+        this.moved = 0;
+    }
+    
+    /**
+     * The character moved during this update, if we are measuring a move mark this stage
+     */
+    public void setMoved()
+    {
+        if (made != 0 && moved == 0)
+            moved = System.nanoTime();
+    }
+    
+    /**
+     * Is a move waiting to be drawn, the last stage of the move being measured
+     * @return true if the character has moved and the image has not been drawn since, false otherwise
+     */
+    public boolean isPresenting()
+    {
+        return (moved != 0);
+    }
+    
+    /**
+     * The image has been drawn to the screen, if the move being measured is visible the measurement is complete
+     */
+    public void setPresented()
+    {
+        if (moved == 0)
+            return;
+        
+        final long time = System.nanoTime();
+        
+        queued.add(made - start);
+        update.add(moved - made);
+        present.add(time - moved);
+        total.add(time - start);
+        
+        //the measurement is complete
+        start = 0;
+        made = 0;
+        moved = 0;
+    }
+    
+    /**
+     * Draw the results
+     * @param graphics Object used to draw
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return The y-coordinate below the last line drawn
+     */
+    protected int render(final Graphics graphics, final int x, final int y)
+    {
+        final int height = graphics.getFontMetrics().getHeight();
+        
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(x, y, 360, height * 5);
+        graphics.setColor(Color.WHITE);
+        graphics.drawString("Input latency " + total, x + 2, y + height);
+        graphics.drawString("  queued  " + queued, x + 2, y + (height * 2));
+        graphics.drawString("  update  " + update, x + 2, y + (height * 3));
+        graphics.drawString("  present " + present, x + 2, y + (height * 4));
+        
+        return y + (height * 5);
+    }
+    
+    /**
+     * Add the results of this session to the end of the file in the user's home directory
+     * @throws Exception if the file can't be written
+     */
+    protected void write() throws Exception
+    {
+        //nothing to write
+        if (total.getCount() == 0)
+            return;
+        
+        final File file = new File(System.getProperty("user.home"), FILE_NAME);
+        
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true)))
+        {
+            writer.println("Session " + session + ", written " + new Date());
+            writer.println("total   " + total);
+            writer.println("queued  " + queued);
+            writer.println("update  " + update);
+            writer.println("present " + present);
+            writer.println();
+        }
+    }
+}
\ No newline at end of file
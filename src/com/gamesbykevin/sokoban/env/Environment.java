@@ -0,0 +1,216 @@
+package com.gamesbykevin.sokoban.env;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.level.Levels;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An environment for training agents on the game rules, without a window.<br>
+ * The agent resets to a level, then steps one action at a time receiving a reward until the episode is done.
+ * An episode is done when the level is solved or the step limit is reached.
+ * Stepping does not create any objects, so many steps can be made per second.
+ * @author GOD
+ */
+public final class Environment
+{
+    //the actions are the index of each direction, WEST, EAST, NORTH, SOUTH
+    public static final int ACTIONS = 4;
+    
+    //the observation is a grid of this size, the level is placed in the upper left and the rest is empty
+    public static final int WIDTH = Levels.MAX_DIMENSIONS;
+    public static final int HEIGHT = Levels.MAX_DIMENSIONS;
+    public static final int OBSERVATION_SIZE = WIDTH * HEIGHT;
+    
+    //the value of each cell in the observation
+    public static final byte CELL_EMPTY = 0;
+    public static final byte CELL_WALL = 1;
+    public static final byte CELL_FLOOR = 2;
+    public static final byte CELL_GOAL = 3;
+    public static final byte CELL_BOX = 4;
+    public static final byte CELL_BOX_ON_GOAL = 5;
+    public static final byte CELL_PLAYER = 6;
+    public static final byte CELL_PLAYER_ON_GOAL = 7;
+    
+    //the rewards
+    public static final float REWARD_STEP = -0.1f;
+    public static final float REWARD_BOX_ON_GOAL = 1.0f;
+    public static final float REWARD_BOX_OFF_GOAL = -1.0f;
+    public static final float REWARD_SOLVED = 10.0f;
+    
+    //the layouts that can be played
+    private final List<Layout> layouts;
+    
+    //the most steps in an episode
+    private final int maxSteps;
+    
+    //the board being played
+    private Board board;
+    
+    //the number of steps in this episode
+    private int steps = 0;
+    
+    //is the episode done
+    private boolean done = true;
+    
+    /**
+     * Create the environment
+     * @param layouts The layouts that can be played, in the order they were read
+     * @param maxSteps The most steps in an episode
+     */
+    public Environment(final List<Layout> layouts, final int maxSteps)
+    {
+        this.layouts = layouts;
+        this.maxSteps = maxSteps;
+    }
+    
+    /**
+     * Start a new episode
+     * @param levelId The index of the level we want to play, the same index the game gives the level
+     * @throws Exception if there is no playable level with the index
+     */
+    public void reset(final int levelId) throws Exception
+    {
+        final Layout layout = Layouts.find(layouts, levelId);
+        
+        if (layout == null)
+            throw new Exception("Level not found " + levelId);
+        
+        reset(layout);
+    }
+    
+    /**
+     * Start a new episode
+     * @param layout The layout we want to play
+     */
+    protected void reset(final Layout layout)
+    {
+        if (board == null)
+        {
+            board = new Board(layout);
+        }
+        else
+        {
+            board.reset(layout);
+        }
+        
+        steps = 0;
+        done = board.isSolved();
+    }
+    
+    /**
+     * Take a step, if the episode is done nothing happens
+     * @param action The index of the direction to move (0 - 3)
+     * @return The reward for this step
+     */
+    public float step(final int action)
+    {
+        if (done)
+            return 0;
+        
+        final int placed = board.getPlaced();
+        
+        board.step(Board.getDirection(action));
+        steps++;
+        
+        float reward = REWARD_STEP;
+        
+        //reward boxes being placed or removed from a goal
+        if (board.getPlaced() > placed)
+            reward += REWARD_BOX_ON_GOAL;
+        if (board.getPlaced() < placed)
+            reward += REWARD_BOX_OFF_GOAL;
+        
+        if (board.isSolved())
+        {
+            reward += REWARD_SOLVED;
+            done = true;
+        }
+        else if (steps >= maxSteps)
+        {
+            done = true;
+        }
+        
+        return reward;
+    }
+    
+    /**
+     * Is the episode done
+     * @return true if the level is solved or the step limit was reached, false otherwise
+     */
+    public boolean isDone()
+    {
+        return this.done;
+    }
+    
+    /**
+     * Is the level solved
+     * @return true if every box is on a goal, false otherwise
+     */
+    public boolean isSolved()
+    {
+        return (board != null && board.isSolved());
+    }
+    
+    /**
+     * Get the number of steps
+     * @return The number of steps taken in this episode
+     */
+    public int getSteps()
+    {
+        return this.steps;
+    }
+    
+    /**
+     * Get the board
+     * @return The board being played, null until the first reset
+     */
+    public Board getBoard()
+    {
+        return this.board;
+    }
+    
+    /**
+     * Write the observation, one byte per cell using the CELL values, row by row
+     * @param observation The array we write to
+     * @param offset The index in the array to start writing, OBSERVATION_SIZE bytes are written
+     */
+    public void observe(final byte[] observation, final int offset)
+    {
+        final Layout layout = board.getLayout();
+        
+        //everything outside of the level is empty
+        Arrays.fill(observation, offset, offset + OBSERVATION_SIZE, CELL_EMPTY);
+        
+        for (int row = 0; row < layout.getRows(); row++)
+        {
+            for (int col = 0; col < layout.getColumns(); col++)
+            {
+                observation[offset + (row * WIDTH) + col] = getCell(layout, (row * layout.getColumns()) + col);
+            }
+        }
+    }
+    
+    /**
+     * Get the value of the cell for the observation
+     * @param layout The layout being played
+     * @param cell The cell index
+     * @return The CELL value
+     */
+    private byte getCell(final Layout layout, final int cell)
+    {
+        if (layout.isWall(cell))
+            return CELL_WALL;
+        if (board.getPlayer() == cell)
+            return layout.isGoal(cell) ? CELL_PLAYER_ON_GOAL : CELL_PLAYER;
+        if (board.hasBox(cell))
+            return layout.isGoal(cell) ? CELL_BOX_ON_GOAL : CELL_BOX;
+        if (layout.isGoal(cell))
+            return CELL_GOAL;
+        
+        return layout.isInside(cell) ? CELL_FLOOR : CELL_EMPTY;
+    }
+}
\ No newline at end of file
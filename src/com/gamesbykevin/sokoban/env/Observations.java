@@ -0,0 +1,120 @@
+package com.gamesbykevin.sokoban.env;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layout;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes the state of a board straight into a buffer supplied by the caller, usually a direct (off-heap) buffer.<br>
+ * The layout is channel-planar: there is one plane per channel, each plane is a HEIGHT x WIDTH grid stored row by row,
+ * and each byte is 1 if the channel is present in that cell and 0 otherwise.
+ * <ul>
+ * <li>Plane 0 (CHANNEL_WALL): walls</li>
+ * <li>Plane 1 (CHANNEL_GOAL): goals</li>
+ * <li>Plane 2 (CHANNEL_BOX): boxes</li>
+ * <li>Plane 3 (CHANNEL_PLAYER): the player</li>
+ * </ul>
+ * So the byte for (channel, row, col) is at offset + (channel * PLANE_SIZE) + (row * WIDTH) + col.
+ * The level is placed in the upper left of each plane, everything else is 0.
+ * A batch of boards is stored one after another, board i starts at offset + (i * SIZE).
+ * Only absolute puts are used, so the position and limit of the buffer are not changed, and
+ * different threads can write different boards into the same buffer.
+ * @author GOD
+ */
+public final class Observations
+{
+    //the channels
+    public static final int CHANNEL_WALL = 0;
+    public static final int CHANNEL_GOAL = 1;
+    public static final int CHANNEL_BOX = 2;
+    public static final int CHANNEL_PLAYER = 3;
+    
+    //the number of channels
+    public static final int CHANNELS = 4;
+    
+    //the size of each plane and each board (bytes)
+    public static final int PLANE_SIZE = Environment.WIDTH * Environment.HEIGHT;
+    public static final int SIZE = CHANNELS * PLANE_SIZE;
+    
+    private Observations()
+    {
+        //no instances of this class
+    }
+    
+    /**
+     * Write the board
+     * @param board The board
+     * @param buffer The buffer we write to, must have room for SIZE bytes from the offset
+     * @param offset The index in the buffer to start writing
+     */
+    public static void encode(final Board board, final ByteBuffer buffer, final int offset)
+    {
+        //clear the board, 8 bytes at a time
+        for (int i = 0; i < SIZE; i += 8)
+        {
+            buffer.putLong(offset + i, 0L);
+        }
+        
+        final Layout layout = board.getLayout();
+        
+        for (int row = 0; row < layout.getRows(); row++)
+        {
+            for (int col = 0; col < layout.getColumns(); col++)
+            {
+                final int cell = (row * layout.getColumns()) + col;
+                final int index = offset + (row * Environment.WIDTH) + col;
+                
+                if (layout.isWall(cell))
+                    buffer.put(index + (CHANNEL_WALL * PLANE_SIZE), (byte)1);
+                if (layout.isGoal(cell))
+                    buffer.put(index + (CHANNEL_GOAL * PLANE_SIZE), (byte)1);
+                if (board.hasBox(cell))
+                    buffer.put(index + (CHANNEL_BOX * PLANE_SIZE), (byte)1);
+            }
+        }
+        
+        final int player = board.getPlayer();
+        
+        buffer.put(offset + (CHANNEL_PLAYER * PLANE_SIZE) + ((player / layout.getColumns()) * Environment.WIDTH) + (player % layout.getColumns()), (byte)1);
+    }
+    
+    /**
+     * Write a batch of boards one after another
+     * @param boards The boards
+     * @param buffer The buffer we write to, must have room for boards.length * SIZE bytes from the offset
+     * @param offset The index in the buffer to start writing
+     */
+    public static void encode(final Board[] boards, final ByteBuffer buffer, final int offset)
+    {
+        for (int i = 0; i < boards.length; i++)
+        {
+            encode(boards[i], buffer, offset + (i * SIZE));
+        }
+    }
+    
+    /**
+     * Write the board of every environment one after another
+     * @param environments The environments, each needs to be reset first
+     * @param buffer The buffer we write to, must have room for environments.getCount() * SIZE bytes from the offset
+     * @param offset The index in the buffer to start writing
+     */
+    public static void encode(final VecEnvironment environments, final ByteBuffer buffer, final int offset)
+    {
+        for (int i = 0; i < environments.getCount(); i++)
+        {
+            encode(environments.get(i).getBoard(), buffer, offset + (i * SIZE));
+        }
+    }
+    
+    /**
+     * Create a direct buffer for a batch of boards
+     * @param count The number of boards
+     * @return A direct buffer of count * SIZE bytes, in the native byte order
+     */
+    public static ByteBuffer allocate(final int count)
+    {
+        return ByteBuffer.allocateDirect(count * SIZE).order(ByteOrder.nativeOrder());
+    }
+}
\ No newline at end of file
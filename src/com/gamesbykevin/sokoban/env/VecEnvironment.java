@@ -0,0 +1,265 @@
+package com.gamesbykevin.sokoban.env;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import com.gamesbykevin.sokoban.board.Layout;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Many independent environments stepped together.<br>
+ * The actions, rewards, done flags and observations for all environments are kept in flat arrays, where environment i
+ * uses index i, and observation i starts at i * Environment.OBSERVATION_SIZE.
+ * The observations can instead be written into a direct buffer, in the planar layout of Observations, where
+ * observation i starts at i * Observations.SIZE.
+ * When an episode is done the environment is reset to a random level right away, and the observation returned is of the new episode.
+ * The environments can be split across threads, each thread steps its own range of environments.
+ * @author GOD
+ */
+public final class VecEnvironment implements Disposable
+{
+    //the environments
+    private final Environment[] environments;
+    
+    //the layouts that can be played
+    private final List<Layout> layouts;
+    
+    //object used to pick the level for each environment, one per environment so the threads don't share
+    private final Random[] randoms;
+    
+    //the threads stepping the environments, null if stepped on the calling thread
+    private ExecutorService executor;
+    
+    //the range of environments each thread steps
+    private final List<Callable<Void>> tasks;
+    
+    //the arrays of the current step, read by the tasks
+    private int[] actions;
+    private float[] rewards;
+    private boolean[] dones;
+    private byte[] observations;
+    private ByteBuffer buffer;
+    
+    /**
+     * Create the environments
+     * @param layouts The layouts that can be played
+     * @param count The number of environments
+     * @param maxSteps The most steps in an episode
+     * @param threads The number of threads to step with, 1 steps on the calling thread
+     * @param seed The seed used to pick the levels
+     */
+    public VecEnvironment(final List<Layout> layouts, final int count, final int maxSteps, final int threads, final long seed)
+    {
+        this.layouts = layouts;
+        this.environments = new Environment[count];
+        this.randoms = new Random[count];
+        
+        for (int i = 0; i < count; i++)
+        {
+            environments[i] = new Environment(layouts, maxSteps);
+            randoms[i] = new Random(seed + i);
+        }
+        
+        this.tasks = new ArrayList<>();
+        
+        if (threads > 1)
+        {
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, "VecEnvironment");
+                    
+                    //don't keep the application running because of the environments
+                    thread.setDaemon(true);
+                    
+                    return thread;
+                }
+            });
+            
+            //split the environments evenly between the threads
+            for (int i = 0; i < threads; i++)
+            {
+                tasks.add(createTask((count * i) / threads, (count * (i + 1)) / threads));
+            }
+        }
+    }
+    
+    /**
+     * Create the task stepping a range of environments
+     * @param start The first environment
+     * @param end The environment after the last
+     * @return The task
+     */
+    private Callable<Void> createTask(final int start, final int end)
+    {
+        return new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                step(start, end);
+                return null;
+            }
+        };
+    }
+    
+    /**
+     * Get the number of environments
+     * @return The total number of environments
+     */
+    public int getCount()
+    {
+        return environments.length;
+    }
+    
+    /**
+     * Get the environment
+     * @param index The index of the environment
+     * @return The environment
+     */
+    public Environment get(final int index)
+    {
+        return environments[index];
+    }
+    
+    /**
+     * Reset every environment to a random level
+     * @param observations The array the observations are written to
+     */
+    public void reset(final byte[] observations)
+    {
+        for (int i = 0; i < environments.length; i++)
+        {
+            reset(i);
+            environments[i].observe(observations, i * Environment.OBSERVATION_SIZE);
+        }
+    }
+    
+    /**
+     * Reset every environment to a random level
+     * @param buffer The buffer the planar observations are written to, starting at index 0
+     */
+    public void reset(final ByteBuffer buffer)
+    {
+        for (int i = 0; i < environments.length; i++)
+        {
+            reset(i);
+        }
+        
+        Observations.encode(this, buffer, 0);
+    }
+    
+    /**
+     * Reset the environment to a random level
+     * @param index The index of the environment
+     */
+    private void reset(final int index)
+    {
+        environments[index].reset(layouts.get(randoms[index].nextInt(layouts.size())));
+    }
+    
+    /**
+     * Step every environment
+     * @param actions The action for each environment
+     * @param rewards The reward for each environment is written here
+     * @param dones If the episode of each environment ended is written here
+     * @param observations The observation of each environment is written here
+     * @throws Exception if there was a problem stepping on a thread
+     */
+    public void step(final int[] actions, final float[] rewards, final boolean[] dones, final byte[] observations) throws Exception
+    {
+        this.actions = actions;
+        this.rewards = rewards;
+        this.dones = dones;
+        this.observations = observations;
+        this.buffer = null;
+        
+        step();
+    }
+    
+    /**
+     * Step every environment, writing the observations into a buffer
+     * @param actions The action for each environment
+     * @param rewards The reward for each environment is written here
+     * @param dones If the episode of each environment ended is written here
+     * @param buffer The planar observation of each environment is written here, starting at index 0
+     * @throws Exception if there was a problem stepping on a thread
+     */
+    public void step(final int[] actions, final float[] rewards, final boolean[] dones, final ByteBuffer buffer) throws Exception
+    {
+        this.actions = actions;
+        this.rewards = rewards;
+        this.dones = dones;
+        this.observations = null;
+        this.buffer = buffer;
+        
+        step();
+    }
+    
+    /**
+     * Step every environment with the arrays of the current step
+     * @throws Exception if there was a problem stepping on a thread
+     */
+    private void step() throws Exception
+    {
+        if (executor == null)
+        {
+            step(0, environments.length);
+        }
+        else
+        {
+            //wait for every thread to finish, if there was a problem the exception will be thrown here
+            for (Future<Void> future : executor.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+    }
+    
+    /**
+     * Step a range of environments
+     * @param start The first environment
+     * @param end The environment after the last
+     */
+    private void step(final int start, final int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            rewards[i] = environments[i].step(actions[i]);
+            dones[i] = environments[i].isDone();
+            
+            //start the next episode right away
+            if (dones[i])
+                reset(i);
+            
+            if (observations != null)
+            {
+                environments[i].observe(observations, i * Environment.OBSERVATION_SIZE);
+            }
+            else
+            {
+                Observations.encode(environments[i].getBoard(), buffer, i * Observations.SIZE);
+            }
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
\ No newline at end of file
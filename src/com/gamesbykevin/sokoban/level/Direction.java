@@ -0,0 +1,37 @@
+package com.gamesbykevin.sokoban.level;
+
+/**
+ * The directions the character can move in the level
+ * @author GOD
+ */
+public enum Direction
+{
+    WEST(-1, 0), EAST(1, 0), NORTH(0, -1), SOUTH(0, 1);
+    
+    //the change in column, row when moving in this direction
+    private final int col, row;
+    
+    private Direction(final int col, final int row)
+    {
+        this.col = col;
+        this.row = row;
+    }
+    
+    /**
+     * Get the change in column
+     * @return -1, 0 or 1
+     */
+    public int getCol()
+    {
+        return this.col;
+    }
+    
+    /**
+     * Get the change in row
+     * @return -1, 0 or 1
+     */
+    public int getRow()
+    {
+        return this.row;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import com.gamesbykevin.sokoban.level.object.LevelObject;
+
+import java.util.Arrays;
+
+/**
+ * The level objects of a single kind (walls, goals or boxes) stored in parallel arrays.<br>
+ * This way each pass over the level only visits the objects it needs.
+ * @author GOD
+ */
+final class Entities implements Disposable
+{
+    //the starting capacity of the arrays
+    private static final int DEFAULT_CAPACITY = 8;
+    
+    //the objects used to render
+    private LevelObject[] objects;
+    
+    //the starting column, row of each object
+    private int[] startCols;
+    private int[] startRows;
+    
+    //the destination column, row of each object
+    private int[] cols;
+    private int[] rows;
+    
+    //the number of objects stored
+    private int size = 0;
+    
+    protected Entities()
+    {
+        this.objects = new LevelObject[DEFAULT_CAPACITY];
+        this.startCols = new int[DEFAULT_CAPACITY];
+        this.startRows = new int[DEFAULT_CAPACITY];
+        this.cols = new int[DEFAULT_CAPACITY];
+        this.rows = new int[DEFAULT_CAPACITY];
+    }
+    
+    /**
+     * Add the object, the object is expected to already be at its start location
+     * @param object The level object we want to add
+     * @return The index of the object added
+     */
+    protected int add(final LevelObject object)
+    {
+        //make room if we are full
+        if (size == objects.length)
+        {
+            final int capacity = objects.length * 2;
+            
+            this.objects = Arrays.copyOf(objects, capacity);
+            this.startCols = Arrays.copyOf(startCols, capacity);
+            this.startRows = Arrays.copyOf(startRows, capacity);
+            this.cols = Arrays.copyOf(cols, capacity);
+            this.rows = Arrays.copyOf(rows, capacity);
+        }
+        
+        //store the object
+        objects[size] = object;
+        startCols[size] = (int)object.getStart().getCol();
+        startRows[size] = (int)object.getStart().getRow();
+        cols[size] = startCols[size];
+        rows[size] = startRows[size];
+        
+        //return the index and increase the size
+        return size++;
+    }
+    
+    /**
+     * Get the number of objects
+     * @return The total number of objects stored
+     */
+    protected int size()
+    {
+        return this.size;
+    }
+    
+    /**
+     * Get the object
+     * @param index The index of the object
+     * @return The level object at the index
+     */
+    protected LevelObject get(final int index)
+    {
+        return objects[index];
+    }
+    
+    /**
+     * Get the destination column
+     * @param index The index of the object
+     * @return The column the object is at or moving to
+     */
+    protected int getCol(final int index)
+    {
+        return cols[index];
+    }
+    
+    /**
+     * Get the destination row
+     * @param index The index of the object
+     * @return The row the object is at or moving to
+     */
+    protected int getRow(final int index)
+    {
+        return rows[index];
+    }
+    
+    /**
+     * Get the starting column
+     * @param index The index of the object
+     * @return The column the object started at
+     */
+    protected int getStartCol(final int index)
+    {
+        return startCols[index];
+    }
+    
+    /**
+     * Get the starting row
+     * @param index The index of the object
+     * @return The row the object started at
+     */
+    protected int getStartRow(final int index)
+    {
+        return startRows[index];
+    }
+    
+    /**
+     * Set the destination of the object
+     * @param index The index of the object
+     * @param col Column
+     * @param row Row
+     */
+    protected void setDestination(final int index, final int col, final int row)
+    {
+        cols[index] = col;
+        rows[index] = row;
+        
+        //update the object as well
+        objects[index].setDestination(col, row);
+    }
+    
+    /**
+     * Place the object at the location right away, without moving to it
+     * @param index The index of the object
+     * @param col Column
+     * @param row Row
+     */
+    protected void place(final int index, final int col, final int row)
+    {
+        cols[index] = col;
+        rows[index] = row;
+        
+        objects[index].setCol(col);
+        objects[index].setRow(row);
+        objects[index].setDestination(col, row);
+    }
+    
+    /**
+     * Place every object back at its start location
+     * @throws Exception if there is a problem resetting an object
+     */
+    protected void reset() throws Exception
+    {
+        for (int i = 0; i < size; i++)
+        {
+            objects[i].reset();
+            cols[i] = startCols[i];
+            rows[i] = startRows[i];
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (objects != null)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                objects[i].dispose();
+                objects[i] = null;
+            }
+            
+            objects = null;
+        }
+        
+        startCols = null;
+        startRows = null;
+        cols = null;
+        rows = null;
+        size = 0;
+    }
+}
\ No newline at end of file
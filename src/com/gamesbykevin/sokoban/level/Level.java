@@ -12,8 +12,7 @@ import com.gamesbykevin.sokoban.resources.GameImages.Keys;
 import com.gamesbykevin.sokoban.shared.IElement;
 
 import java.awt.Graphics;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Object representing the level
@@ -29,8 +28,26 @@ public class Level extends Sprite implements Disposable, IElement
     public static final String KEY_GOAL = ".";
     public static final String KEY_FLOOR = " ";
     
-    //the list of objects that make the level
-    private List<LevelObject> levelObjects;
+    //the objects that make the level, grouped by kind
+    private Entities walls, goals, boxes;
+    
+    //the index of the wall, goal and box at each (col, row), -1 if there is none
+    private int[] wallCells, goalCells, boxCells;
+    
+    //the location the walls and goals were last positioned for
+    private double positionX = Double.NaN, positionY = Double.NaN;
+    
+    //the number of boxes that are placed on a goal
+    private int placed = 0;
+    
+    //the index of each box that is currently moving to its destination
+    private int[] movers = new int[0];
+    
+    //the number of boxes currently moving
+    private int moving = 0;
+    
+    //increased every time a box moves, so anything cached about the box locations knows when to update
+    private int changes = 0;
     
     //the default dimension of each col, row in the level
     public static final int DEFAULT_DIMENSION = 32;
@@ -41,19 +58,67 @@ public class Level extends Sprite implements Disposable, IElement
     //the entire dimensions of the level
     private final int cols, rows;
     
+    //the index of the level in the file
+    private final int id;
+    
     //the starting location for the player
     private Cell start;
     
-    protected Level(final int cols, final int rows)
+    protected Level(final int id, final int cols, final int rows)
     {
         super();
         
+        //store the id of the level
+        this.id = id;
+        
         //store overall level dimensions
         this.cols = cols;
         this.rows = rows;
         
-        //create list
-        this.levelObjects = new ArrayList<>();
+        //create the containers for each kind of object
+        this.walls = new Entities();
+        this.goals = new Entities();
+        this.boxes = new Entities();
+        
+        //create the lookup for each location
+        this.wallCells = createCells(cols * rows);
+        this.goalCells = createCells(cols * rows);
+        this.boxCells = createCells(cols * rows);
+    }
+    
+    /**
+     * Create the lookup of object indexes
+     * @param size The number of cells
+     * @return Array of the specified size with every cell empty
+     */
+    private static int[] createCells(final int size)
+    {
+        final int[] cells = new int[size];
+        Arrays.fill(cells, -1);
+        return cells;
+    }
+    
+    /**
+     * Get the index of the cell
+     * @param col Column
+     * @param row Row
+     * @return The index into the cell lookup, -1 if the location is outside of the level
+     */
+    private int getCell(final int col, final int row)
+    {
+        if (col < 0 || col >= getColumns() || row < 0 || row >= getRows())
+            return -1;
+        
+        return (row * getColumns()) + col;
+    }
+    
+    /**
+     * Get the id of the level
+     * @return The index of the level in the order it was found in the file, the same for every difficulty
+     */
+    public int getId()
+    {
+        return this.id;
     }
     
     /**
@@ -80,15 +145,7 @@ public class Level extends Sprite implements Disposable, IElement
      */
     public boolean hasMobileObjects()
     {
-        for (int i = 0; i < levelObjects.size(); i++)
-        {
-            //if this object is not at the destinaton, it is mobile
-            if (!levelObjects.get(i).hasDestination())
-                return true;
-        }
-        
-        //all objects are at destination
-        return false;
+        return (moving > 0);
     }
     
     private boolean hasPhysicalLevelObjectNorth(final int col, final int startRow)
@@ -143,19 +200,19 @@ public class Level extends Sprite implements Disposable, IElement
      */
     public LevelObject getPhysicalLevelObject(final int col, final int row)
     {
-        for (int i = 0; i < levelObjects.size(); i++)
-        {
-            //get the current level object
-            LevelObject object = levelObjects.get(i);
-            
-            //if the object exists at this location
-            if (object.equals(col, row))
-            {
-                //we only want the physical objects
-                if (object.isBox() || object.isWall())
-                    return object;
-            }
-        }
+        final int cell = getCell(col, row);
+        
+        //nothing exists outside of the level
+        if (cell < 0)
+            return null;
+        
+        //check for a wall
+        if (wallCells[cell] >= 0)
+            return walls.get(wallCells[cell]);
+        
+        //check for a box
+        if (boxCells[cell] >= 0)
+            return boxes.get(boxCells[cell]);
         
         //nothing was found
         return null;
@@ -169,20 +226,114 @@ public class Level extends Sprite implements Disposable, IElement
      */
     public LevelObject getLevelObject(final int col, final int row)
     {
-        for (int i = 0; i < levelObjects.size(); i++)
-        {
-            //get the current level object
-            LevelObject object = levelObjects.get(i);
-            
-            //if this object is at the location, return it
-            if (object.equals(col, row))
-                return object;
-        }
+        //check the physical objects first
+        final LevelObject object = getPhysicalLevelObject(col, row);
+        
+        if (object != null)
+            return object;
+        
+        final int cell = getCell(col, row);
+        
+        //check for a goal
+        if (cell >= 0 && goalCells[cell] >= 0)
+            return goals.get(goalCells[cell]);
         
         //no object was found
         return null;
     }
     
+    /**
+     * Can the character move in the direction.<br>
+     * The character can't move into a wall, and can only push a box if there is no wall or box behind it.
+     * @param col Column of the character
+     * @param row Row of the character
+     * @param direction The direction we want to move
+     * @return true if the move is valid, false otherwise
+     */
+    public boolean canMove(final int col, final int row, final Direction direction)
+    {
+        //the object next to the character
+        final LevelObject object1 = getPhysicalLevelObject(col + direction.getCol(), row + direction.getRow());
+        
+        //if there is no object we can move
+        if (object1 == null)
+            return true;
+        
+        //we can't move into a wall
+        if (object1.isWall())
+            return false;
+        
+        //check the object 2 over
+        final LevelObject object2 = getPhysicalLevelObject(col + (direction.getCol() * 2), row + (direction.getRow() * 2));
+        
+        //if the next object is not a box or wall, the box can be pushed
+        return (object2 == null || !object2.isBox() && !object2.isWall());
+    }
+    
+    /**
+     * Move the box to a new location.<br>
+     * All box movement needs to happen here so the level can keep track of where each box is.
+     * @param box The box we want to move
+     * @param col Column of the destination
+     * @param row Row of the destination
+     * @throws Exception if the object is not a box in this level, or the destination is outside of the level
+     */
+    public void setDestination(final LevelObject box, final int col, final int row) throws Exception
+    {
+        //locate the box by its current destination
+        final int cell = getCell((int)box.getDestination().getCol(), (int)box.getDestination().getRow());
+        
+        if (cell < 0 || boxCells[cell] < 0 || boxes.get(boxCells[cell]) != box)
+            throw new Exception("Box not found in level at " + box.getDestination().getCol() + ", " + box.getDestination().getRow());
+        
+        final int destination = getCell(col, row);
+        
+        if (destination < 0)
+            throw new Exception("Destination is outside of the level " + col + ", " + row);
+        
+        //the index of the box
+        final int index = boxCells[cell];
+        
+        //if the box was placed on a goal, it is leaving it now
+        if (boxes.get(index).hasAnimation(Box.ON_GOAL))
+        {
+            boxes.get(index).setAnimation(Box.NORMAL);
+            placed--;
+        }
+        
+        //move the box to the new cell
+        boxCells[cell] = -1;
+        boxCells[destination] = index;
+        
+        //assign the destination
+        boxes.setDestination(index, col, row);
+        
+        //the box is now moving
+        addMover(index);
+        
+        changes++;
+    }
+    
+    /**
+     * Add the box to the list of moving objects, if it is not already there
+     * @param index The index of the box
+     */
+    private void addMover(final int index)
+    {
+        for (int i = 0; i < moving; i++)
+        {
+            //the box is already moving
+            if (movers[i] == index)
+                return;
+        }
+        
+        //make sure there is room
+        if (movers.length < boxes.size())
+            movers = Arrays.copyOf(movers, boxes.size());
+        
+        movers[moving++] = index;
+    }
+    
     /**
      * Set the starting location of the character for this level
      * @param col Column
@@ -220,11 +371,30 @@ public class Level extends Sprite implements Disposable, IElement
      */
     public void reset() throws Exception
     {
-        for (int i = 0; i < levelObjects.size(); i++)
+        //only the boxes move, so they are the only objects to reset
+        boxes.reset();
+        
+        //the boxes are back at the start
+        Arrays.fill(boxCells, -1);
+        
+        //count the placed boxes again
+        placed = 0;
+        
+        //nothing is moving now
+        moving = 0;
+        
+        changes++;
+        
+        for (int i = 0; i < boxes.size(); i++)
         {
-            //reset the current level object
-            levelObjects.get(i).reset();
+            boxCells[getCell(boxes.getCol(i), boxes.getRow(i))] = i;
+            
+            //set the animation for the start location
+            setBoxAnimation(i);
         }
+        
+        //nothing is moving, so update won't position the boxes back at the start
+        setCoordinates(boxes);
     }
     
     /**
@@ -233,17 +403,83 @@ public class Level extends Sprite implements Disposable, IElement
      */
     public int getBoxCount()
     {
-        int count = 0;
+        return boxes.size();
+    }
+    
+    /**
+     * Get the cell of the box
+     * @param index The index of the box
+     * @return The cell index (row * columns + column) the box is at or moving to
+     */
+    public int getBoxCell(final int index)
+    {
+        return getCell(boxes.getCol(index), boxes.getRow(index));
+    }
+    
+    /**
+     * Place the boxes in the cells right away, without moving them there.<br>
+     * Only the boxes are visited, so this is much quicker than a reset followed by moves.
+     * @param cells The cell index (row * columns + column) of each box
+     * @param count The number of cells, this must match the number of boxes
+     * @throws Exception if the number of cells doesn't match, or a cell is outside of the level or has a wall
+     */
+    public void setBoxes(final int[] cells, final int count) throws Exception
+    {
+        if (count != boxes.size())
+            throw new Exception("There are " + count + " cells for " + boxes.size() + " boxes");
+        
+        //check every cell before anything is changed
+        for (int i = 0; i < count; i++)
+        {
+            if (cells[i] < 0 || cells[i] >= boxCells.length || wallCells[cells[i]] >= 0)
+                throw new Exception("Box can't be placed in cell " + cells[i]);
+        }
         
-        for (int i = 0; i < levelObjects.size(); i++)
+        //remove the boxes from their current cells
+        for (int i = 0; i < boxes.size(); i++)
         {
-            //count this if it is a box
-            if (levelObjects.get(i).isBox())
-                count++;
+            boxCells[getBoxCell(i)] = -1;
         }
         
-        //return the total
-        return count;
+        for (int i = 0; i < count; i++)
+        {
+            //two boxes can't share a cell, so put every box back where it was
+            if (boxCells[cells[i]] >= 0)
+            {
+                for (int j = 0; j < i; j++)
+                {
+                    boxCells[cells[j]] = -1;
+                }
+                
+                for (int j = 0; j < boxes.size(); j++)
+                {
+                    boxCells[getBoxCell(j)] = j;
+                }
+                
+                throw new Exception("Two boxes can't be placed in cell " + cells[i]);
+            }
+            
+            boxCells[cells[i]] = i;
+        }
+        
+        //count the placed boxes again
+        placed = 0;
+        
+        //nothing is moving now
+        moving = 0;
+        
+        changes++;
+        
+        for (int i = 0; i < count; i++)
+        {
+            boxes.place(i, cells[i] % cols, cells[i] / cols);
+            
+            //set the animation for the new location
+            setBoxAnimation(i);
+            
+            //the box won't move, so position it now
+            setCoordinates(boxes.get(i));
+        }
     }
     
     /**
@@ -251,9 +487,15 @@ public class Level extends Sprite implements Disposable, IElement
      * @param object Object we want to add
      * @param col Column location
      * @param row Row location
+     * @throws Exception if the location is outside of the level, or the object can't be placed in a level
      */
-    public void add(final LevelObject object, final int col, final int row)
+    public void add(final LevelObject object, final int col, final int row) throws Exception
     {
+        final int cell = getCell(col, row);
+        
+        if (cell < 0)
+            throw new Exception("Location is outside of the level " + col + ", " + row);
+        
         //set (col, row) location
         object.setCol(col);
         object.setRow(row);
@@ -279,11 +521,50 @@ public class Level extends Sprite implements Disposable, IElement
         }
 
         //set coordinates
-        object.setX(getStartX(object) + (Level.DEFAULT_DIMENSION / 2) - (object.getWidth() / 2));
-        object.setY(getStartX(object) + (Level.DEFAULT_DIMENSION / 2) - (object.getHeight() / 2));
+        setCoordinates(object);
         
-        //add to list
-        this.levelObjects.add(object);
+        //add to the container for this kind of object
+        if (object.isWall())
+        {
+            wallCells[cell] = walls.add(object);
+        }
+        else if (object.isGoal())
+        {
+            goalCells[cell] = goals.add(object);
+        }
+        else if (object.isBox())
+        {
+            boxCells[cell] = boxes.add(object);
+            
+            //the box may start on a goal
+            setBoxAnimation(boxCells[cell]);
+        }
+        else
+        {
+            throw new Exception("Level object can't be added to the level " + object.getType());
+        }
+    }
+    
+    /**
+     * Set the (x, y) coordinates of the object based on its (col, row) location
+     * @param object The object we want to position
+     */
+    private void setCoordinates(final LevelObject object)
+    {
+        object.setX(getStartX(object) + (Level.DEFAULT_DIMENSION / 2) - (object.getWidth() / 2));
+        object.setY(getStartY(object) + (Level.DEFAULT_DIMENSION / 2) - (object.getHeight() / 2));
+    }
+    
+    /**
+     * Set the coordinates of all objects
+     * @param entities The objects we want to position
+     */
+    private void setCoordinates(final Entities entities)
+    {
+        for (int i = 0; i < entities.size(); i++)
+        {
+            setCoordinates(entities.get(i));
+        }
     }
     
     @Override
@@ -291,18 +572,28 @@ public class Level extends Sprite implements Disposable, IElement
     {
         super.dispose();
         
-        if (levelObjects != null)
+        if (walls != null)
         {
-            for (int i = 0; i < levelObjects.size(); i++)
-            {
-                levelObjects.get(i).dispose();
-                levelObjects.set(i, null);
-            }
-            
-            levelObjects.clear();
-            levelObjects = null;
+            walls.dispose();
+            walls = null;
+        }
+        
+        if (goals != null)
+        {
+            goals.dispose();
+            goals = null;
         }
         
+        if (boxes != null)
+        {
+            boxes.dispose();
+            boxes = null;
+        }
+        
+        wallCells = null;
+        goalCells = null;
+        boxCells = null;
+        
         if (floor != null)
         {
             floor.dispose();
@@ -310,6 +601,39 @@ public class Level extends Sprite implements Disposable, IElement
         }
     }
     
+    /**
+     * Get the number of changes
+     * @return The number of times a box has moved or the boxes were reset
+     */
+    public int getChanges()
+    {
+        return this.changes;
+    }
+    
+    /**
+     * Get the column at the x-coordinate, the opposite of getStartX
+     * @param x x-coordinate
+     * @return The column, -1 if the x-coordinate is outside of the level
+     */
+    public int getCol(final double x)
+    {
+        final int col = (int)Math.floor((x - getX()) / Level.DEFAULT_DIMENSION);
+        
+        return (col >= 0 && col < getColumns()) ? col : -1;
+    }
+    
+    /**
+     * Get the row at the y-coordinate, the opposite of getStartY
+     * @param y y-coordinate
+     * @return The row, -1 if the y-coordinate is outside of the level
+     */
+    public int getRow(final double y)
+    {
+        final int row = (int)Math.floor((y - getY()) / Level.DEFAULT_DIMENSION);
+        
+        return (row >= 0 && row < getRows()) ? row : -1;
+    }
+    
     /**
      * Get the starting y-coordinate 
      * @param object containing the row
@@ -356,21 +680,8 @@ public class Level extends Sprite implements Disposable, IElement
      */
     public boolean hasCompleted()
     {
-        for (int i = 0; i < levelObjects.size(); i++)
-        {
-            LevelObject object = levelObjects.get(i);
-            
-            //we only want to check the boxes
-            if (!object.isBox())
-                continue;
-            
-            //the box is not assigned the 'on goal' animation, the level is not completed
-            if (!object.hasAnimation(Box.ON_GOAL))
-                return false;
-        }
-        
-        //all boxes are on a goal
-        return true;
+        //if every box is placed, all boxes are on a goal
+        return (placed == boxes.size());
     }
     
     @Override
@@ -379,94 +690,118 @@ public class Level extends Sprite implements Disposable, IElement
         if (super.getImage() == null)
             super.setImage(engine.getResources().getGameImage(Keys.SpriteSheet));
         
+        //if we just placed a box on the goal, play sound effect
+        if (update(engine.getMain().getTime()))
+            engine.getResources().playGameAudio(GameAudio.Keys.Place);
+    }
+    
+    /**
+     * Position the objects and move the boxes, this doesn't need the engine so it can be done without a game window
+     * @param time The time of each update (nanoseconds)
+     * @return true if a box was just placed on a goal, false otherwise
+     * @throws Exception if there is an issue updating a box
+     */
+    public boolean update(final long time) throws Exception
+    {
+        //the objects only need to be positioned when the level is, or when they move
+        if (getX() != positionX || getY() != positionY)
+        {
+            setCoordinates(walls);
+            setCoordinates(goals);
+            setCoordinates(boxes);
+            
+            //store the location
+            positionX = getX();
+            positionY = getY();
+        }
+        
         //did we just place a box on a goal
         boolean result = false;
         
-        //update the level objects
-        for (int i = 0; i < levelObjects.size(); i++)
+        //update only the boxes that are moving, going backwards so arrivals can be removed
+        for (int i = moving - 1; i >= 0; i--)
         {
-            LevelObject object = levelObjects.get(i);
+            //the index of the box
+            final int index = movers[i];
+            
+            LevelObject object = boxes.get(index);
             
             //update object
-            object.update(engine);
+            object.update(time);
             
-            //if this object is a box, check for goal match
-            if (object.isBox())
+            //if the box just arrived, check for goal match
+            if (object.hasDestination())
             {
+                //the box is no longer moving
+                movers[i] = movers[--moving];
+                
                 //if true, then a box was just placed on a goal
-                if (checkBoxAnimation(object))
+                if (checkBoxAnimation(index))
                     result = true;
             }
             
             //set coordinates
-            object.setX(getStartX(object) + (Level.DEFAULT_DIMENSION / 2) - (object.getWidth() / 2));
-            object.setY(getStartY(object) + (Level.DEFAULT_DIMENSION / 2) - (object.getHeight() / 2));
+            setCoordinates(object);
         }
         
-        //if we just placed a box on the goal, play sound effect
-        if (result)
-            engine.getResources().playGameAudio(GameAudio.Keys.Place);
+        return result;
     }
     
     /**
      * Check the box, to set the correct animation.<br>
-     * @param object The object representing the box
-     * @return true if a box was placed onto a goal for the first time, false time
+     * This only needs to be done when the box arrives at its destination.
+     * @param index The index of the box
+     * @return true if a box was placed onto a goal for the first time, false otherwise
      */
-    private boolean checkBoxAnimation(final LevelObject object) throws Exception
+    private boolean checkBoxAnimation(final int index) throws Exception
     {
-        //is there a goal that has the same location as the box
-        boolean match = false;
+        //the object representing the box
+        final LevelObject object = boxes.get(index);
         
-        //check each level object
-        for (int i = 0; i < levelObjects.size(); i++)
-        {
-            //if this is not a goal, skip
-            if (!levelObjects.get(i).isGoal())
-                continue;
-                
-            //if the location matches the box object, hide the goal
-            if (levelObjects.get(i).equals(object))
-            {
-                //flag match
-                match = true;
-                
-                //exit loop
-                break;
-            }
-        }
+        //if the box is not on a goal, or it was already placed, there is nothing to do
+        if (!hasGoal(boxes.getCol(index), boxes.getRow(index)) || object.hasAnimation(Box.ON_GOAL))
+            return false;
+        
+        //set on box animation
+        object.setAnimation(Box.ON_GOAL);
+        
+        //keep track of the boxes placed
+        placed++;
         
-        //set box animation accordingly
-        if (match)
+        //just placed return true
+        return true;
+    }
+    
+    /**
+     * Set the box animation based on its location, without playing any sound
+     * @param index The index of the box
+     */
+    private void setBoxAnimation(final int index) throws Exception
+    {
+        if (hasGoal(boxes.getCol(index), boxes.getRow(index)))
         {
-            //if the current animation is not on a goal and now is, this is the first time
-            if (object.getSpriteSheet().getCurrent() != Box.ON_GOAL)
-            {
-                //set on box animation
-                object.setAnimation(Box.ON_GOAL);
-                
-                //just placed return true
-                return true;
-            }
-            else
-            {
-                //set on box animation
-                object.setAnimation(Box.ON_GOAL);
-                
-                //this was already placed
-                return false;
-            }
+            boxes.get(index).setAnimation(Box.ON_GOAL);
+            placed++;
         }
         else
         {
-            //set normal animation
-            object.setAnimation(Box.NORMAL);
-            
-            //no match, this is not placed on a goal
-            return false;
+            boxes.get(index).setAnimation(Box.NORMAL);
         }
     }
     
+    /**
+     * Is there a goal at the location
+     * @param col Column
+     * @param row Row
+     * @return true if a goal exists at the (col, row), false otherwise
+     */
+    public boolean hasGoal(final int col, final int row)
+    {
+        final int cell = getCell(col, row);
+        
+        return (cell >= 0 && goalCells[cell] >= 0);
+    }
+    
     @Override
     public void render(final Graphics graphics) throws Exception
     {
@@ -494,25 +829,24 @@ public class Level extends Sprite implements Disposable, IElement
         }
         
         //now draw the goals
-        for (int i = 0; i < levelObjects.size(); i++)
-        {
-            //get the current level object
-            LevelObject object = levelObjects.get(i);
-            
-            //only draw the goal
-            if (object.isGoal())
-                object.render(graphics, getImage());
-        }
+        render(graphics, goals);
         
         //now draw the rest
-        for (int i = 0; i < levelObjects.size(); i++)
+        render(graphics, walls);
+        render(graphics, boxes);
+    }
+    
+    /**
+     * Draw the objects
+     * @param graphics Object used to draw
+     * @param entities The objects we want to draw
+     * @throws Exception if there is an issue rendering
+     */
+    private void render(final Graphics graphics, final Entities entities) throws Exception
+    {
+        for (int i = 0; i < entities.size(); i++)
         {
-            //get the current level object
-            LevelObject object = levelObjects.get(i);
-            
-            //only draw if not the goal
-            if (!object.isGoal())
-                object.render(graphics, getImage());
+            entities.get(i).render(graphics, getImage());
         }
     }
 }
\ No newline at end of file
@@ -5,9 +5,13 @@ import com.gamesbykevin.framework.resources.Progress;
 
 import com.gamesbykevin.sokoban.engine.Engine;
 import com.gamesbykevin.sokoban.level.object.*;
+import com.gamesbykevin.sokoban.progress.ProgressStore;
 import com.gamesbykevin.sokoban.resources.GameAudio;
 import com.gamesbykevin.sokoban.resources.GameText.Keys;
+import com.gamesbykevin.sokoban.shared.Events;
 import com.gamesbykevin.sokoban.shared.IElement;
+import com.gamesbykevin.sokoban.shared.Shared;
+import com.gamesbykevin.sokoban.shared.TimeSlice;
 
 import java.awt.Graphics;
 import java.awt.Rectangle;
@@ -38,7 +42,7 @@ public final class Levels implements Disposable, IElement
     private int index = 0;
     
     //the largest size of level we want
-    private static final int MAX_DIMENSIONS = 16;
+    public static final int MAX_DIMENSIONS = 16;
     
     //track our progress towards loading the levels
     private Progress progress;
@@ -46,13 +50,23 @@ public final class Levels implements Disposable, IElement
     //the most recet line accessed while loading the levels
     private int recentLine = 0;
     
+    //the id the next level found in the file gets, levels that don't fit the difficulty are counted too
+    private int nextId = 0;
+    
+    //the index of each level that was not solved when the levels were created, null until first needed
+    private int[] unsolved;
+    
+    //the number of indexes in unsolved
+    private int unsolvedCount = 0;
+    
     //do we need to assign a random level
     private boolean assignRandom = false;
     
-    /**
-     * How many levels can be created per update
-     */
-    private static final int LEVELS_CREATED_PER_UPDATE = 30;
+    //the time we can spend creating levels each update
+    private final TimeSlice slice;
+    
+    //the time we started creating levels, and the total time spent creating them (nanoseconds)
+    private long parseStart = 0, parseTime = 0;
     
     public Levels(final int difficulty)
     {
@@ -61,6 +75,27 @@ public final class Levels implements Disposable, IElement
         
         //create new list of levels of each difficulty
         this.levels = new ArrayList<>();
+        
+        //create the time allowed per update
+        this.slice = new TimeSlice(Shared.LOAD_TIME_SLICE);
+    }
+    
+    /**
+     * Get the index of the current level
+     * @return The index of the current level
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+    
+    /**
+     * Get the id of the current level
+     * @return The id of the current level, the same for every difficulty
+     */
+    public int getId()
+    {
+        return getLevel().getId();
     }
     
     /**
@@ -72,6 +107,42 @@ public final class Levels implements Disposable, IElement
         return this.levels.get(index);
     }
     
+    /**
+     * Get the level
+     * @param index The index of the level
+     * @return The level at the index
+     */
+    protected Level getLevel(final int index)
+    {
+        return this.levels.get(index);
+    }
+    
+    /**
+     * Get the number of levels
+     * @return The total number of levels created for the difficulty
+     */
+    protected int getCount()
+    {
+        return this.levels.size();
+    }
+    
+    /**
+     * Create all of the levels at once without drawing any progress, used when there is no game window
+     * @param lines All of the lines in the text file
+     * @param random Object used to make random decisions
+     * @throws Exception if there is an issue creating a level
+     */
+    public void create(final List<String> lines, final Random random) throws Exception
+    {
+        progress = new Progress(lines.size());
+        
+        //keep creating until every line is checked
+        while (!progress.isComplete())
+        {
+            createLevels(lines, random);
+        }
+    }
+    
     @Override
     public void dispose()
     {
@@ -167,8 +238,8 @@ public final class Levels implements Disposable, IElement
         //line where the current level starts
         int start = 0;
         
-        //count the number of levels created
-        int levelsCreated = 0;
+        //start timing this update
+        slice.start();
         
         //check every line
         for (int i = recentLine; i < lines.size(); i++)
@@ -221,10 +292,7 @@ public final class Levels implements Disposable, IElement
                 if (maxCols <= MAX_DIMENSIONS && (i - start) <= MAX_DIMENSIONS)
                 {
                     //create the level
-                    createLevel(start, i - 1, maxCols, lines, random);
-                    
-                    //track the number of levels created
-                    levelsCreated++;
+                    createLevel(nextId++, start, i - 1, maxCols, lines, random);
                 }
                 
                 //reset variables for next level
@@ -235,8 +303,8 @@ public final class Levels implements Disposable, IElement
                 //store recent line, for next check
                 recentLine = i;
                 
-                //if we reached the max per update, exit loop so we can display progress
-                if (levelsCreated >= LEVELS_CREATED_PER_UPDATE)
+                //if we used up our time for this update, exit loop so we can display progress
+                if (slice.hasExpired())
                     break;
             }
             
@@ -253,6 +321,7 @@ public final class Levels implements Disposable, IElement
     
     /**
      * Create the level from the array list of lines from the text file
+     * @param id The id of the level
      * @param start Starting line position of level
      * @param finish Finish line position of level
      * @param maxCols The maximum column dimension for this level
@@ -260,13 +329,13 @@ public final class Levels implements Disposable, IElement
      * @param random Object used to make random decisions
      * @throws Exception If unable to create level
      */
-    private void createLevel(final int start, final int finish, final int maxCols, final List<String> lines, final Random random) throws Exception
+    private void createLevel(final int id, final int start, final int finish, final int maxCols, final List<String> lines, final Random random) throws Exception
     {
         //calculate the number of rows in the level
         final int rows = (finish + 1) - start;
         
         //object representing the level
-        Level level = new Level(maxCols, rows);
+        Level level = new Level(id, maxCols, rows);
         
         //pick random floor
         LevelObject.Type floorType = Floor.FLOORS[random.nextInt(Floor.FLOORS.length)];
@@ -376,14 +445,23 @@ public final class Levels implements Disposable, IElement
         //continue until we have completed our progress
         if (!progress.isComplete())
         {
+            final long time = System.nanoTime();
+            
+            if (parseStart == 0)
+                parseStart = time;
+            
             //if the levels do not exist we will create them
             createLevels(engine.getResources().getGameText(Keys.Levels).getLines(), engine.getRandom());
             
+            parseTime += System.nanoTime() - time;
+            
             //if no longer loading set a random level for now
             if (progress.isComplete())
             {
                 //ok to pick random level
                 assignRandom = true;
+                
+                Events.record(Events.Type.LevelParse, parseStart, System.nanoTime() - parseStart, null, engine.getResources().getGameText(Keys.Levels).getLines().size(), levels.size(), parseTime);
             }
         }
         else
@@ -391,7 +469,7 @@ public final class Levels implements Disposable, IElement
             if (assignRandom)
             {
                 //pick random level
-                setRandom(engine.getRandom());
+                setRandom(engine.getRandom(), engine.getManager().getProgress());
                 
                 //reset level
                 getLevel().reset();
@@ -402,6 +480,8 @@ public final class Levels implements Disposable, IElement
                 //set the character's starting location
                 engine.getManager().getPlayer().setCharacterStart(getLevel().getStart());
                 
+                Events.record(Events.Type.LevelStart, null, getId(), 0);
+                
                 //turn flag off
                 assignRandom = false;
             }
@@ -418,11 +498,43 @@ public final class Levels implements Disposable, IElement
     }
     
     /**
-     * Set a random level
+     * Set a random level, picking from the levels not solved if there are any.<br>
+     * A level solved after the choices were made is removed when it is picked, so each level is removed only once.
      * @param random Object used to make random decisions
+     * @param store The levels solved, if null any level can be picked
      */
-    private void setRandom(final Random random)
+    private void setRandom(final Random random, final ProgressStore store)
     {
+        if (store != null)
+        {
+            //find the levels not solved the first time
+            if (unsolved == null)
+            {
+                unsolved = new int[levels.size()];
+                
+                for (int i = 0; i < levels.size(); i++)
+                {
+                    if (!store.isSolved(levels.get(i).getId()))
+                        unsolved[unsolvedCount++] = i;
+                }
+            }
+            
+            while (unsolvedCount > 0)
+            {
+                final int choice = random.nextInt(unsolvedCount);
+                
+                if (!store.isSolved(levels.get(unsolved[choice]).getId()))
+                {
+                    this.index = unsolved[choice];
+                    return;
+                }
+                
+                //the level has been solved, so replace it with the last choice
+                unsolved[choice] = unsolved[--unsolvedCount];
+            }
+        }
+        
+        //every level has been solved
         this.index = random.nextInt(levels.size());
     }
     
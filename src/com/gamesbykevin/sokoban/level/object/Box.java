@@ -1,7 +1,5 @@
 package com.gamesbykevin.sokoban.level.object;
 
-import com.gamesbykevin.sokoban.engine.Engine;
-
 import java.util.Random;
 
 /**
@@ -92,14 +90,14 @@ public final class Box extends LevelObject
         }
         
         //default the normal animation for now
-        super.getSpriteSheet().setCurrent(NORMAL);
+        super.setAnimation(NORMAL);
     }
     
     @Override
-    public void update(final Engine engine) throws Exception
+    public void update(final long time) throws Exception
     {
         //update animation
-        super.updateAnimation(engine.getMain().getTime());
+        super.updateAnimation(time);
         
         //update the box location
         super.updateLocation();
@@ -2,8 +2,6 @@ package com.gamesbykevin.sokoban.level.object;
 
 import com.gamesbykevin.framework.base.Animation;
 
-import com.gamesbykevin.sokoban.engine.Engine;
-
 /**
  * This represents the character
  * @author GOD
@@ -77,10 +75,10 @@ public final class Character extends LevelObject
     }
     
     @Override
-    public void update(final Engine engine) throws Exception
+    public void update(final long time) throws Exception
     {
         //update animation
-        super.updateAnimation(engine.getMain().getTime());
+        super.updateAnimation(time);
         
         //if the player is at the destination we don't want a live animation
         super.getSpriteSheet().getSpriteSheetAnimation().setLoop(!hasDestination());
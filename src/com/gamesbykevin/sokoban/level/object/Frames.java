@@ -0,0 +1,127 @@
+package com.gamesbykevin.sokoban.level.object;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The animation frames of a level object never change and are the same for every object of the same type.<br>
+ * So instead of every object creating its own animations, the frames are created once here and shared.
+ * Each frame is also kept at the size it is drawn, as drawing part of the sprite sheet at a different size creates objects every time.
+ * @author GOD
+ */
+final class Frames
+{
+    //the frames for each type of level object, accessed by the animation key
+    private static final Map<LevelObject.Type, Map<String, Rectangle>> FRAMES = new EnumMap<>(LevelObject.Type.class);
+    
+    //each frame at the size it is drawn, there are only a few frames and sizes so these are searched in order
+    private static final List<Scaled> SCALED = new ArrayList<>();
+    
+    /**
+     * A frame of the sprite sheet at the size it is drawn
+     */
+    private static final class Scaled
+    {
+        //the sprite sheet and frame, and the size drawn
+        private final Image image;
+        private final Rectangle frame;
+        private final int width, height;
+        
+        //the frame at the size drawn
+        private final BufferedImage scaled;
+        
+        private Scaled(final Image image, final Rectangle frame, final int width, final int height)
+        {
+            this.image = image;
+            this.frame = frame;
+            this.width = width;
+            this.height = height;
+            this.scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            
+            //draw the frame the same as it was drawn to the screen
+            final Graphics2D graphics = scaled.createGraphics();
+            graphics.drawImage(image, 0, 0, width, height, frame.x, frame.y, frame.x + frame.width, frame.y + frame.height, null);
+            graphics.dispose();
+        }
+    }
+    
+    private Frames()
+    {
+        //no instances of this class
+    }
+    
+    /**
+     * Add the frame for the specified type and key, if it was already added nothing happens
+     * @param type The type of level object
+     * @param key unique key to access this animation
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @param w width
+     * @param h height
+     */
+    static synchronized void intern(final LevelObject.Type type, final String key, final int x, final int y, final int w, final int h)
+    {
+        Map<String, Rectangle> frames = FRAMES.get(type);
+        
+        //create the container for this type if it does not exist
+        if (frames == null)
+        {
+            frames = new HashMap<>();
+            FRAMES.put(type, frames);
+        }
+        
+        //only create the frame once
+        if (!frames.containsKey(key))
+            frames.put(key, new Rectangle(x, y, w, h));
+    }
+    
+    /**
+     * Get the shared frame.<br>
+     * The frame returned is shared by all objects of the type and should not be modified.
+     * @param type The type of level object
+     * @param key unique key to access this animation
+     * @return The location of the frame on the sprite sheet, if not found null is returned
+     */
+    static synchronized Rectangle get(final LevelObject.Type type, final String key)
+    {
+        final Map<String, Rectangle> frames = FRAMES.get(type);
+        
+        return (frames != null) ? frames.get(key) : null;
+    }
+    
+    /**
+     * Get the shared frame at the size it is drawn, it is only created the first time
+     * @param image The sprite sheet
+     * @param frame The shared frame, from get
+     * @param width The width drawn
+     * @param height The height drawn
+     * @return The frame at the size drawn, null if it can't be created as the size is empty or the sprite sheet has not loaded
+     */
+    static synchronized Image getScaled(final Image image, final Rectangle frame, final int width, final int height)
+    {
+        for (int i = 0; i < SCALED.size(); i++)
+        {
+            final Scaled scaled = SCALED.get(i);
+            
+            if (scaled.image == image && scaled.frame == frame && scaled.width == width && scaled.height == height)
+                return scaled.scaled;
+        }
+        
+        //we can't copy an image that isn't loaded
+        if (width <= 0 || height <= 0 || image.getWidth(null) < 0)
+            return null;
+        
+        final Scaled scaled = new Scaled(image, frame, width, height);
+        
+        SCALED.add(scaled);
+        
+        return scaled.scaled;
+    }
+}
\ No newline at end of file
@@ -11,6 +11,7 @@ import com.gamesbykevin.sokoban.shared.Shared;
 
 import java.awt.Graphics;
 import java.awt.Image;
+import java.awt.Rectangle;
 
 /**
  * Every object in the level is a level object
@@ -48,13 +49,16 @@ public abstract class LevelObject extends Sprite implements Disposable
     //the destination location of this level object
     private Cell destination;
     
+    //the key of the current animation
+    private String animation;
+    
+    //the shared frame of the current animation, used when this object does not have its own sprite sheet
+    private Rectangle frame;
+    
     protected LevelObject(final Type type)
     {
         //store the tye of level object
         this.type = type;
-        
-        //create the spritesheet
-        createSpriteSheet();
     }
     
     /**
@@ -150,6 +154,7 @@ public abstract class LevelObject extends Sprite implements Disposable
         
         start = null;
         destination = null;
+        frame = null;
     }
     
     public boolean isWall()
@@ -247,14 +252,27 @@ public abstract class LevelObject extends Sprite implements Disposable
      */
     protected void updateAnimation(final long time) throws Exception
     {
-        super.getSpriteSheet().update(time);
+        //the shared frames are a single image, so only objects with their own sprite sheet are animated
+        if (super.getSpriteSheet() != null)
+            super.getSpriteSheet().update(time);
     }
     
     /**
-     * Each child will have a method to update itself
-     * @param engine 
+     * Update the object
+     * @param engine Object containing the time of each update
+     * @throws Exception if the object can't be updated
      */
-    public abstract void update(final Engine engine) throws Exception;
+    public void update(final Engine engine) throws Exception
+    {
+        update(engine.getMain().getTime());
+    }
+    
+    /**
+     * Each child will have a method to update itself, this doesn't need the engine so it can be done without a game window
+     * @param time The time of each update (nanoseconds)
+     * @throws Exception if the object can't be updated
+     */
+    public abstract void update(final long time) throws Exception;
     
     /**
      * Each child class will need to setup an animation
@@ -275,7 +293,8 @@ public abstract class LevelObject extends Sprite implements Disposable
     }
     
     /**
-     * Add a single frame animation
+     * Add a single frame animation.<br>
+     * The frame is shared by all level objects of the same type, so it is only created once.
      * @param x x-coordinate
      * @param y y-coordinate
      * @param w width
@@ -284,21 +303,43 @@ public abstract class LevelObject extends Sprite implements Disposable
      */
     protected void addAnimation(final int x, final int y, final int w, final int h, final String key)
     {
-        Animation animation = new Animation(x, y, w, h, DEFAULT_DELAY);
-        //animation.add(x, y, w, h, DEFAULT_DELAY);
-        animation.setLoop(false);
-        
-        addAnimation(animation, key);
+        Frames.intern(getType(), key, x, y, w, h);
     }
     
+    /**
+     * Add an animation that belongs to this object only, this will create a sprite sheet for this object
+     * @param animation The animation we want to add
+     * @param key unique key to access this animation
+     */
     protected void addAnimation(final Animation animation, final String key)
     {
+        //create the spritesheet if it does not exist
+        if (super.getSpriteSheet() == null)
+            super.createSpriteSheet();
+        
         super.getSpriteSheet().add(animation, key);
     }
     
     public void setAnimation(final String key) throws Exception
     {
-        super.getSpriteSheet().setCurrent(key);
+        if (super.getSpriteSheet() != null)
+        {
+            //this object has its own animations
+            super.getSpriteSheet().setCurrent(key);
+        }
+        else
+        {
+            //get the shared frame for this type
+            final Rectangle tmp = Frames.get(getType(), key);
+            
+            if (tmp == null)
+                throw new Exception("Animation not found for type = " + getType() + ", key = " + key);
+            
+            this.frame = tmp;
+        }
+        
+        //store the current animation key
+        this.animation = key;
     }
     
     /**
@@ -308,7 +349,7 @@ public abstract class LevelObject extends Sprite implements Disposable
      */
     public boolean hasAnimation(final String key)
     {
-        return (super.getSpriteSheet().getCurrent() == key);
+        return (this.animation == key);
     }
     
     public Type getType()
@@ -324,6 +365,16 @@ public abstract class LevelObject extends Sprite implements Disposable
         //if the object is not at the destination, move it
         if (!hasDestination())
         {
+            //if moves are instant there is no animation, so place at destination
+            if (Shared.INSTANT_MOVES)
+            {
+                super.setCol(getDestination());
+                super.setRow(getDestination());
+                super.resetVelocityX();
+                super.resetVelocityY();
+                return;
+            }
+            
             //if we are close enough to the destination
             if (Cell.getDistance(getDestination(), this) < VELOCITY)
             {
@@ -368,8 +419,34 @@ public abstract class LevelObject extends Sprite implements Disposable
     {
         if (image != null)
         {
-            //draw the object
-            super.draw(graphics, image);
+            if (super.getSpriteSheet() != null)
+            {
+                //draw the object
+                super.draw(graphics, image);
+            }
+            else if (frame != null)
+            {
+                final int x = (int)getX();
+                final int y = (int)getY();
+                
+                //the shared frame at the size drawn
+                final Image scaled = Frames.getScaled(image, frame, (int)getWidth(), (int)getHeight());
+                
+                if (scaled != null)
+                {
+                    graphics.drawImage(scaled, x, y, null);
+                }
+                else
+                {
+                    //draw the shared frame
+                    graphics.drawImage(
+                        image,
+                        x, y, x + (int)getWidth(), y + (int)getHeight(),
+                        frame.x, frame.y, frame.x + frame.width, frame.y + frame.height,
+                        null
+                    );
+                }
+            }
         }
     }
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.gamesbykevin.sokoban.level.object;
 
-import com.gamesbykevin.sokoban.engine.Engine;
-
 import java.util.Random;
 
 public final class Wall extends LevelObject 
@@ -79,13 +77,13 @@ public final class Wall extends LevelObject
         }
         
         //default the animation for now
-        super.getSpriteSheet().setCurrent(DEFAULT_ANIMATION_KEY);
+        super.setAnimation(DEFAULT_ANIMATION_KEY);
     }
     
     @Override
-    public void update(final Engine engine) throws Exception
+    public void update(final long time) throws Exception
     {
         //update animation
-        super.updateAnimation(engine.getMain().getTime());
+        super.updateAnimation(time);
     }
 }
\ No newline at end of file
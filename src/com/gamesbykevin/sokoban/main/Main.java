@@ -6,7 +6,10 @@ import javax.swing.*;
 import com.gamesbykevin.framework.resources.Disposable;
 
 import com.gamesbykevin.sokoban.engine.Engine;
+import com.gamesbykevin.sokoban.shared.Allocations;
+import com.gamesbykevin.sokoban.shared.Events;
 import com.gamesbykevin.sokoban.shared.Shared;
+import com.gamesbykevin.sokoban.shared.Timings;
 
 public final class Main extends Thread implements Disposable
 {
@@ -46,6 +49,12 @@ public final class Main extends Thread implements Disposable
     //cache this graphics object so we aren't constantly creating it
     private Graphics graphics;
     
+    //the time spent in each part of the game loop
+    private final Timings timings = new Timings();
+    
+    //the memory allocated each update
+    private final Allocations allocations = new Allocations();
+    
     public Main(final int ups, final JApplet applet)
     {
         this(ups);
@@ -105,6 +114,9 @@ public final class Main extends Thread implements Disposable
             engine = null;
         }
         
+        //write the timings that haven't been written yet
+        timings.dispose();
+        
         if (applet != null)
         {
             applet.destroy();
@@ -150,12 +162,6 @@ public final class Main extends Thread implements Disposable
         //to keep our game loop active
         boolean active = true;
         
-        //keep track of the number of updates
-        int updates = 0;
-        
-        //store the time to track ups (updates per second)
-        long previous = System.nanoTime();
-        
         while (active)
         {
             try
@@ -166,34 +172,29 @@ public final class Main extends Thread implements Disposable
                 //update game
                 engine.update(this);
                 
+                final long updated = System.nanoTime();
+                
                 //render image
                 renderImage();
 
+                final long rendered = System.nanoTime();
+                
                 //draw image
                 drawScreen();
                 
-                //keep track of the number of updates
-                updates++;
-                
                 //get the time after processing complete
                 final long after = System.nanoTime();
                 
-                //if we are debugging
-                if (Shared.DEBUG)
-                {
-                    //if 1 second has passed display ups
-                    if (after - previous >= NANO_SECONDS_PER_SECOND)
-                    {
-                        //display updates per second
-                        System.out.println("UPS = " + updates);
-
-                        //reset count
-                        updates = 0;
-
-                        //update the previous time with the current
-                        previous = after;
-                    }
-                }
+                //keep track of the time spent
+                timings.add(Timings.Key.EngineUpdate, updated - before);
+                timings.add(Timings.Key.DrawScreen, after - rendered);
+                timings.add(Timings.Key.Frame, after - before);
+                timings.update(after);
+                
+                Events.record(Events.Type.GameTick, before, after - before, null, updated - before, rendered - updated, after - rendered);
+                
+                //measure the memory allocated this update
+                allocations.update();
                 
                 //get the time passed for this update (in nanoseconds)
                 final long passed = (after - before);
@@ -291,6 +292,24 @@ public final class Main extends Thread implements Disposable
         createGraphicsObject();
     }
     
+    /**
+     * Get the time spent in each part of the game loop
+     * @return The object containing the timings
+     */
+    public Timings getTimings()
+    {
+        return this.timings;
+    }
+    
+    /**
+     * Get the memory allocated each update
+     * @return The object measuring the allocations
+     */
+    public Allocations getAllocations()
+    {
+        return this.allocations;
+    }
+    
     /**
      * Get the number of nanoseconds per each update.
      * @return long The nanosecond duration per each update which is based on updates per second.
@@ -317,7 +336,11 @@ public final class Main extends Thread implements Disposable
             bufferedImageGraphics.setColor(Color.BLACK);
             bufferedImageGraphics.fillRect(0, 0, Shared.ORIGINAL_WIDTH, Shared.ORIGINAL_HEIGHT);
 
+            final long time = System.nanoTime();
+            
             engine.render(bufferedImageGraphics);
+            
+            timings.add(Timings.Key.EngineRender, System.nanoTime() - time);
         }
         else
         {
@@ -388,6 +411,13 @@ public final class Main extends Thread implements Disposable
             
             //draw our rendered image at the specified location
             graphics.drawImage(bufferedImage, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null);
+            
+            //make sure the image is sent to the screen now, only when measuring as this waits for the display
+            if (engine.hasOverlay() || engine.getLatency().isPresenting())
+                Toolkit.getDefaultToolkit().sync();
+            
+            //the latest move is now visible
+            engine.getLatency().setPresented();
         }
         catch(Exception e)
         {
@@ -9,9 +9,11 @@ import com.gamesbykevin.sokoban.level.Levels;
 import com.gamesbykevin.sokoban.menu.CustomMenu;
 import com.gamesbykevin.sokoban.menu.CustomMenu.*;
 import com.gamesbykevin.sokoban.player.Player;
-import com.gamesbykevin.sokoban.resources.GameAudio;
+import com.gamesbykevin.sokoban.progress.ProgressStore;
 import com.gamesbykevin.sokoban.resources.GameFont;
 import com.gamesbykevin.sokoban.resources.GameImages;
+import com.gamesbykevin.sokoban.resources.GameMusic;
+import com.gamesbykevin.sokoban.shared.Timings;
 
 
 import java.awt.Color;
@@ -19,6 +21,7 @@ import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Rectangle;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,6 +40,9 @@ public final class Manager implements IManager
     //the object representing the player in play
     private Player player;
     
+    //the levels solved, null if the progress can't be kept
+    private ProgressStore progress;
+    
     //background image
     private Image background;
     
@@ -65,12 +71,26 @@ public final class Manager implements IManager
         if (player == null)
             player = new Player();
         
+        //open the progress in the user's home directory if not already open
+        if (progress == null)
+        {
+            try
+            {
+                progress = new ProgressStore(new File(System.getProperty("user.home")));
+            }
+            catch (Exception e)
+            {
+                //the game can be played without keeping progress
+                e.printStackTrace();
+            }
+        }
+        
         //get background image if not already stored
         if (background == null)
             background = engine.getResources().getGameImage(GameImages.Keys.Background);
         
         //play music
-        engine.getResources().playGameAudio(GameAudio.Keys.Music, true);
+        engine.getResources().playGameMusic(GameMusic.Keys.Music);
     }
     
     /**
@@ -86,6 +106,15 @@ public final class Manager implements IManager
     {
         return this.player;
     }
+    
+    /**
+     * Get the progress
+     * @return The levels solved and the best result of each, null if the progress can't be kept
+     */
+    public ProgressStore getProgress()
+    {
+        return this.progress;
+    }
             
     
     @Override
@@ -121,6 +150,12 @@ public final class Manager implements IManager
             player = null;
         }
         
+        if (progress != null)
+        {
+            progress.dispose();
+            progress = null;
+        }
+        
         try
         {
             //recycle objects
@@ -142,14 +177,27 @@ public final class Manager implements IManager
     {
         if (getLevels() != null)
         {
+            //object keeping track of the time spent
+            final Timings timings = engine.getMain().getTimings();
+            
+            long time = System.nanoTime();
+            
             //update the levels
             getLevels().update(engine);
             
+            timings.add(Timings.Key.LevelsUpdate, System.nanoTime() - time);
+            
             //if we are done loading the levels
             if (!getLevels().isLoading())
             {
                 if (getPlayer() != null)
+                {
+                    time = System.nanoTime();
+                    
                     getPlayer().update(engine);
+                    
+                    timings.add(Timings.Key.PlayerUpdate, System.nanoTime() - time);
+                }
             }
         }
         
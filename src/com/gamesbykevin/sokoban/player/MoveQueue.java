@@ -0,0 +1,95 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+/**
+ * The moves requested by the player that are waiting to be made.<br>
+ * Moves requested while objects are still moving are kept here, so they are made in order once the level has settled.
+ * @author GOD
+ */
+final class MoveQueue
+{
+    //the moves waiting, used as a ring
+    private final Direction[] moves;
+    
+    //the time the key was pressed for each move waiting (nanoseconds)
+    private final long[] times;
+    
+    //the index of the oldest move
+    private int head = 0;
+    
+    //the number of moves waiting
+    private int size = 0;
+    
+    /**
+     * Create the queue
+     * @param capacity The most moves that can wait, any more are ignored
+     */
+    protected MoveQueue(final int capacity)
+    {
+        this.moves = new Direction[capacity];
+        this.times = new long[capacity];
+    }
+    
+    /**
+     * Add the move to the end of the queue
+     * @param direction The direction requested
+     * @param time The time the key was pressed (nanoseconds)
+     * @return true if the move was added, false if the queue is full
+     */
+    protected boolean add(final Direction direction, final long time)
+    {
+        if (size == moves.length)
+            return false;
+        
+        moves[(head + size) % moves.length] = direction;
+        times[(head + size) % moves.length] = time;
+        size++;
+        
+        return true;
+    }
+    
+    /**
+     * Get the time the key was pressed for the oldest move
+     * @return The time the key was pressed (nanoseconds), 0 if there are no moves waiting
+     */
+    protected long getTime()
+    {
+        return isEmpty() ? 0 : times[head];
+    }
+    
+    /**
+     * Remove the oldest move
+     * @return The direction of the oldest move, null if there are no moves waiting
+     */
+    protected Direction remove()
+    {
+        if (isEmpty())
+            return null;
+        
+        final Direction direction = moves[head];
+        
+        head = (head + 1) % moves.length;
+        size--;
+        
+        return direction;
+    }
+    
+    /**
+     * Are there any moves waiting
+     * @return true if there are no moves waiting, false otherwise
+     */
+    protected boolean isEmpty()
+    {
+        return (size == 0);
+    }
+    
+    /**
+     * Remove all moves waiting
+     */
+    protected void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+}
\ No newline at end of file
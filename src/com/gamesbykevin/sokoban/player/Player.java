@@ -2,17 +2,28 @@ package com.gamesbykevin.sokoban.player;
 
 import com.gamesbykevin.framework.base.Cell;
 import com.gamesbykevin.framework.input.Keyboard;
+import com.gamesbykevin.framework.input.Mouse;
 import com.gamesbykevin.framework.resources.Disposable;
 import com.gamesbykevin.framework.util.Timer;
 import com.gamesbykevin.framework.util.Timers;
 
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Journal;
+import com.gamesbykevin.sokoban.board.Reachability;
+import com.gamesbykevin.sokoban.board.Snapshot;
 import com.gamesbykevin.sokoban.engine.Engine;
+import com.gamesbykevin.sokoban.engine.InputQueue;
+import com.gamesbykevin.sokoban.engine.Latency;
+import com.gamesbykevin.sokoban.level.Direction;
 import com.gamesbykevin.sokoban.level.Level;
 import com.gamesbykevin.sokoban.level.Levels;
 import com.gamesbykevin.sokoban.level.object.Character;
 import com.gamesbykevin.sokoban.level.object.LevelObject;
+import com.gamesbykevin.sokoban.progress.ProgressStore;
+import com.gamesbykevin.sokoban.replay.ReplayWriter;
 import com.gamesbykevin.sokoban.resources.GameAudio;
 import com.gamesbykevin.sokoban.resources.GameImages.Keys;
+import com.gamesbykevin.sokoban.shared.Events;
 import com.gamesbykevin.sokoban.shared.IElement;
 import com.gamesbykevin.sokoban.shared.Shared;
 
@@ -23,6 +34,9 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The player who can interact with the game
@@ -40,6 +54,73 @@ public final class Player implements Disposable, IElement
     private static final int MOVE_SOUTH = KeyEvent.VK_DOWN;
     private static final int LEVEL_RESET = KeyEvent.VK_R;
     private static final int LEVEL_NEW = KeyEvent.VK_N;
+    private static final int TOGGLE_INSTANT = KeyEvent.VK_T;
+    private static final int MOVE_UNDO = KeyEvent.VK_Z;
+    private static final int MOVE_REDO = KeyEvent.VK_Y;
+    private static final int SLOT_SAVE = KeyEvent.VK_S;
+    private static final int SLOT_LOAD = KeyEvent.VK_L;
+    
+    //the key to choose the first slot, the following slots use the next keys
+    private static final int SLOT_FIRST = KeyEvent.VK_1;
+    
+    //the most moves that can wait while objects are moving
+    private static final int MOVE_QUEUE_SIZE = 4;
+    
+    //the moves requested that haven't been made yet
+    private final MoveQueue moves = new MoveQueue(MOVE_QUEUE_SIZE);
+    
+    //the most moves that can be undone
+    private static final int JOURNAL_SIZE = 65536;
+    
+    //the moves made in the current level, so they can be undone and redone
+    private final Journal journal = new Journal(JOURNAL_SIZE);
+    
+    //the folder each level played is recorded to, if not set nothing is recorded
+    private static final String REPLAY_DIRECTORY = System.getProperty("sokoban.replay.dir");
+    
+    //the replay of the current level, null if not recording
+    private ReplayWriter replay;
+    
+    //can a replay be recorded, a replay starts from the start of the level so not after a slot is loaded
+    private boolean recordable = true;
+    
+    //the name of the file in the user's home directory the save slots are kept in
+    private static final String SLOTS_FILE_NAME = "sokoban-slots.dat";
+    
+    //the save slots of every level
+    private final Slots slots = new Slots(new File(System.getProperty("user.home"), SLOTS_FILE_NAME));
+    
+    //the slot chosen to save and load
+    private int slot = 0;
+    
+    //the cell of each box, used when saving and loading a slot
+    private int[] boxCells = new int[0];
+    
+    //the most moves in a path made by clicking
+    private static final int PATH_SIZE = 2048;
+    
+    //finds the paths to the cell clicked
+    private final Reachability reachability = new Reachability();
+    
+    //the level and number of level changes the walls and boxes of the reachability were last set for
+    private Level reachLevel;
+    private int reachChanges;
+    
+    //the moves of the path being walked, and the next move of the path
+    private final Direction[] path = new Direction[PATH_SIZE];
+    private int pathLength = 0, pathIndex = 0;
+    
+    //the cell clicked, handled once the level has settled, -1 if nothing was clicked
+    private int clickCol = -1, clickRow = -1;
+    
+    //the cell of the box selected to be pushed, -1 if no box is selected
+    private int selected = -1;
+    
+    //the number of keys pressed when last checked, any key pressed stops walking the path
+    private long presses = 0;
+    
+    //where the selected box is drawn
+    private int selectedX, selectedY;
     
     //display the notification message for this time
     private static final long NOTIFICATION_DELAY = Timers.toNanoSeconds(5000L);
@@ -50,6 +131,27 @@ public final class Player implements Disposable, IElement
     //the number of moves in the current level
     private int count = 0;
     
+    //the number of moves in the current level that pushed a box
+    private int pushes = 0;
+    
+    //the direction the character faces
+    private Direction facing = Direction.SOUTH;
+    
+    //the time the current level was started (nanoseconds)
+    private long started = 0;
+    
+    //the number of updates the character size and location still need to be set, since the animation can change after a move
+    private int positioning = 0;
+    
+    //the longest character animation is 3 frames, so the size can change for this many updates after a move
+    private static final int POSITION_UPDATES = Shared.DEFAULT_UPS / 2;
+    
+    //the digits of the move count, so the count can be drawn without creating a String
+    private final char[] digits = new char[11];
+    
+    //the graphics object used to draw the move count, kept so it isn't created every move
+    private Graphics2D countGraphics;
+    
     //the image we render the total number of moves
     private BufferedImage countImage;
     
@@ -119,11 +221,38 @@ public final class Player implements Disposable, IElement
     {
         setCount(0);
         
+        this.pushes = 0;
+        
+        //the character faces south at the start
+        this.facing = Direction.SOUTH;
+        
         //reset notification display timer
         this.timer.reset();
         
         //flag victory false
         this.victory = false;
+        
+        //forget any moves waiting
+        this.moves.clear();
+        
+        //forget the moves made
+        this.journal.clear();
+        
+        //stop walking any path
+        this.pathLength = 0;
+        this.selected = -1;
+        this.clickCol = -1;
+        this.clickRow = -1;
+        
+        //the replay of the level is finished, a new one starts with the next move
+        this.closeReplay();
+        this.recordable = true;
+        
+        //the level starts now
+        this.started = System.nanoTime();
+        
+        //the character will be at a new location
+        this.positioning = POSITION_UPDATES;
     }
     
     /**
@@ -160,15 +289,100 @@ public final class Player implements Disposable, IElement
         this.resetCount();
     }
     
+    /**
+     * Start recording the level if replays are recorded.<br>
+     * If the replay can't be created the game continues without it.
+     * @param id The id of the level
+     */
+    private void openReplay(final int id)
+    {
+        if (REPLAY_DIRECTORY == null || replay != null || !recordable)
+            return;
+        
+        FileOutputStream output = null;
+        
+        try
+        {
+            final File directory = new File(REPLAY_DIRECTORY);
+            
+            if (!directory.isDirectory() && !directory.mkdirs())
+                throw new Exception("Replay folder can't be created " + directory);
+            
+            final long time = System.currentTimeMillis();
+            
+            output = new FileOutputStream(new File(directory, "level-" + id + "-" + time + ".rpl"));
+            
+            this.replay = new ReplayWriter(output, id, time);
+        }
+        catch (Exception e)
+        {
+            if (output != null)
+            {
+                try
+                {
+                    output.close();
+                }
+                catch (Exception ex)
+                {
+                    //the error creating the replay is the one reported
+                }
+            }
+            
+            dropReplay(e);
+        }
+    }
+    
+    /**
+     * Stop recording the level after the replay couldn't be written, the game continues without it
+     * @param e The error writing the replay
+     */
+    private void dropReplay(final Exception e)
+    {
+        e.printStackTrace();
+        
+        closeReplay();
+        
+        //the replay would be missing moves, nothing is recorded until the level starts again
+        recordable = false;
+    }
+    
+    /**
+     * Stop recording the level
+     */
+    private void closeReplay()
+    {
+        if (replay != null)
+        {
+            try
+            {
+                replay.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+            
+            replay = null;
+        }
+    }
+    
     @Override
     public void dispose()
     {
+        closeReplay();
+        
         if (character != null)
         {
             character.dispose();
             character = null;
         }
         
+        if (countGraphics != null)
+        {
+            countGraphics.dispose();
+            countGraphics = null;
+        }
+        
         if (countImage != null)
         {
             countImage.flush();
@@ -202,11 +416,16 @@ public final class Player implements Disposable, IElement
             //get graphics object to write image
             Graphics2D g2d = this.notificationImage.createGraphics();
             g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, Shared.ORIGINAL_WIDTH, IMAGE_HEIGHT * 3);
+            g2d.fillRect(0, 0, Shared.ORIGINAL_WIDTH, IMAGE_HEIGHT * 7);
             g2d.setColor(Color.WHITE);
             g2d.drawString("Press 'R' to reset the current level.", (OFFSET_X * 5), IMAGE_HEIGHT - OFFSET_Y);
             g2d.drawString("Press 'N' to choose a random new level.", (OFFSET_X * 5), (IMAGE_HEIGHT * 2) - OFFSET_Y);
-            g2d.drawString("Press 'Esc' to access the menu.", (OFFSET_X * 5), (IMAGE_HEIGHT * 3) - OFFSET_Y);
+            g2d.drawString("Press 'Z' to undo a move, 'Y' to redo.", (OFFSET_X * 5), (IMAGE_HEIGHT * 3) - OFFSET_Y);
+            g2d.drawString("Press 'T' to turn instant moves on/off.", (OFFSET_X * 5), (IMAGE_HEIGHT * 4) - OFFSET_Y);
+            g2d.drawString("Click to walk, click a box then a cell to push.", (OFFSET_X * 5), (IMAGE_HEIGHT * 5) - OFFSET_Y);
+            g2d.drawString("Press 1-4 to pick a slot, 'S' to save, 'L' to load.", (OFFSET_X * 5), (IMAGE_HEIGHT * 6) - OFFSET_Y);
+            g2d.drawString("Press 'Esc' to access the menu.", (OFFSET_X * 5), (IMAGE_HEIGHT * 7) - OFFSET_Y);
+            g2d.dispose();
         }
     }
     
@@ -217,12 +436,25 @@ public final class Player implements Disposable, IElement
     {
         if (countImage != null)
         {
-            //get graphics object to write image
-            Graphics2D g2d = this.countImage.createGraphics();
-            g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, IMAGE_WIDTH, IMAGE_HEIGHT);
-            g2d.setColor(Color.WHITE);
-            g2d.drawString("" + getCount(), OFFSET_X, IMAGE_HEIGHT - OFFSET_Y);
+            //get graphics object to write image, this is only created once
+            if (countGraphics == null)
+                countGraphics = this.countImage.createGraphics();
+            
+            //write the digits of the count from the end of the array
+            int index = digits.length;
+            int value = getCount();
+            
+            do
+            {
+                digits[--index] = (char)('0' + (value % 10));
+                value /= 10;
+            }
+            while (value > 0);
+            
+            countGraphics.setColor(Color.BLACK);
+            countGraphics.fillRect(0, 0, IMAGE_WIDTH, IMAGE_HEIGHT);
+            countGraphics.setColor(Color.WHITE);
+            countGraphics.drawChars(digits, index, digits.length - index, OFFSET_X, IMAGE_HEIGHT - OFFSET_Y);
         }
     }
     
@@ -239,10 +471,15 @@ public final class Player implements Disposable, IElement
             g2d.fillRect(0, 0, Shared.ORIGINAL_WIDTH, IMAGE_HEIGHT);
             g2d.setColor(Color.WHITE);
             g2d.drawString("Congratulations You Win!!", (OFFSET_X * 5), IMAGE_HEIGHT - OFFSET_Y);
+            g2d.dispose();
         }
     }
     
-    private void renderImages(final Rectangle screen)
+    /**
+     * Create the images drawn over the level, if not already created
+     * @param screen The window where the level is drawn
+     */
+    protected void renderImages(final Rectangle screen)
     {
         if (this.countImage == null)
         {
@@ -277,7 +514,7 @@ public final class Player implements Disposable, IElement
         if (this.notificationImage == null)
         {
             //create notification image
-            this.notificationImage = new BufferedImage(Shared.ORIGINAL_WIDTH, IMAGE_HEIGHT * 3, BufferedImage.TYPE_INT_ARGB);
+            this.notificationImage = new BufferedImage(Shared.ORIGINAL_WIDTH, IMAGE_HEIGHT * 7, BufferedImage.TYPE_INT_ARGB);
             
             //the place to draw our notification image
             this.locationNotification = new Point(
@@ -311,52 +548,163 @@ public final class Player implements Disposable, IElement
             
             //play victory sound effect
             engine.getResources().playGameAudio(GameAudio.Keys.Win);
+            
+            Events.record(Events.Type.LevelComplete, started, System.nanoTime() - started, null, engine.getManager().getLevels().getId(), getCount(), 0);
+            
+            final ProgressStore progress = engine.getManager().getProgress();
+            
+            try
+            {
+                //keep the level solved, and the result if it is the best
+                if (progress != null)
+                    progress.setSolved(engine.getManager().getLevels().getId(), getCount(), pushes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+            catch (Exception e)
+            {
+                //the game continues without keeping the progress
+                e.printStackTrace();
+            }
+            
+            //the replay is complete
+            closeReplay();
         }
         
         //create, draw images as needed
         renderImages(engine.getManager().getWindow());
         
+        if (getCharacter().getImage() == null)
+            getCharacter().setImage(engine.getResources().getGameImage(Keys.SpriteSheet));
+        
+        update(engine.getManager().getLevels(), engine.getKeyboard(), engine.getMouse(), engine.getInput(), engine.getLatency(), engine.getMain().getTime());
+    }
+    
+    /**
+     * Move the character and check the input, this doesn't need the engine so it can be done without a game window
+     * @param levels Object containing all the levels
+     * @param keyboard Object containing human keyboard input
+     * @param mouse Object containing human mouse input
+     * @param input The queue of input events, used to count the keys pressed
+     * @param latency Object timing each move
+     * @param time The time of each update (nanoseconds)
+     * @throws Exception if there is an issue moving an object
+     */
+    protected void update(final Levels levels, final Keyboard keyboard, final Mouse mouse, final InputQueue input, final Latency latency, final long time) throws Exception
+    {
+        //get the current level
+        final Level level = levels.getLevel();
+        
         //update timer if not complete and we haven't solved level
         if (!timer.hasTimePassed() && !victory)
-            timer.update(engine.getMain().getTime());
+            timer.update(time);
         
-        if (getCharacter().getImage() == null)
-            getCharacter().setImage(engine.getResources().getGameImage(Keys.SpriteSheet));
-
-        //set the height to half of the original
-        getCharacter().setDimensions();
-        getCharacter().setWidth(getCharacter().getWidth() / 2);
-        getCharacter().setHeight(getCharacter().getHeight() / 2);
+        //the size and location only change while the character is moving, and shortly after
+        if (!getCharacter().hasDestination())
+            positioning = POSITION_UPDATES;
+        
+        if (positioning > 0)
+        {
+            positioning--;
+            
+            //set the height to half of the original
+            getCharacter().setDimensions();
+            getCharacter().setWidth(getCharacter().getWidth() / 2);
+            getCharacter().setHeight(getCharacter().getHeight() / 2);
 
-        //set coordinates based on col, row location
-        getCharacter().setX(level.getStartX(getCharacter()) + (Level.DEFAULT_DIMENSION / 2) - (getCharacter().getWidth() / 2));
-        getCharacter().setY(level.getStartY(getCharacter()) + (Level.DEFAULT_DIMENSION / 2) - (getCharacter().getHeight() / 2));
+            //set coordinates based on col, row location
+            getCharacter().setX(level.getStartX(getCharacter()) + (Level.DEFAULT_DIMENSION / 2) - (getCharacter().getWidth() / 2));
+            getCharacter().setY(level.getStartY(getCharacter()) + (Level.DEFAULT_DIMENSION / 2) - (getCharacter().getHeight() / 2));
+        }
 
+        //the location before the update
+        final double col = getCharacter().getCol();
+        final double row = getCharacter().getRow();
+        
         //update character animation, etc....
-        getCharacter().update(engine);
+        getCharacter().update(time);
+        
+        //if the character moved, the move being timed is now in progress
+        if (col != getCharacter().getCol() || row != getCharacter().getRow())
+            latency.setMoved();
+        
+        //the character can only be moved once it is at its destination and all other objects are
+        final boolean settled = getCharacter().hasDestination() && !level.hasMobileObjects();
+        
+        //remember the cell clicked, it is handled once the level has settled
+        checkMouse(mouse, level);
         
-        //if the character is at their destination and all other objects are, the character can be moved
-        if (getCharacter().hasDestination() && !level.hasMobileObjects())
-            checkInput(engine.getKeyboard(), engine.getManager().getLevels());
+        //check input every update, so moves made during an animation aren't lost
+        checkInput(keyboard, input, latency, levels, settled);
+    }
+    
+    /**
+     * Remember the cell clicked
+     * @param mouse Object containing human mouse input
+     * @param level The current level
+     */
+    private void checkMouse(final Mouse mouse, final Level level)
+    {
+        if (mouse.isMouseReleased() && mouse.getLocation() != null)
+        {
+            clickCol = level.getCol(mouse.getLocation().x);
+            clickRow = level.getRow(mouse.getLocation().y);
+        }
     }
     
     /**
      * Check human input to change the board
      * @param keyboard Object containing human keyboard input
+     * @param input The queue of input events, used to count the keys pressed
+     * @param latency Object timing each move
      * @param levels Object containing all the levels
+     * @param settled Is everything in the level at its destination
      */
-    private void checkInput(final Keyboard keyboard, final Levels levels) throws Exception
+    private void checkInput(final Keyboard keyboard, final InputQueue input, final Latency latency, final Levels levels, final boolean settled) throws Exception
     {
+        //any key stops walking the path clicked
+        if (input.getKeyPresses() != presses)
+        {
+            presses = input.getKeyPresses();
+            pathLength = 0;
+            selected = -1;
+        }
+        
+        //record the moves requested, they will be made in order once the level has settled
+        checkMove(keyboard, latency, MOVE_WEST, Direction.WEST);
+        checkMove(keyboard, latency, MOVE_EAST, Direction.EAST);
+        checkMove(keyboard, latency, MOVE_NORTH, Direction.NORTH);
+        checkMove(keyboard, latency, MOVE_SOUTH, Direction.SOUTH);
+        
+        if (keyboard.hasKeyReleased(TOGGLE_INSTANT))
+        {
+            //turn the move animation on/off
+            Shared.INSTANT_MOVES = !Shared.INSTANT_MOVES;
+            
+            //remove key released
+            keyboard.removeKeyReleased(TOGGLE_INSTANT);
+        }
+        
+        for (int i = 0; i < Slots.SLOTS; i++)
+        {
+            if (keyboard.hasKeyReleased(SLOT_FIRST + i))
+            {
+                //choose the slot to save and load
+                slot = i;
+                
+                //remove key released
+                keyboard.removeKeyReleased(SLOT_FIRST + i);
+            }
+        }
+        
+        //nothing can change while objects are moving
+        if (!settled)
+            return;
+        
         //get the current level
         Level level = levels.getLevel();
         
         //has the level been completed
         final boolean completed = level.hasCompleted();
         
-        //objects we will need to check to determine movement
-        final LevelObject object1;
-        final LevelObject object2;
-
         if (keyboard.hasKeyReleased(LEVEL_RESET) && !completed)
         {
             //reset character
@@ -368,184 +716,485 @@ public final class Player implements Disposable, IElement
             //reset moves count
             this.resetCount();
             
+            Events.record(Events.Type.LevelStart, null, levels.getId(), 1);
+            
             //remove key pressed
             keyboard.removeKeyReleased(LEVEL_RESET);
         }
-        else if (keyboard.hasKeyReleased(LEVEL_NEW))
+        else if (keyboard.hasKeyReleased(MOVE_UNDO) && !completed)
         {
-            //set a new random level
-            levels.assignNewLevel();
+            //step back one move, any moves waiting are forgotten
+            moves.clear();
+            pathLength = 0;
             
-            //remove key pressed
-            keyboard.removeKeyReleased(LEVEL_NEW);
-        }
-        else if (keyboard.hasKeyPressed(MOVE_WEST) && !completed)
-        {
-            object1 = level.getPhysicalLevelObject((int)getCharacter().getCol() - 1, (int)getCharacter().getRow());
-
-            //if the object to the west does not exist or isn't a wall
-            if (object1 == null || !object1.isWall())
+            if (undo(level) && replay != null)
             {
-                //if the object is a box check the object 1 column over
-                if (object1 != null && object1.isBox())
+                try
                 {
-                    //check the object 2 columns over
-                    object2 = level.getPhysicalLevelObject((int)getCharacter().getCol() - 2, (int)getCharacter().getRow());
-
-                    //if the next object is not a box or wall, it is a valid move
-                    if (object2 == null || !object2.isBox() && !object2.isWall())
-                    {
-                        //move box over
-                        object1.getDestination().decreaseCol();
-
-                        //move character over
-                        getCharacter().getDestination().decreaseCol();
-                        
-                        //increase move count
-                        increaseCount();
-                    }
+                    replay.undo(System.currentTimeMillis());
                 }
-                else
+                catch (Exception e)
                 {
-                    //any other object should be good for us to move
-                    getCharacter().getDestination().decreaseCol();
-                    
-                    //increase move count
-                    increaseCount();
+                    dropReplay(e);
                 }
             }
-
-            //set the animation of the character
-            getCharacter().setAnimation(Character.WEST);
-
-            //remove key pressed
-            keyboard.removeKeyPressed(MOVE_WEST);
+            
+            //remove key released
+            keyboard.removeKeyReleased(MOVE_UNDO);
         }
-        else if (keyboard.hasKeyPressed(MOVE_EAST) && !completed)
+        else if (keyboard.hasKeyReleased(MOVE_REDO) && !completed)
         {
-            object1 = level.getPhysicalLevelObject((int)getCharacter().getCol() + 1, (int)getCharacter().getRow());
-
-            //if the object to the east does not exist or isn't a wall
-            if (object1 == null || !object1.isWall())
+            //make the move undone again
+            moves.clear();
+            pathLength = 0;
+            
+            if (redo(level) && replay != null)
             {
-                //if the object is a box check the object 1 column over
-                if (object1 != null && object1.isBox())
+                try
                 {
-                    //check the object 2 columns over
-                    object2 = level.getPhysicalLevelObject((int)getCharacter().getCol() + 2, (int)getCharacter().getRow());
-
-                    //if the next object is not a box or wall, it is a valid move
-                    if (object2 == null || !object2.isBox() && !object2.isWall())
-                    {
-                        //move box over
-                        object1.getDestination().increaseCol();
-
-                        //move character over
-                        getCharacter().getDestination().increaseCol();
-                        
-                        //increase move count
-                        increaseCount();
-                    }
+                    replay.redo(System.currentTimeMillis());
                 }
-                else
+                catch (Exception e)
                 {
-                    //any other object should be good for us to move
-                    getCharacter().getDestination().increaseCol();
-                    
-                    //increase move count
-                    increaseCount();
+                    dropReplay(e);
                 }
             }
-
-            //set the animation of the character
-            getCharacter().setAnimation(Character.EAST);
-
+            
+            //remove key released
+            keyboard.removeKeyReleased(MOVE_REDO);
+        }
+        else if (keyboard.hasKeyReleased(SLOT_SAVE) && !completed)
+        {
+            try
+            {
+                save(level, levels.getId());
+            }
+            catch (Exception e)
+            {
+                //the game continues without the slot
+                e.printStackTrace();
+            }
+            
+            //remove key released
+            keyboard.removeKeyReleased(SLOT_SAVE);
+        }
+        else if (keyboard.hasKeyReleased(SLOT_LOAD) && !completed)
+        {
+            try
+            {
+                final Snapshot snapshot = slots.get(levels.getId(), slot);
+                
+                //nothing happens if the slot is empty
+                if (snapshot != null)
+                    restore(level, snapshot);
+            }
+            catch (Exception e)
+            {
+                //the slot can't be loaded, the level is left as it was
+                e.printStackTrace();
+            }
+            
+            //remove key released
+            keyboard.removeKeyReleased(SLOT_LOAD);
+        }
+        else if (keyboard.hasKeyReleased(LEVEL_NEW))
+        {
+            //set a new random level
+            levels.assignNewLevel();
+            
             //remove key pressed
-            keyboard.removeKeyPressed(MOVE_EAST);
+            keyboard.removeKeyReleased(LEVEL_NEW);
         }
-        else if (keyboard.hasKeyPressed(MOVE_NORTH) && !completed)
+        else if (completed)
         {
-            object1 = level.getPhysicalLevelObject((int)getCharacter().getCol(), (int)getCharacter().getRow() - 1);
-
-            //if the object to the north does not exist or isn't a wall
-            if (object1 == null || !object1.isWall())
+            //there is nothing left to move
+            moves.clear();
+            pathLength = 0;
+            selected = -1;
+        }
+        else if (!moves.isEmpty())
+        {
+            //start timing the move, if the character doesn't move the time is replaced by the next move
+            latency.setMade(moves.getTime());
+            
+            //make the oldest move
+            play(level, levels, moves.remove());
+        }
+        else if (clickCol >= 0 && clickRow >= 0)
+        {
+            click(level, clickCol, clickRow);
+            
+            clickCol = -1;
+            clickRow = -1;
+        }
+        else if (pathIndex < pathLength)
+        {
+            //take the next step of the path, if it was blocked the rest of the path is forgotten
+            if (play(level, levels, path[pathIndex++]) == Board.BLOCKED)
+                pathLength = 0;
+        }
+    }
+    
+    /**
+     * Make a move and record it so it can be undone
+     * @param level The current level
+     * @param levels Object containing all the levels
+     * @param direction The direction we want to move
+     * @return Board.BLOCKED if the character can't move, Board.PUSHED if a box was pushed, Board.MOVED otherwise
+     * @throws Exception if there is an issue moving an object
+     */
+    private int play(final Level level, final Levels levels, final Direction direction) throws Exception
+    {
+        final int result = move(level, direction);
+        
+        //record the move so it can be undone
+        if (result != Board.BLOCKED)
+        {
+            journal.add(direction, result == Board.PUSHED);
+            
+            //the replay starts with the first move of the level
+            openReplay(levels.getId());
+            
+            if (replay != null)
             {
-                //if the object is a box check the object 1 row over
-                if (object1 != null && object1.isBox())
+                try
                 {
-                    //check the object 2 rows over
-                    object2 = level.getPhysicalLevelObject((int)getCharacter().getCol(), (int)getCharacter().getRow() - 2);
-
-                    //if the next object is not a box or wall, it is a valid move
-                    if (object2 == null || !object2.isBox() && !object2.isWall())
-                    {
-                        //move box over
-                        object1.getDestination().decreaseRow();
-
-                        //move character over
-                        getCharacter().getDestination().decreaseRow();
-                        
-                        //increase move count
-                        increaseCount();
-                    }
+                    replay.move(direction, result == Board.PUSHED, System.currentTimeMillis());
                 }
-                else
+                catch (Exception e)
                 {
-                    //any other object should be good for us to move
-                    getCharacter().getDestination().decreaseRow();
-                    
-                    //increase move count
-                    increaseCount();
+                    dropReplay(e);
                 }
             }
-
-            //set the animation of the character
-            getCharacter().setAnimation(Character.NORTH);
-
-            //remove key pressed
-            keyboard.removeKeyPressed(MOVE_NORTH);
         }
-        else if (keyboard.hasKeyPressed(MOVE_SOUTH) && !completed)
+        
+        return result;
+    }
+    
+    /**
+     * Handle a click on the level.<br>
+     * Clicking a box selects it, clicking a cell then walks there, or pushes the selected box there.
+     * @param level The current level
+     * @param col Column clicked
+     * @param row Row clicked
+     */
+    private void click(final Level level, final int col, final int row)
+    {
+        final int cell = (row * level.getColumns()) + col;
+        final int player = ((int)getCharacter().getRow() * level.getColumns()) + (int)getCharacter().getCol();
+        
+        final LevelObject object = level.getPhysicalLevelObject(col, row);
+        
+        //walls can't be clicked
+        if (object != null && object.isWall())
+            return;
+        
+        //stop walking the current path
+        pathLength = 0;
+        pathIndex = 0;
+        
+        if (object != null)
+        {
+            //select the box, or unselect it if it was already selected
+            selected = (selected == cell) ? -1 : cell;
+            selectedX = (int)level.getStartX(col);
+            selectedY = (int)level.getStartY(row);
+            return;
+        }
+        
+        updateReachability(level);
+        
+        if (selected >= 0)
+        {
+            pathLength = reachability.getPushPath(player, selected, cell, path);
+            selected = -1;
+        }
+        else
         {
-            object1 = level.getPhysicalLevelObject((int)getCharacter().getCol(), (int)getCharacter().getRow() + 1);
-
-            //if the object to the south does not exist or isn't a wall
-            if (object1 == null || !object1.isWall())
+            pathLength = reachability.getPath(player, cell, path);
+        }
+        
+        //the cell can't be reached
+        if (pathLength < 0)
+            pathLength = 0;
+    }
+    
+    /**
+     * Set the walls and boxes of the reachability, only if the level or its boxes changed
+     * @param level The current level
+     */
+    private void updateReachability(final Level level)
+    {
+        if (level == reachLevel && level.getChanges() == reachChanges)
+            return;
+        
+        //the walls only change with the level
+        if (level != reachLevel)
+        {
+            reachability.reset(level.getColumns(), level.getRows());
+            
+            for (int row = 0; row < level.getRows(); row++)
             {
-                //if the object is a box check the object 1 row over
-                if (object1 != null && object1.isBox())
+                for (int col = 0; col < level.getColumns(); col++)
                 {
-                    //check the object 2 rows over
-                    object2 = level.getPhysicalLevelObject((int)getCharacter().getCol(), (int)getCharacter().getRow() + 2);
-
-                    //if the next object is not a box or wall, it is a valid move
-                    if (object2 == null || !object2.isBox() && !object2.isWall())
-                    {
-                        //move box over
-                        object1.getDestination().increaseRow();
-
-                        //move character over
-                        getCharacter().getDestination().increaseRow();
-                        
-                        //increase move count
-                        increaseCount();
-                    }
-                }
-                else
-                {
-                    //any other object should be good for us to move
-                    getCharacter().getDestination().increaseRow();
+                    final LevelObject object = level.getPhysicalLevelObject(col, row);
                     
-                    //increase move count
-                    increaseCount();
+                    reachability.setWall((row * level.getColumns()) + col, object != null && object.isWall());
                 }
             }
-
-            //set the animation of the character
-            getCharacter().setAnimation(Character.SOUTH);
-
+        }
+        
+        for (int row = 0; row < level.getRows(); row++)
+        {
+            for (int col = 0; col < level.getColumns(); col++)
+            {
+                final LevelObject object = level.getPhysicalLevelObject(col, row);
+                
+                reachability.setBox((row * level.getColumns()) + col, object != null && object.isBox());
+            }
+        }
+        
+        reachLevel = level;
+        reachChanges = level.getChanges();
+    }
+    
+    /**
+     * Add the move to the queue if the key was pressed
+     * @param keyboard Object containing human keyboard input
+     * @param latency Object containing the time each key was pressed
+     * @param key The key for this move
+     * @param direction The direction of this move
+     */
+    private void checkMove(final Keyboard keyboard, final Latency latency, final int key, final Direction direction)
+    {
+        if (keyboard.hasKeyPressed(key))
+        {
+            //if the queue is full the move is ignored
+            moves.add(direction, latency.getPressed(key));
+            
             //remove key pressed
-            keyboard.removeKeyPressed(MOVE_SOUTH);
+            keyboard.removeKeyPressed(key);
+        }
+    }
+    
+    /**
+     * Move the character in the direction, pushing a box if one is in the way
+     * @param level The current level
+     * @param direction The direction we want to move
+     * @return Board.BLOCKED if the character can't move, Board.PUSHED if a box was pushed, Board.MOVED otherwise
+     * @throws Exception if there is an issue moving an object
+     */
+    private int move(final Level level, final Direction direction) throws Exception
+    {
+        int result = Board.BLOCKED;
+        
+        //the current location of the character
+        final int col = (int)getCharacter().getCol();
+        final int row = (int)getCharacter().getRow();
+        
+        //make sure nothing is in the way
+        if (level.canMove(col, row, direction))
+        {
+            //the object next to the character
+            final LevelObject object1 = level.getPhysicalLevelObject(col + direction.getCol(), row + direction.getRow());
+            
+            //if the object is a box, push it over
+            if (object1 != null)
+                level.setDestination(object1, col + (direction.getCol() * 2), row + (direction.getRow() * 2));
+            
+            //move character over
+            getCharacter().setDestination(col + direction.getCol(), row + direction.getRow());
+            
+            //increase move count
+            increaseCount();
+            
+            if (object1 != null)
+                pushes++;
+            
+            result = (object1 != null) ? Board.PUSHED : Board.MOVED;
+        }
+        
+        setAnimation(direction);
+        
+        return result;
+    }
+    
+    /**
+     * Reverse the last move made, pulling back the box if one was pushed
+     * @param level The current level
+     * @return true if a move was undone, false if there was nothing to undo
+     * @throws Exception if there is an issue moving an object
+     */
+    private boolean undo(final Level level) throws Exception
+    {
+        final int move = journal.undo();
+        
+        //there is nothing to undo
+        if (move == Journal.NONE)
+            return false;
+        
+        final Direction direction = Journal.getDirection(move);
+        
+        //the current location of the character
+        final int col = (int)getCharacter().getCol();
+        final int row = (int)getCharacter().getRow();
+        
+        //pull the box back into the cell the character is leaving
+        if (Journal.isPushed(move))
+        {
+            level.setDestination(level.getPhysicalLevelObject(col + direction.getCol(), row + direction.getRow()), col, row);
+            pushes--;
+        }
+        
+        //move character back
+        getCharacter().setDestination(col - direction.getCol(), row - direction.getRow());
+        
+        //the move no longer counts
+        setCount(getCount() - 1);
+        
+        //keep facing the same way
+        setAnimation(direction);
+        
+        return true;
+    }
+    
+    /**
+     * Make the last move undone again, only if it can be made the same way it was recorded
+     * @param level The current level
+     * @return true if a move was redone, false if there was nothing to redo or the move doesn't match the level
+     * @throws Exception if there is an issue moving an object
+     */
+    private boolean redo(final Level level) throws Exception
+    {
+        final int move = journal.redo();
+        
+        //there is nothing to redo
+        if (move == Journal.NONE)
+            return false;
+        
+        final Direction direction = Journal.getDirection(move);
+        
+        //the current location of the character
+        final int col = (int)getCharacter().getCol();
+        final int row = (int)getCharacter().getRow();
+        
+        //the move has to be possible, and push only when the journal says it did
+        if (!level.canMove(col, row, direction) || (level.getPhysicalLevelObject(col + direction.getCol(), row + direction.getRow()) != null) != Journal.isPushed(move))
+        {
+            //the journal goes back to where it was
+            journal.undo();
+            return false;
+        }
+        
+        move(level, direction);
+        
+        return true;
+    }
+    
+    /**
+     * Save the level as it is now in the slot chosen
+     * @param level The current level
+     * @param id The id of the level
+     * @throws Exception if the slot can't be saved
+     */
+    private void save(final Level level, final int id) throws Exception
+    {
+        if (boxCells.length < level.getBoxCount())
+            boxCells = new int[level.getBoxCount()];
+        
+        for (int i = 0; i < level.getBoxCount(); i++)
+        {
+            boxCells[i] = level.getBoxCell(i);
+        }
+        
+        final int player = ((int)getCharacter().getRow() * level.getColumns()) + (int)getCharacter().getCol();
+        
+        slots.set(slot, new Snapshot(id, player, facing, getCount(), pushes, boxCells, level.getBoxCount()));
+    }
+    
+    /**
+     * Place the boxes and character where they were when the snapshot was saved.<br>
+     * The level is not reset, only the boxes and character are placed, so this is quick for any level.
+     * @param level The current level
+     * @param snapshot The snapshot of the current level
+     * @throws Exception if the snapshot doesn't fit the level
+     */
+    private void restore(final Level level, final Snapshot snapshot) throws Exception
+    {
+        final int col = snapshot.getPlayer() % level.getColumns();
+        final int row = snapshot.getPlayer() / level.getColumns();
+        
+        if (row >= level.getRows() || level.getPhysicalLevelObject(col, row) != null && level.getPhysicalLevelObject(col, row).isWall())
+            throw new Exception("The character can't be placed at " + col + ", " + row);
+        
+        if (boxCells.length < snapshot.getBoxCount())
+            boxCells = new int[snapshot.getBoxCount()];
+        
+        for (int i = 0; i < snapshot.getBoxCount(); i++)
+        {
+            if (snapshot.getBox(i) == snapshot.getPlayer())
+                throw new Exception("The character and a box can't be placed at " + col + ", " + row);
+            
+            boxCells[i] = snapshot.getBox(i);
+        }
+        
+        //place the boxes right away
+        level.setBoxes(boxCells, snapshot.getBoxCount());
+        
+        //place the character right away
+        getCharacter().setCol(col);
+        getCharacter().setRow(row);
+        getCharacter().setDestination(col, row);
+        
+        //forget any moves waiting, and the moves made before the snapshot
+        moves.clear();
+        journal.clear();
+        pathLength = 0;
+        selected = -1;
+        clickCol = -1;
+        clickRow = -1;
+        
+        //the replay can't follow the jump, nothing is recorded until the level starts again
+        closeReplay();
+        recordable = false;
+        
+        this.pushes = snapshot.getPushes();
+        setCount(snapshot.getMoves());
+        
+        //the size and location of the character are set again here as well
+        setAnimation((snapshot.getFacing() != null) ? snapshot.getFacing() : Direction.SOUTH);
+    }
+    
+    /**
+     * Face the character in the direction
+     * @param direction The direction the character is facing
+     * @throws Exception if the animation can't be set
+     */
+    private void setAnimation(final Direction direction) throws Exception
+    {
+        //the animation may change the size of the character
+        positioning = POSITION_UPDATES;
+        
+        this.facing = direction;
+        
+        //set the animation of the character
+        switch (direction)
+        {
+            case WEST:
+                getCharacter().setAnimation(Character.WEST);
+                break;
+            
+            case EAST:
+                getCharacter().setAnimation(Character.EAST);
+                break;
+            
+            case NORTH:
+                getCharacter().setAnimation(Character.NORTH);
+                break;
+            
+            case SOUTH:
+                getCharacter().setAnimation(Character.SOUTH);
+                break;
         }
     }
     
@@ -556,6 +1205,13 @@ public final class Player implements Disposable, IElement
         if (getCharacter() != null)
             getCharacter().render(graphics, getCharacter().getImage());
         
+        //outline the box selected to be pushed
+        if (selected >= 0)
+        {
+            graphics.setColor(Color.YELLOW);
+            graphics.drawRect(selectedX, selectedY, Level.DEFAULT_DIMENSION - 1, Level.DEFAULT_DIMENSION - 1);
+        }
+        
         //draw player moves count
         if (countImage != null)
             graphics.drawImage(countImage, locationCount.x, locationCount.y, null);
@@ -0,0 +1,220 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.sokoban.board.Snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The save slots of every level, kept in a file so they are available the next time the game is played.<br>
+ * The whole file is small, so it is read once when first needed and written again every time a slot is saved.
+ * A file that can't be read is never replaced, it is moved aside first so the slots in it aren't lost.
+ * @author GOD
+ */
+final class Slots
+{
+    //the number of slots for each level
+    protected static final int SLOTS = 4;
+    
+    //identifies the file
+    private static final byte[] MAGIC = { 'S', 'K', 'S', 'S' };
+    
+    //the version of the file
+    private static final int VERSION = 1;
+    
+    //added to the name of a file that can't be read when it is moved aside
+    private static final String BACKUP_SUFFIX = ".bad";
+    
+    //where the slots are kept
+    private final File file;
+    
+    //the slots of each level, by the index of the level
+    private final Map<Integer, Snapshot[]> slots = new HashMap<>();
+    
+    //have the slots been read from the file
+    private boolean loaded = false;
+    
+    /**
+     * Create the slots
+     * @param file Where the slots are kept
+     */
+    protected Slots(final File file)
+    {
+        this.file = file;
+    }
+    
+    /**
+     * Get the snapshot saved
+     * @param level The index of the level
+     * @param slot The slot
+     * @return The snapshot saved in the slot, null if nothing was saved
+     * @throws Exception if the file can't be read
+     */
+    protected Snapshot get(final int level, final int slot) throws Exception
+    {
+        load();
+        
+        final Snapshot[] snapshots = slots.get(level);
+        
+        return (snapshots != null) ? snapshots[slot] : null;
+    }
+    
+    /**
+     * Save the snapshot in the slot, replacing what was there, then write the file
+     * @param slot The slot
+     * @param snapshot The snapshot we want to keep
+     * @throws Exception if the file can't be read or written
+     */
+    protected void set(final int slot, final Snapshot snapshot) throws Exception
+    {
+        load();
+        
+        Snapshot[] snapshots = slots.get(snapshot.getLevel());
+        
+        if (snapshots == null)
+        {
+            snapshots = new Snapshot[SLOTS];
+            slots.put(snapshot.getLevel(), snapshots);
+        }
+        
+        snapshots[slot] = snapshot;
+        
+        write();
+    }
+    
+    /**
+     * Read the slots from the file, this is only done once the file is read without error.<br>
+     * If the file can't be read it is moved aside, so the next slot saved doesn't replace it.
+     * @throws Exception if the file can't be read, or can't be moved aside
+     */
+    private void load() throws Exception
+    {
+        if (loaded)
+            return;
+        
+        //nothing has been saved yet
+        if (!file.isFile())
+        {
+            loaded = true;
+            return;
+        }
+        
+        //the slots read, only kept if the whole file is read
+        final Map<Integer, Snapshot[]> tmp = new HashMap<>();
+        
+        try
+        {
+            read(tmp);
+        }
+        catch (Exception e)
+        {
+            final File backup = new File(file.getPath() + BACKUP_SUFFIX);
+            
+            //if this fails the file stays where it is, and nothing is written until it can be read or moved
+            Files.move(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            
+            throw new Exception("Slots file can't be read, it was moved to " + backup, e);
+        }
+        
+        slots.putAll(tmp);
+        loaded = true;
+    }
+    
+    /**
+     * Read every slot in the file
+     * @param tmp Where the slots read are put, by the index of the level
+     * @throws Exception if the file can't be read, or is not valid
+     */
+    private void read(final Map<Integer, Snapshot[]> tmp) throws Exception
+    {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            final byte[] magic = new byte[MAGIC.length];
+            
+            input.readFully(magic);
+            
+            if (!Arrays.equals(magic, MAGIC))
+                throw new Exception("Not a slots file " + file);
+            
+            final int version = input.readUnsignedByte();
+            
+            if (version != VERSION)
+                throw new Exception("Slots file version not supported " + version);
+            
+            final int count = input.readInt();
+            
+            for (int i = 0; i < count; i++)
+            {
+                final int slot = input.readUnsignedByte();
+                
+                if (slot >= SLOTS)
+                    throw new Exception("Invalid slot " + slot);
+                
+                final Snapshot snapshot = Snapshot.read(input);
+                
+                Snapshot[] snapshots = tmp.get(snapshot.getLevel());
+                
+                if (snapshots == null)
+                {
+                    snapshots = new Snapshot[SLOTS];
+                    tmp.put(snapshot.getLevel(), snapshots);
+                }
+                
+                snapshots[slot] = snapshot;
+            }
+        }
+    }
+    
+    /**
+     * Write every slot to the file.<br>
+     * The slots are written to a new file first, so the old file is kept if writing fails.
+     * @throws Exception if the file can't be written
+     */
+    private void write() throws Exception
+    {
+        int count = 0;
+        
+        for (Snapshot[] snapshots : slots.values())
+        {
+            for (Snapshot snapshot : snapshots)
+            {
+                if (snapshot != null)
+                    count++;
+            }
+        }
+        
+        final File tmp = new File(file.getPath() + ".tmp");
+        
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+        {
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+            output.writeInt(count);
+            
+            for (Snapshot[] snapshots : slots.values())
+            {
+                for (int slot = 0; slot < SLOTS; slot++)
+                {
+                    if (snapshots[slot] == null)
+                        continue;
+                    
+                    output.writeByte(slot);
+                    snapshots[slot].write(output);
+                }
+            }
+        }
+        
+        //replace the old file in a single step, so there is always a complete file
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
\ No newline at end of file
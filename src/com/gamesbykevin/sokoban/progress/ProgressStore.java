@@ -0,0 +1,132 @@
+package com.gamesbykevin.sokoban.progress;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import java.io.File;
+
+/**
+ * The levels the player has solved, and the best result of each, kept between games.<br>
+ * The solved levels are a memory mapped bitmap, so they are available as soon as the store is created.
+ * The best results are a log that is only read the first time a result is needed.
+ * @author GOD
+ */
+public final class ProgressStore implements Disposable
+{
+    //the names of the files
+    private static final String SOLVED_FILE_NAME = "sokoban-solved.bin";
+    private static final String RECORDS_FILE_NAME = "sokoban-records.dat";
+    
+    //the folder the files are kept in
+    private final File directory;
+    
+    //the solved levels
+    private SolvedMap solved;
+    
+    //the best results, null until first needed
+    private RecordLog records;
+    
+    /**
+     * Open the store, creating the files if they don't exist
+     * @param directory The folder the files are kept in
+     * @throws Exception if the solved levels can't be opened
+     */
+    public ProgressStore(final File directory) throws Exception
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new Exception("Progress folder can't be created " + directory);
+        
+        this.directory = directory;
+        this.solved = new SolvedMap(new File(directory, SOLVED_FILE_NAME));
+    }
+    
+    /**
+     * Get the best results, reading them the first time
+     * @return The best results
+     * @throws Exception if the results can't be read
+     */
+    private RecordLog getRecords() throws Exception
+    {
+        if (records == null)
+            records = new RecordLog(new File(directory, RECORDS_FILE_NAME));
+        
+        return this.records;
+    }
+    
+    /**
+     * Is the level solved
+     * @param id The id of the level
+     * @return true if the level was solved, false otherwise
+     */
+    public boolean isSolved(final int id)
+    {
+        return solved.isSolved(id);
+    }
+    
+    /**
+     * Mark the level solved, keeping the result if it is the best
+     * @param id The id of the level
+     * @param moves The number of moves made
+     * @param pushes The number of pushes made
+     * @param time The time taken (milliseconds)
+     * @return true if the result is the best for the level, false otherwise
+     * @throws Exception if the progress can't be written
+     */
+    public boolean setSolved(final int id, final int moves, final int pushes, final long time) throws Exception
+    {
+        solved.setSolved(id);
+        
+        return getRecords().add(id, moves, pushes, time);
+    }
+    
+    /**
+     * Get the best moves
+     * @param id The id of the level
+     * @return The fewest moves the level was solved in, 0 if not solved
+     * @throws Exception if the results can't be read
+     */
+    public int getBestMoves(final int id) throws Exception
+    {
+        return getRecords().getMoves(id);
+    }
+    
+    /**
+     * Get the pushes of the best moves
+     * @param id The id of the level
+     * @return The pushes made in the fewest moves, 0 if not solved
+     * @throws Exception if the results can't be read
+     */
+    public int getBestPushes(final int id) throws Exception
+    {
+        return getRecords().getPushes(id);
+    }
+    
+    /**
+     * Get the best time
+     * @param id The id of the level
+     * @return The quickest the level was solved (milliseconds), 0 if not solved
+     * @throws Exception if the results can't be read
+     */
+    public long getBestTime(final int id) throws Exception
+    {
+        return getRecords().getTime(id);
+    }
+    
+    @Override
+    public void dispose()
+    {
+        try
+        {
+            if (solved != null)
+                solved.close();
+            if (records != null)
+                records.close();
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+        
+        solved = null;
+        records = null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.gamesbykevin.sokoban.progress;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * The best result of each level solved, kept as a log that is only ever added to.<br>
+ * Each record is a fixed 20 bytes (id, moves, pushes, time), and a record is only added when it beats the best.
+ * Once most of the records are beaten the log is compacted to a single record per level.
+ * @author GOD
+ */
+final class RecordLog implements Closeable
+{
+    //the size of each record in bytes
+    private static final int RECORD_SIZE = 20;
+    
+    //the log is never compacted while it has fewer records than this
+    private static final int COMPACT_MINIMUM = 1024;
+    
+    //where the records are kept
+    private final File file;
+    
+    //the best moves and pushes of each level by id, 0 moves if the level has no record
+    private int[] moves = new int[0], pushes = new int[0];
+    
+    //the best time of each level by id (milliseconds)
+    private long[] times = new long[0];
+    
+    //the number of levels with a record, and the number of records in the log
+    private int levels = 0, records = 0;
+    
+    //where new records are written
+    private DataOutputStream output;
+    
+    /**
+     * Open the log, reading every record
+     * @param file Where the records are kept
+     * @throws IOException if the log can't be read or opened
+     */
+    protected RecordLog(final File file) throws IOException
+    {
+        this.file = file;
+        
+        //was the last record only partly written
+        boolean partial = false;
+        
+        if (file.isFile())
+        {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+            {
+                final long count = file.length() / RECORD_SIZE;
+                
+                for (long i = 0; i < count; i++)
+                {
+                    final int id = input.readInt();
+                    final int moves = input.readInt();
+                    final int pushes = input.readInt();
+                    final long time = input.readLong();
+                    
+                    if (id < 0 || moves < 1)
+                        throw new IOException("Invalid record " + i + " in " + file);
+                    
+                    apply(id, moves, pushes, time);
+                }
+                
+                partial = (file.length() % RECORD_SIZE != 0);
+            }
+        }
+        
+        //a partial record is removed by compacting
+        if (partial || needsCompact())
+        {
+            compact();
+        }
+        else
+        {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        }
+    }
+    
+    /**
+     * Keep the record if it beats the best
+     * @param id The id of the level
+     * @param moves The number of moves
+     * @param pushes The number of pushes
+     * @param time The time taken (milliseconds)
+     */
+    private void apply(final int id, final int moves, final int pushes, final long time)
+    {
+        records++;
+        
+        //make room for the id
+        if (id >= this.moves.length)
+        {
+            final int capacity = Math.max(id + 1, this.moves.length * 2);
+            
+            this.moves = Arrays.copyOf(this.moves, capacity);
+            this.pushes = Arrays.copyOf(this.pushes, capacity);
+            this.times = Arrays.copyOf(this.times, capacity);
+        }
+        
+        if (this.moves[id] == 0)
+        {
+            levels++;
+            
+            this.moves[id] = moves;
+            this.pushes[id] = pushes;
+            this.times[id] = time;
+            return;
+        }
+        
+        //fewer moves is better, and for the same moves fewer pushes
+        if (moves < this.moves[id] || moves == this.moves[id] && pushes < this.pushes[id])
+        {
+            this.moves[id] = moves;
+            this.pushes[id] = pushes;
+        }
+        
+        if (time < this.times[id])
+            this.times[id] = time;
+    }
+    
+    /**
+     * Add the result, it is only written if it beats the best
+     * @param id The id of the level
+     * @param moves The number of moves
+     * @param pushes The number of pushes
+     * @param time The time taken (milliseconds)
+     * @return true if the result is a new best, false otherwise
+     * @throws IOException if the record can't be written
+     */
+    protected boolean add(final int id, final int moves, final int pushes, final long time) throws IOException
+    {
+        //a level can't be solved without moving
+        if (moves < 1 || id < 0)
+            return false;
+        
+        if (id < this.moves.length && this.moves[id] != 0 && !beats(id, moves, pushes, time))
+            return false;
+        
+        apply(id, moves, pushes, time);
+        
+        output.writeInt(id);
+        output.writeInt(moves);
+        output.writeInt(pushes);
+        output.writeLong(time);
+        output.flush();
+        
+        if (needsCompact())
+            compact();
+        
+        return true;
+    }
+    
+    /**
+     * Does the result beat the best of the level
+     * @param id The id of the level, it must have a record
+     * @param moves The number of moves
+     * @param pushes The number of pushes
+     * @param time The time taken (milliseconds)
+     * @return true if the moves or time beat the best, false otherwise
+     */
+    private boolean beats(final int id, final int moves, final int pushes, final long time)
+    {
+        return (moves < this.moves[id] || moves == this.moves[id] && pushes < this.pushes[id] || time < this.times[id]);
+    }
+    
+    /**
+     * Is the log large enough, compared to the levels, to be compacted
+     * @return true if most records have been beaten, false otherwise
+     */
+    private boolean needsCompact()
+    {
+        return (records >= COMPACT_MINIMUM && records > levels * 2);
+    }
+    
+    /**
+     * Replace the log with a single record per level.<br>
+     * The records are written to a new file first, so the old log is kept if writing fails.
+     * @throws IOException if the log can't be written
+     */
+    private void compact() throws IOException
+    {
+        if (output != null)
+        {
+            output.close();
+            output = null;
+        }
+        
+        final File tmp = new File(file.getPath() + ".tmp");
+        
+        try (DataOutputStream compacted = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+        {
+            for (int id = 0; id < moves.length; id++)
+            {
+                if (moves[id] == 0)
+                    continue;
+                
+                compacted.writeInt(id);
+                compacted.writeInt(moves[id]);
+                compacted.writeInt(pushes[id]);
+                compacted.writeLong(times[id]);
+            }
+        }
+        
+        //replace the old log in a single step, so there is always a complete log
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        records = levels;
+        
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+    
+    /**
+     * Get the best moves
+     * @param id The id of the level
+     * @return The fewest moves the level was solved in, 0 if it has no record
+     */
+    protected int getMoves(final int id)
+    {
+        return (id < moves.length) ? moves[id] : 0;
+    }
+    
+    /**
+     * Get the pushes of the best moves
+     * @param id The id of the level
+     * @return The pushes made in the fewest moves, 0 if the level has no record
+     */
+    protected int getPushes(final int id)
+    {
+        return (id < pushes.length) ? pushes[id] : 0;
+    }
+    
+    /**
+     * Get the best time
+     * @param id The id of the level
+     * @return The quickest the level was solved (milliseconds), 0 if it has no record
+     */
+    protected long getTime(final int id)
+    {
+        return (id < times.length) ? times[id] : 0;
+    }
+    
+    @Override
+    public void close() throws IOException
+    {
+        if (output != null)
+        {
+            output.close();
+            output = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.gamesbykevin.sokoban.progress;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * One bit for each level, set once the level is solved.<br>
+ * The file is memory mapped, so opening it reads nothing and setting a bit is a single write to memory.
+ * @author GOD
+ */
+final class SolvedMap implements Closeable
+{
+    //the file grows by this many bytes at a time (32768 levels)
+    private static final int GROWTH = 4096;
+    
+    //the open file
+    private final RandomAccessFile file;
+    
+    //the mapped bits
+    private MappedByteBuffer map;
+    
+    /**
+     * Open the bitmap, creating the file if it doesn't exist
+     * @param file Where the bitmap is kept
+     * @throws IOException if the file can't be opened
+     */
+    protected SolvedMap(final File file) throws IOException
+    {
+        this.file = new RandomAccessFile(file, "rw");
+        
+        map(this.file.length());
+    }
+    
+    /**
+     * Map the file, growing it to hold at least the number of bytes
+     * @param size The number of bytes needed
+     * @throws IOException if the file can't be mapped
+     */
+    private void map(final long size) throws IOException
+    {
+        //round up to the next step, the file is filled with zeros as it grows
+        final long bytes = Math.max(GROWTH, ((size + GROWTH - 1) / GROWTH) * GROWTH);
+        
+        this.map = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    }
+    
+    /**
+     * Is the level solved
+     * @param id The id of the level
+     * @return true if the level was solved, false otherwise
+     */
+    protected boolean isSolved(final int id)
+    {
+        final int index = id >>> 3;
+        
+        if (index >= map.capacity())
+            return false;
+        
+        return ((map.get(index) & (1 << (id & 7))) != 0);
+    }
+    
+    /**
+     * Mark the level solved
+     * @param id The id of the level
+     * @return true if the level was not solved before, false otherwise
+     * @throws IOException if the file needs to grow and can't
+     */
+    protected boolean setSolved(final int id) throws IOException
+    {
+        if (isSolved(id))
+            return false;
+        
+        final int index = id >>> 3;
+        
+        if (index >= map.capacity())
+            map(index + 1);
+        
+        map.put(index, (byte)(map.get(index) | (1 << (id & 7))));
+        
+        return true;
+    }
+    
+    @Override
+    public void close() throws IOException
+    {
+        //make sure every bit set is on the disk
+        map.force();
+        map = null;
+        
+        file.close();
+    }
+}
\ No newline at end of file
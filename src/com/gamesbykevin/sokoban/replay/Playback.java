@@ -0,0 +1,280 @@
+package com.gamesbykevin.sokoban.replay;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Journal;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.board.Lurd;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.FileInputStream;
+import java.util.List;
+
+/**
+ * Plays a replay on a board, without a window or animation.<br>
+ * The replay can be played at the recorded speed, faster, or instantly, and the records are only read as they are needed.
+ * Frames are only produced for every sampled record and at the end, so a long replay can be checked without drawing every move.
+ * @author GOD
+ */
+public final class Playback
+{
+    //the speeds, any other speed is a multiple of the recorded speed
+    public static final int SPEED_INSTANT = 0;
+    public static final int SPEED_NORMAL = 1;
+    public static final int SPEED_FAST = 10;
+    
+    /**
+     * Receives the frames of the playback
+     */
+    public interface Listener
+    {
+        /**
+         * A frame of the replay
+         * @param board The board after the record
+         * @param records The number of records played
+         * @param finished Is this the last frame
+         */
+        public void frame(final Board board, final int records, final boolean finished);
+    }
+    
+    //the most moves that can be undone in a replay
+    private static final int JOURNAL_SIZE = 65536;
+    
+    //the records being played
+    private final ReplayReader reader;
+    
+    //the board the records are played on
+    private final Board board;
+    
+    //the moves made, so undo and redo can be played
+    private final Journal journal = new Journal(JOURNAL_SIZE);
+    
+    //the multiple of the recorded speed
+    private final int speed;
+    
+    //the object receiving the frames, and how many records between frames (0 is only the last frame)
+    private Listener listener;
+    private int sample;
+    
+    //the time played, and the time of the next record (milliseconds)
+    private long clock = 0, due = 0;
+    
+    //has the next record been read but not played
+    private boolean pending = false;
+    
+    //is the replay finished
+    private boolean finished = false;
+    
+    //the number of records played
+    private int records = 0;
+    
+    /**
+     * Create the playback
+     * @param layouts The layouts the replay can be of
+     * @param reader The replay
+     * @param speed SPEED_INSTANT, or the multiple of the recorded speed
+     * @throws Exception if the level of the replay is not found
+     */
+    public Playback(final List<Layout> layouts, final ReplayReader reader, final int speed) throws Exception
+    {
+        final Layout layout = Layouts.find(layouts, reader.getLevel());
+        
+        if (layout == null)
+            throw new Exception("Level not found for replay " + reader.getLevel());
+        
+        this.reader = reader;
+        this.board = new Board(layout);
+        this.speed = speed;
+    }
+    
+    /**
+     * Set the object receiving the frames
+     * @param listener The object receiving the frames
+     * @param sample The number of records between frames, 0 to only receive the last frame
+     */
+    public void setListener(final Listener listener, final int sample)
+    {
+        this.listener = listener;
+        this.sample = sample;
+    }
+    
+    /**
+     * Play every record that is due
+     * @param elapsed The real time passed since the previous update (milliseconds)
+     * @return true if the replay is finished, false otherwise
+     * @throws Exception if the replay can't be read, or doesn't match the level
+     */
+    public boolean update(final long elapsed) throws Exception
+    {
+        if (speed == SPEED_INSTANT)
+        {
+            fastForward();
+            return true;
+        }
+        
+        clock += elapsed * speed;
+        
+        while (!finished)
+        {
+            if (!pending && !read())
+                break;
+            
+            //wait until the record is due
+            if (due > clock)
+                break;
+            
+            play();
+        }
+        
+        return finished;
+    }
+    
+    /**
+     * Play every record left, no matter the speed
+     * @throws Exception if the replay can't be read, or doesn't match the level
+     */
+    public void fastForward() throws Exception
+    {
+        while (!finished)
+        {
+            if (!pending && !read())
+                break;
+            
+            play();
+        }
+    }
+    
+    /**
+     * Read the next record
+     * @return true if a record was read, false if the replay is finished
+     * @throws Exception if the replay can't be read
+     */
+    private boolean read() throws Exception
+    {
+        if (!reader.next())
+        {
+            finished = true;
+            
+            if (listener != null)
+                listener.frame(board, records, true);
+            
+            return false;
+        }
+        
+        due += reader.getDelay();
+        pending = true;
+        
+        return true;
+    }
+    
+    /**
+     * Play the record that was read
+     * @throws Exception if the record doesn't match the level
+     */
+    private void play() throws Exception
+    {
+        pending = false;
+        records++;
+        
+        final char record = reader.getRecord();
+        
+        switch (record)
+        {
+            case Replay.UNDO:
+                if (!board.undo(journal))
+                    throw new Exception("Nothing to undo at record " + records);
+                break;
+            
+            case Replay.REDO:
+                if (!board.redo(journal))
+                    throw new Exception("Nothing to redo, or the redo does not match the level, at record " + records);
+                break;
+            
+            default:
+                final Direction direction = Lurd.getDirection(record);
+                
+                if (direction == null)
+                    throw new Exception("Invalid record '" + record + "' at record " + records);
+                
+                final int result = board.step(direction);
+                
+                //the move has to be possible, and push only when the record says it did
+                if (result == Board.BLOCKED || (result == Board.PUSHED) != Lurd.isPush(record))
+                    throw new Exception("Record '" + record + "' does not match the level at record " + records);
+                
+                journal.add(direction, result == Board.PUSHED);
+                break;
+        }
+        
+        if (listener != null && sample > 0 && records % sample == 0)
+            listener.frame(board, records, false);
+    }
+    
+    /**
+     * Get the board
+     * @return The board the replay is played on
+     */
+    public Board getBoard()
+    {
+        return this.board;
+    }
+    
+    /**
+     * Get the number of records played
+     * @return The total number of records played
+     */
+    public int getRecords()
+    {
+        return this.records;
+    }
+    
+    /**
+     * Is the replay finished
+     * @return true if every record was played, false otherwise
+     */
+    public boolean isFinished()
+    {
+        return this.finished;
+    }
+    
+    /**
+     * Play a replay file, printing the frames as text
+     * @param args The replay file, the speed (1, 10 or instant), and the number of records between frames
+     * @throws Exception if the replay can't be played
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        if (args.length < 1)
+            throw new Exception("Usage: Playback file [1|10|instant] [sample]");
+        
+        final int speed = (args.length > 1 && !args[1].equalsIgnoreCase("instant")) ? Integer.parseInt(args[1]) : SPEED_INSTANT;
+        final int sample = (args.length > 2) ? Integer.parseInt(args[2]) : 0;
+        
+        try (ReplayReader reader = new ReplayReader(new FileInputStream(args[0])))
+        {
+            final Playback playback = new Playback(Layouts.read(), reader, speed);
+            
+            playback.setListener(new Listener()
+            {
+                @Override
+                public void frame(final Board board, final int records, final boolean finished)
+                {
+                    System.out.println("records=" + records + " moves=" + board.getMoves() + " pushes=" + board.getPushes() + " solved=" + board.isSolved());
+                    System.out.println(board);
+                }
+            }, sample);
+            
+            long previous = System.nanoTime();
+            long elapsed = 0;
+            
+            while (!playback.update(elapsed))
+            {
+                Thread.sleep(1L);
+                
+                //only count the whole milliseconds played, the rest is counted next time
+                elapsed = (System.nanoTime() - previous) / 1000000L;
+                previous += elapsed * 1000000L;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.gamesbykevin.sokoban.replay;
+
+/**
+ * The format of a replay file.<br>
+ * The file starts with the 4 bytes SKRP, then the version and the index of the level.
+ * After that each record is one byte, a LURD letter for a move or UNDO, REDO, followed by the time since the previous record
+ * in milliseconds.
+ * Every number is written 7 bits at a time with the high bit marking that more bytes follow, so most records take 2 bytes.
+ * A replay is read and written one record at a time, so the whole file is never in memory.
+ * @author GOD
+ */
+public final class Replay
+{
+    //the bytes at the start of every replay
+    protected static final byte[] MAGIC = {'S', 'K', 'R', 'P'};
+    
+    //the version of the format
+    protected static final int VERSION = 1;
+    
+    //the records that aren't moves
+    public static final char UNDO = 'z';
+    public static final char REDO = 'y';
+    
+    private Replay()
+    {
+        //no instances of this class
+    }
+}
\ No newline at end of file
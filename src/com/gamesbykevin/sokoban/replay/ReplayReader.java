@@ -0,0 +1,123 @@
+package com.gamesbykevin.sokoban.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a replay one record at a time
+ * @author GOD
+ */
+public final class ReplayReader implements Closeable
+{
+    //where the replay is read from
+    private final InputStream input;
+    
+    //the index of the level
+    private final int level;
+    
+    //the current record, and the time since the previous record (milliseconds)
+    private char record;
+    private long delay;
+    
+    /**
+     * Start reading a replay
+     * @param input Where the replay is read from, this will be closed with the reader
+     * @throws IOException if the replay can't be read or is not a replay
+     */
+    public ReplayReader(final InputStream input) throws IOException
+    {
+        this.input = new BufferedInputStream(input);
+        
+        for (byte tmp : Replay.MAGIC)
+        {
+            if (this.input.read() != tmp)
+                throw new IOException("Not a replay");
+        }
+        
+        final long version = readNumber();
+        
+        if (version != Replay.VERSION)
+            throw new IOException("Replay version not supported " + version);
+        
+        this.level = (int)readNumber();
+    }
+    
+    /**
+     * Get the level
+     * @return The index of the level
+     */
+    public int getLevel()
+    {
+        return this.level;
+    }
+    
+    /**
+     * Read the next record
+     * @return true if a record was read, false if the replay is finished
+     * @throws IOException if the replay can't be read
+     */
+    public boolean next() throws IOException
+    {
+        final int tmp = input.read();
+        
+        if (tmp < 0)
+            return false;
+        
+        record = (char)tmp;
+        delay = readNumber();
+        
+        return true;
+    }
+    
+    /**
+     * Get the current record
+     * @return The LURD letter of the move, or Replay.UNDO, Replay.REDO
+     */
+    public char getRecord()
+    {
+        return this.record;
+    }
+    
+    /**
+     * Get the delay of the current record
+     * @return The time since the previous record (milliseconds)
+     */
+    public long getDelay()
+    {
+        return this.delay;
+    }
+    
+    /**
+     * Read a number written 7 bits at a time
+     * @return The number
+     * @throws IOException if the replay can't be read or ends in the middle of the number
+     */
+    private long readNumber() throws IOException
+    {
+        long value = 0;
+        
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            final int tmp = input.read();
+            
+            if (tmp < 0)
+                throw new EOFException("Replay ended in the middle of a record");
+            
+            value |= (long)(tmp & 0x7f) << shift;
+            
+            if ((tmp & 0x80) == 0)
+                return value;
+        }
+        
+        throw new IOException("Number too long in replay");
+    }
+    
+    @Override
+    public void close() throws IOException
+    {
+        input.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.gamesbykevin.sokoban.replay;
+
+import com.gamesbykevin.sokoban.board.Lurd;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a replay one record at a time
+ * @author GOD
+ */
+public final class ReplayWriter implements Closeable
+{
+    //where the replay is written
+    private final OutputStream output;
+    
+    //the time of the previous record (milliseconds)
+    private long previous;
+    
+    /**
+     * Start writing a replay
+     * @param output Where the replay is written, this will be closed with the writer
+     * @param level The index of the level
+     * @param time The time the level started (milliseconds)
+     * @throws IOException if the replay can't be written
+     */
+    public ReplayWriter(final OutputStream output, final int level, final long time) throws IOException
+    {
+        this.output = new BufferedOutputStream(output);
+        this.previous = time;
+        
+        this.output.write(Replay.MAGIC);
+        writeNumber(Replay.VERSION);
+        writeNumber(level);
+    }
+    
+    /**
+     * Record a move
+     * @param direction The direction moved
+     * @param pushed Did the move push a box
+     * @param time The time of the move (milliseconds)
+     * @throws IOException if the replay can't be written
+     */
+    public void move(final Direction direction, final boolean pushed, final long time) throws IOException
+    {
+        write(Lurd.toChar(direction, pushed), time);
+    }
+    
+    /**
+     * Record an undo
+     * @param time The time of the undo (milliseconds)
+     * @throws IOException if the replay can't be written
+     */
+    public void undo(final long time) throws IOException
+    {
+        write(Replay.UNDO, time);
+    }
+    
+    /**
+     * Record a redo
+     * @param time The time of the redo (milliseconds)
+     * @throws IOException if the replay can't be written
+     */
+    public void redo(final long time) throws IOException
+    {
+        write(Replay.REDO, time);
+    }
+    
+    /**
+     * Write a record
+     * @param record The letter of the record
+     * @param time The time of the record (milliseconds)
+     * @throws IOException if the replay can't be written
+     */
+    private void write(final char record, final long time) throws IOException
+    {
+        output.write(record);
+        writeNumber(Math.max(0, time - previous));
+        
+        previous = time;
+    }
+    
+    /**
+     * Write a number 7 bits at a time, lowest bits first
+     * @param value The number, can't be negative
+     * @throws IOException if the replay can't be written
+     */
+    private void writeNumber(final long value) throws IOException
+    {
+        long tmp = value;
+        
+        while (tmp >= 0x80)
+        {
+            output.write((int)(tmp & 0x7f) | 0x80);
+            tmp >>>= 7;
+        }
+        
+        output.write((int)tmp);
+    }
+    
+    /**
+     * Write any records waiting in the buffer
+     * @throws IOException if the replay can't be written
+     */
+    public void flush() throws IOException
+    {
+        output.flush();
+    }
+    
+    @Override
+    public void close() throws IOException
+    {
+        output.close();
+    }
+}
\ No newline at end of file
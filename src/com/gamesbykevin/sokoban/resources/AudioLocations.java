@@ -0,0 +1,54 @@
+package com.gamesbykevin.sokoban.resources;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Reads the location of each sound from an audio xml file, for the audio we play ourselves
+ * @author GOD
+ */
+final class AudioLocations
+{
+    //the node name and attribute of each sound in the xml file
+    private static final String NODE_NAME = "sound";
+    private static final String ATTRIBUTE_ID = "id";
+    
+    private AudioLocations()
+    {
+        //no instances of this class
+    }
+    
+    /**
+     * Read the location of every sound in the xml file
+     * @param source Class in root directory of project so we have a relative location so we know how to access resources
+     * @param xml The location of the xml file
+     * @return The location of each sound by id
+     * @throws Exception if the xml file can't be read
+     */
+    static Map<String, String> read(final Class source, final String xml) throws Exception
+    {
+        final Map<String, String> result = new HashMap<>();
+        
+        try (InputStream stream = source.getResourceAsStream(xml))
+        {
+            if (stream == null)
+                throw new Exception("Xml file not found = " + xml);
+            
+            final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(stream);
+            final NodeList nodes = document.getElementsByTagName(NODE_NAME);
+            
+            for (int i = 0; i < nodes.getLength(); i++)
+            {
+                final Element element = (Element)nodes.item(i);
+                result.put(element.getAttribute(ATTRIBUTE_ID), element.getTextContent().trim());
+            }
+        }
+        
+        return result;
+    }
+}
\ No newline at end of file
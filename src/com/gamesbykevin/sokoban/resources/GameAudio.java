@@ -6,7 +6,7 @@ import com.gamesbykevin.framework.resources.*;
  * All audio for game
  * @author GOD
  */
-public final class GameAudio extends AudioManager
+public final class GameAudio extends AudioManager implements ILoader
 {
     //description for progress bar
     private static final String DESCRIPTION = "Loading Audio Resources";
@@ -16,7 +16,7 @@ public final class GameAudio extends AudioManager
      */
     public enum Keys
     {
-        Music, Place, Win
+        Place, Win
     }
     
     public GameAudio() throws Exception
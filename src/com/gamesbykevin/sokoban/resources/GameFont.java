@@ -2,7 +2,7 @@ package com.gamesbykevin.sokoban.resources;
 
 import com.gamesbykevin.framework.resources.FontManager;
 
-public final class GameFont extends FontManager
+public final class GameFont extends FontManager implements ILoader
 {
     //description for progress bar
     private static final String DESCRIPTION = "Loading Font Resources";
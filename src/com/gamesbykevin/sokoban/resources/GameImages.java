@@ -6,7 +6,7 @@ import com.gamesbykevin.framework.resources.*;
  * All game images
  * @author GOD
  */
-public final class GameImages extends ImageManager
+public final class GameImages extends ImageManager implements ILoader
 {
     //description for progress bar
     private static final String DESCRIPTION = "Loading Image Resources";
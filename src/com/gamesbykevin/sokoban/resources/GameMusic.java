@@ -0,0 +1,260 @@
+package com.gamesbykevin.sokoban.resources;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+
+/**
+ * The game music is streamed, one mp3 frame is decoded at a time on a dedicated thread.<br>
+ * The decoded audio is written into the line buffer, which waits when full, so the whole track is never kept in memory.
+ * @author GOD
+ */
+public final class GameMusic implements Disposable, ILoader
+{
+    /**
+     * These are the keys used to access the resources and need to match the id in the xml file
+     */
+    public enum Keys
+    {
+        Music
+    }
+    
+    //how much decoded audio can be buffered ahead of what is heard (milliseconds)
+    private static final int BUFFER_MILLIS = 500;
+    
+    //the location of each track, read from the xml file
+    private Map<String, String> locations;
+    
+    //class used to access the resources
+    private Class source;
+    
+    //the key of the track playing, null if nothing is playing
+    private Object current;
+    
+    //the object streaming the current track
+    private Stream stream;
+    
+    //is audio enabled
+    private boolean enabled = true;
+    
+    public GameMusic()
+    {
+        //nothing is loaded until update
+    }
+    
+    @Override
+    public boolean isComplete()
+    {
+        return (locations != null);
+    }
+    
+    /**
+     * Locate the music, the music is not decoded here since it is streamed when played
+     * @param source Class in root directory of project so we have a relative location so we know how to access resources
+     * @throws Exception if the music can't be located
+     */
+    @Override
+    public void update(final Class source) throws Exception
+    {
+        if (isComplete())
+            return;
+        
+        final Map<String, String> tmp = AudioLocations.read(source, Resources.XML_CONFIG_GAME_MUSIC);
+        
+        //verify all existing keys are contained in the xml file
+        for (Keys key : Keys.values())
+        {
+            if (tmp.get(key.toString()) == null || source.getResource(tmp.get(key.toString())) == null)
+                throw new Exception("Music not found, key = " + key);
+        }
+        
+        this.source = source;
+        this.locations = tmp;
+    }
+    
+    /**
+     * Play the track, it will loop until stopped
+     * @param key The key of the track
+     */
+    public void play(final Object key)
+    {
+        //stop the track that is playing
+        stop();
+        
+        //remember the track, so it can be resumed if audio is enabled later
+        this.current = key;
+        
+        if (enabled && isComplete())
+        {
+            stream = new Stream(source.getResource(locations.get(key.toString())));
+            stream.start();
+        }
+    }
+    
+    /**
+     * Stop the track playing
+     */
+    public void stop()
+    {
+        current = null;
+        
+        stopStream();
+    }
+    
+    /**
+     * Stop the thread streaming the track
+     */
+    private void stopStream()
+    {
+        if (stream != null)
+        {
+            stream.finish();
+            stream = null;
+        }
+    }
+    
+    /**
+     * Set audio enabled, if enabled again the track that was playing will resume
+     * @param enabled If false no music will be played
+     */
+    public void setEnabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+        
+        if (!enabled)
+        {
+            //stop streaming, but remember the track
+            stopStream();
+        }
+        else if (current != null && stream == null)
+        {
+            play(current);
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        stop();
+        
+        locations = null;
+        source = null;
+    }
+    
+    /**
+     * The thread decoding and playing a single track
+     */
+    private static final class Stream extends Thread
+    {
+        //the location of the track
+        private final URL url;
+        
+        //do we continue to play
+        private volatile boolean running = true;
+        
+        private Stream(final URL url)
+        {
+            super("GameMusic");
+            
+            this.url = url;
+            
+            //don't keep the application running because of music
+            setDaemon(true);
+        }
+        
+        /**
+         * Stop playing, the thread will exit after the current frame
+         */
+        private void finish()
+        {
+            this.running = false;
+        }
+        
+        @Override
+        public void run()
+        {
+            //the line we write the decoded audio to
+            SourceDataLine line = null;
+            
+            //the decoded samples converted to bytes, reused for every frame
+            byte[] bytes = new byte[0];
+            
+            //the decoder is kept between loops so there is no gap when the track starts over
+            final Decoder decoder = new Decoder();
+            
+            try
+            {
+                while (running)
+                {
+                    //open the track from the beginning
+                    try (InputStream input = new BufferedInputStream(url.openStream()))
+                    {
+                        final Bitstream bitstream = new Bitstream(input);
+                        
+                        Header header;
+                        
+                        //decode 1 frame at a time until the end of the track
+                        while (running && (header = bitstream.readFrame()) != null)
+                        {
+                            final SampleBuffer output = (SampleBuffer)decoder.decodeFrame(header, bitstream);
+                            
+                            //open the line once we know the format of the track
+                            if (line == null)
+                            {
+                                final AudioFormat format = new AudioFormat(decoder.getOutputFrequency(), 16, decoder.getOutputChannels(), true, false);
+                                
+                                line = AudioSystem.getSourceDataLine(format);
+                                line.open(format, (int)(format.getFrameRate() * format.getFrameSize() * BUFFER_MILLIS / 1000));
+                                line.start();
+                            }
+                            
+                            final short[] samples = output.getBuffer();
+                            final int length = output.getBufferLength() * 2;
+                            
+                            //only create a bigger array when needed
+                            if (bytes.length < length)
+                                bytes = new byte[length];
+                            
+                            for (int i = 0; i < output.getBufferLength(); i++)
+                            {
+                                bytes[(i * 2)] = (byte)samples[i];
+                                bytes[(i * 2) + 1] = (byte)(samples[i] >> 8);
+                            }
+                            
+                            //this will wait while the line buffer is full
+                            line.write(bytes, 0, length);
+                            
+                            bitstream.closeFrame();
+                        }
+                        
+                        bitstream.close();
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+            finally
+            {
+                if (line != null)
+                {
+                    //we were stopped, so don't play what is left in the buffer
+                    line.flush();
+                    line.stop();
+                    line.close();
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
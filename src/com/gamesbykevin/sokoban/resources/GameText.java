@@ -6,7 +6,7 @@ import com.gamesbykevin.framework.resources.TextManager;
  * All audio for game
  * @author GOD
  */
-public final class GameText extends TextManager
+public final class GameText extends TextManager implements ILoader
 {
     //description for progress bar
     private static final String DESCRIPTION = "Loading Game Text Resources";
@@ -0,0 +1,21 @@
+package com.gamesbykevin.sokoban.resources;
+
+/**
+ * A group of resources that are loaded one at a time
+ * @author GOD
+ */
+public interface ILoader
+{
+    /**
+     * Load the next resource
+     * @param source Class in root directory of project so we have a relative location so we know how to access resources
+     * @throws Exception if the resource can't be loaded
+     */
+    public void update(final Class source) throws Exception;
+    
+    /**
+     * Have all the resources been loaded
+     * @return true if every resource is loaded, false otherwise
+     */
+    public boolean isComplete();
+}
\ No newline at end of file
@@ -2,10 +2,19 @@ package com.gamesbykevin.sokoban.resources;
 
 import com.gamesbykevin.framework.resources.*;
 
+import com.gamesbykevin.sokoban.shared.Events;
+
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * This class will load all resources in the collection and provide a way to access them
@@ -20,23 +29,39 @@ public final class Resources implements IResources
     public static final String XML_CONFIG_GAME_AUDIO = RESOURCE_DIR + "gameAudio.xml"; 
     public static final String XML_CONFIG_GAME_FONT  = RESOURCE_DIR + "gameFont.xml"; 
     public static final String XML_CONFIG_GAME_IMAGE = RESOURCE_DIR + "gameImage.xml"; 
+    public static final String XML_CONFIG_GAME_MUSIC = RESOURCE_DIR + "gameMusic.xml";
     public static final String XML_CONFIG_GAME_TEXT  = RESOURCE_DIR + "gameText.xml"; 
     public static final String XML_CONFIG_MENU       = RESOURCE_DIR + "menu.xml"; 
     
     //are we loading resources
     private boolean loading = true;
     
-    //objects that contain resources
+    //objects that contain resources, the audio is only loaded if the sound effects can't be mixed
     private GameAudio audio;
     private GameImages images;
     private GameFont fonts;
     private GameText textFiles;
     
+    //the sound effects, mixed on their own thread
+    private SoundEffects effects;
+    
+    //the music, streamed on its own thread
+    private GameMusic music;
+    
+    //the threads used to load the resources
+    private ExecutorService executor;
+    
+    //the loading of each group of resources
+    private List<Future<Void>> tasks;
+    
+    //track our progress towards loading all the groups of resources
+    private Progress progress;
+    
+    //description for progress bar
+    private static final String DESCRIPTION = "Loading Resources";
+    
     public Resources() throws Exception
     {
-        //object to contain audio resources
-        this.audio = new GameAudio();
-        
         //object to contain images resources
         this.images = new GameImages();
         
@@ -45,6 +70,12 @@ public final class Resources implements IResources
         
         //object to contain text resources
         this.textFiles = new GameText();
+        
+        //object to contain the short sound effects
+        this.effects = new SoundEffects(XML_CONFIG_GAME_AUDIO, GameAudio.Keys.Place, GameAudio.Keys.Win);
+        
+        //object to stream the music
+        this.music = new GameMusic();
     }
     
     /**
@@ -62,55 +93,97 @@ public final class Resources implements IResources
      */
     public void stopAllSound()
     {
-        audio.stopAll();
+        if (audio != null)
+            audio.stopAll();
+        
+        effects.stopAll();
+        music.stop();
     }
     
     /**
-     * Here we will load the resources one by one and then marking the process finished once done
+     * Here we will load the resources and then mark the process finished once done.<br>
+     * Each group of resources (audio, images, fonts, text) is loaded on its own thread at the same time.
      * @param source Class in root directory of project so we have a relative location so we know how to access resources
      * @throws Exception 
      */
     @Override
     public void update(final Class source) throws Exception
     {
-        if (!audio.isComplete())
+        //start loading everything the first time
+        if (tasks == null)
         {
-            //load 1 resource at a time
-            audio.update(source);
-
-            //exit method so progress can be drawn
-            return;
+            //the sound effects are mixed if an audio line can be opened, otherwise the audio manager plays them
+            final ILoader sound;
+            
+            if (effects.open())
+            {
+                sound = effects;
+            }
+            else
+            {
+                audio = new GameAudio();
+                audio.setEnabled(effects.isEnabled());
+                sound = audio;
+            }
+            
+            //the groups of resources we need to load
+            final ILoader[] loaders = {sound, images, fonts, textFiles, music};
+            
+            //don't create more threads than we can run at once
+            executor = Executors.newFixedThreadPool(Math.min(loaders.length, Runtime.getRuntime().availableProcessors()), new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "Resources");
+                    
+                    //don't keep the application running if we exit while loading
+                    thread.setDaemon(true);
+                    
+                    return thread;
+                }
+            });
+            
+            //track the number of groups loaded
+            progress = new Progress(loaders.length);
+            progress.setDescription(DESCRIPTION);
+            
+            tasks = new ArrayList<>();
+            
+            for (int i = 0; i < loaders.length; i++)
+            {
+                tasks.add(executor.submit(createTask(loaders[i], source)));
+            }
         }
         
-        if (!images.isComplete())
-        {
-            //load 1 resource at a time
-            images.update(source);
-
-            //exit method so progress can be drawn
-            return;
-        }
+        //count the groups that are finished
+        int completed = 0;
         
-        if (!fonts.isComplete())
+        for (int i = 0; i < tasks.size(); i++)
         {
-            //load 1 resource at a time
-            fonts.update(source);
-
-            //exit method so progress can be drawn
-            return;
+            if (tasks.get(i).isDone())
+            {
+                //if there was a problem loading, the exception will be thrown here
+                tasks.get(i).get();
+                
+                completed++;
+            }
         }
         
-        if (!textFiles.isComplete())
-        {
-            //load 1 resource at a time
-            textFiles.update(source);
-
-            //exit method so progress can be drawn
+        //update the progress
+        progress.setCount(completed);
+        
+        //exit method so progress can be drawn
+        if (completed < tasks.size())
             return;
-        }
+        
+        //we don't need the threads anymore
+        executor.shutdown();
+        executor = null;
         
         //verify all existing keys are contained in the xml file
-        audio.verifyLocations(GameAudio.Keys.values());
+        if (audio != null)
+            audio.verifyLocations(GameAudio.Keys.values());
         
         //verify all existing keys are contained in the xml file
         images.verifyLocations(GameImages.Keys.values());
@@ -121,17 +194,51 @@ public final class Resources implements IResources
         //verify all existing keys are contained in the xml file
         fonts.verifyLocations(GameFont.Keys.values());
         
+        //start mixing the sound effects
+        effects.start();
+        
         //we are done loading the resources
         this.loading = false;
     }
     
+    /**
+     * Create the task that will load every resource in the group
+     * @param loader The group of resources
+     * @param source Class in root directory of project so we have a relative location so we know how to access resources
+     * @return The task to load the resources
+     */
+    private static Callable<Void> createTask(final ILoader loader, final Class source)
+    {
+        return new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                //the name of the group, for the events recorded
+                final String name = loader.getClass().getSimpleName();
+                
+                //load 1 resource at a time until complete
+                for (int index = 0; !loader.isComplete(); index++)
+                {
+                    final long time = System.nanoTime();
+                    
+                    loader.update(source);
+                    
+                    Events.record(Events.Type.ResourceLoad, time, System.nanoTime() - time, name, index, 0, 0);
+                }
+                
+                return null;
+            }
+        };
+    }
+    
     /**
      * Checks to see if audio is turned on
      * @return 
      */
     public boolean isAudioEnabled()
     {
-        return audio.isEnabled();
+        return effects.isEnabled();
     }
     
     /**
@@ -140,7 +247,11 @@ public final class Resources implements IResources
      */
     public void setAudioEnabled(final boolean enabled)
     {
-        audio.setEnabled(enabled);
+        if (audio != null)
+            audio.setEnabled(enabled);
+        
+        effects.setEnabled(enabled);
+        music.setEnabled(enabled);
     }
     
     /**
@@ -179,7 +290,25 @@ public final class Resources implements IResources
      */
     public void playGameAudio(final Object key, final boolean loop)
     {
-        audio.play(key, loop);
+        Events.record(Events.Type.AudioPlay, key.toString(), 0, 0);
+        
+        //sound effects are queued for the audio thread, if this is one we are done
+        if (!loop && effects.play(key))
+            return;
+        
+        if (audio != null)
+            audio.play(key, loop);
+    }
+    
+    /**
+     * Play the music, the music will loop until stopped
+     * @param key The unique key of the music we want to play
+     */
+    public void playGameMusic(final Object key)
+    {
+        Events.record(Events.Type.AudioPlay, key.toString(), 1, 0);
+        
+        music.play(key);
     }
     
     /**
@@ -188,7 +317,12 @@ public final class Resources implements IResources
      */
     public void stopGameAudio(final Object key)
     {
-        audio.stop(key);
+        //sound effects are stopped by the audio thread, if this is one we are done
+        if (effects.stop(key))
+            return;
+        
+        if (audio != null)
+            audio.stop(key);
     }
     
     /**
@@ -209,6 +343,32 @@ public final class Resources implements IResources
     @Override
     public void dispose()
     {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+        
+        if (progress != null)
+        {
+            progress.dispose();
+            progress = null;
+        }
+        
+        tasks = null;
+        
+        if (effects != null)
+        {
+            effects.dispose();
+            effects = null;
+        }
+        
+        if (music != null)
+        {
+            music.dispose();
+            music = null;
+        }
+        
         if (audio != null)
         {
             audio.dispose();
@@ -240,40 +400,11 @@ public final class Resources implements IResources
         if (!isLoading())
             return;
         
-        if (audio != null)
-        {
-            if (!audio.isComplete())
-            {
-                audio.render(graphics, screen);
-                return;
-            }
-        }
-        
-        if (images != null)
+        if (progress != null)
         {
-            if (!images.isComplete())
-            {
-                images.render(graphics, screen);
-                return;
-            }
-        }
-        
-        if (textFiles != null)
-        {
-            if (!textFiles.isComplete())
-            {
-                textFiles.render(graphics, screen);
-                return;
-            }
-        }
-        
-        if (fonts != null)
-        {
-            if (!fonts.isComplete())
-            {
-                fonts.render(graphics, screen);
-                return;
-            }
+            //draw the progress of all the resources
+            progress.setScreen(screen);
+            progress.render(graphics);
         }
     }
 }
\ No newline at end of file
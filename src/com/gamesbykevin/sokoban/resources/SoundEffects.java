@@ -0,0 +1,459 @@
+package com.gamesbykevin.sokoban.resources;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * The short sound effects are decoded once into memory, and then mixed on a dedicated audio thread.<br>
+ * Playing a sound effect only places a request in a queue, so the game thread never waits on audio.
+ * @author GOD
+ */
+public final class SoundEffects implements Disposable, ILoader
+{
+    //the format all sound effects are mixed in, 16 bit stereo
+    private static final float MIX_RATE = 44100f;
+    private static final int MIX_CHANNELS = 2;
+    private static final AudioFormat MIX_FORMAT = new AudioFormat(MIX_RATE, 16, MIX_CHANNELS, true, false);
+    
+    //the number of frames mixed at once, smaller is lower latency (~12 milliseconds)
+    private static final int FRAMES_PER_BUFFER = 512;
+    
+    //the most sound effects that can be heard at once
+    private static final int VOICES = 8;
+    
+    //the most requests that can wait for the audio thread
+    private static final int QUEUE_SIZE = 32;
+    
+    //request sent to the audio thread to stop all sound effects
+    private static final int STOP_ALL = -1;
+    
+    //request sent to the audio thread to stop one sound effect, the request is STOP_ONE - index
+    private static final int STOP_ONE = -2;
+    
+    //the keys of the sound effects
+    private final Object[] keys;
+    
+    //the location of the xml file containing the sound locations
+    private final String xml;
+    
+    //the location of each sound, read from the xml file
+    private Map<String, String> locations;
+    
+    //the decoded sound effects, interleaved stereo samples
+    private short[][] samples;
+    
+    //the number of sound effects loaded
+    private int count = 0;
+    
+    //each voice is either -1 (silent) or the index of the sound effect playing
+    private final int[] voiceSounds = new int[VOICES];
+    
+    //the current sample position of each voice
+    private final int[] voicePositions = new int[VOICES];
+    
+    //requests to play a sound effect, by index
+    private final BlockingQueue<Integer> requests = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    
+    //the line we write the mixed sound to
+    private SourceDataLine line;
+    
+    //the thread mixing the sound effects
+    private Thread thread;
+    
+    //is the audio thread running
+    private volatile boolean running = false;
+    
+    //is audio enabled
+    private volatile boolean enabled = true;
+    
+    /**
+     * Create the sound effects
+     * @param xml The location of the xml file containing the sound locations
+     * @param keys The keys of the sounds that are effects, these need to match the id in the xml file
+     */
+    public SoundEffects(final String xml, final Object... keys)
+    {
+        this.xml = xml;
+        this.keys = keys;
+        this.samples = new short[keys.length][];
+        
+        //all voices start silent
+        Arrays.fill(voiceSounds, -1);
+    }
+    
+    @Override
+    public boolean isComplete()
+    {
+        return (count >= keys.length);
+    }
+    
+    /**
+     * Decode the next sound effect
+     * @param source Class in root directory of project so we have a relative location so we know how to access resources
+     * @throws Exception if the sound effect can't be found or decoded
+     */
+    @Override
+    public void update(final Class source) throws Exception
+    {
+        if (isComplete())
+            return;
+        
+        //read the sound locations the first time
+        if (locations == null)
+            locations = AudioLocations.read(source, xml);
+        
+        final String location = locations.get(keys[count].toString());
+        
+        if (location == null)
+            throw new Exception("Sound effect not found in xml file, key = " + keys[count]);
+        
+        final URL url = source.getResource(location);
+        
+        if (url == null)
+            throw new Exception("Sound effect file not found = " + location);
+        
+        //decode the sound effect
+        samples[count] = decode(url);
+        
+        //move to the next
+        count++;
+    }
+    
+    /**
+     * Decode the sound into stereo samples at the mix rate
+     * @param url The location of the sound
+     * @return The interleaved stereo samples
+     * @throws Exception if the sound can't be decoded
+     */
+    private static short[] decode(final URL url) throws Exception
+    {
+        try (AudioInputStream original = AudioSystem.getAudioInputStream(url))
+        {
+            final AudioFormat format = original.getFormat();
+            final int channels = format.getChannels();
+            
+            //convert to 16 bit little endian samples, keeping the sample rate and channels
+            final AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, channels, true, false);
+            
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            
+            try (AudioInputStream decoded = AudioSystem.getAudioInputStream(pcm, original))
+            {
+                final byte[] buffer = new byte[4096];
+                
+                int read;
+                
+                while ((read = decoded.read(buffer)) > 0)
+                {
+                    bytes.write(buffer, 0, read);
+                }
+            }
+            
+            final byte[] data = bytes.toByteArray();
+            
+            //the number of frames in the decoded sound
+            final int frames = data.length / (2 * channels);
+            
+            //the number of frames once converted to the mix rate
+            final int mixFrames = (int)((long)frames * (long)MIX_RATE / (long)format.getSampleRate());
+            
+            final short[] result = new short[mixFrames * MIX_CHANNELS];
+            
+            for (int frame = 0; frame < mixFrames; frame++)
+            {
+                //the frame in the decoded sound closest to this one
+                final int source = (int)((long)frame * frames / mixFrames);
+                
+                for (int channel = 0; channel < MIX_CHANNELS; channel++)
+                {
+                    //mono sounds use the same sample for both channels
+                    final int index = ((source * channels) + Math.min(channel, channels - 1)) * 2;
+                    
+                    result[(frame * MIX_CHANNELS) + channel] = (short)((data[index] & 0xff) | (data[index + 1] << 8));
+                }
+            }
+            
+            return result;
+        }
+    }
+    
+    /**
+     * Open the audio line the sound effects are written to, this is done before loading so we know if they can be played
+     * @return true if the line is open, false if no audio line is available and the sound effects will not play
+     */
+    public boolean open()
+    {
+        if (line != null)
+            return true;
+        
+        try
+        {
+            line = AudioSystem.getSourceDataLine(MIX_FORMAT);
+            line.open(MIX_FORMAT, FRAMES_PER_BUFFER * MIX_FORMAT.getFrameSize() * 2);
+            line.start();
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            
+            //we can't play any sound effects
+            line = null;
+        }
+        
+        return (line != null);
+    }
+    
+    /**
+     * Start the audio thread once the sound effects are loaded, if the line isn't open the sound effects will not play
+     */
+    public void start()
+    {
+        if (running || line == null)
+            return;
+        
+        running = true;
+        
+        thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                mix();
+            }
+        }, "SoundEffects");
+        
+        //don't keep the application running because of sound
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+    
+    /**
+     * Set audio enabled
+     * @param enabled If false no sound effects will be played
+     */
+    public void setEnabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+        
+        if (!enabled)
+            stopAll();
+    }
+    
+    /**
+     * Is audio enabled
+     * @return true if the sound effects can be played, false otherwise
+     */
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+    
+    /**
+     * Play the sound effect, this will not wait for the sound to start
+     * @param key The key of the sound effect
+     * @return true if the key is a sound effect handled here, false otherwise
+     */
+    public boolean play(final Object key)
+    {
+        //we can't play anything if the audio thread isn't running
+        if (!running)
+            return false;
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] == key)
+            {
+                //if the queue is full the request is dropped rather than waiting
+                if (enabled)
+                    requests.offer(i);
+                
+                return true;
+            }
+        }
+        
+        //this is not a sound effect
+        return false;
+    }
+    
+    /**
+     * Stop the sound effect if it is playing
+     * @param key The key of the sound effect
+     * @return true if the key is a sound effect handled here, false otherwise
+     */
+    public boolean stop(final Object key)
+    {
+        //nothing is playing if the audio thread isn't running
+        if (!running)
+            return false;
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] == key)
+            {
+                requests.offer(STOP_ONE - i);
+                return true;
+            }
+        }
+        
+        //this is not a sound effect
+        return false;
+    }
+    
+    /**
+     * Stop all sound effects that are playing
+     */
+    public void stopAll()
+    {
+        requests.clear();
+        requests.offer(STOP_ALL);
+    }
+    
+    /**
+     * Mix the voices and write them to the line until we are no longer running
+     */
+    private void mix()
+    {
+        //the mixed samples and the bytes we write
+        final int[] mixed = new int[FRAMES_PER_BUFFER * MIX_CHANNELS];
+        final byte[] buffer = new byte[mixed.length * 2];
+        
+        while (running)
+        {
+            //handle every request waiting
+            Integer request;
+            
+            while ((request = requests.poll()) != null)
+            {
+                if (request == STOP_ALL)
+                {
+                    Arrays.fill(voiceSounds, -1);
+                }
+                else if (request <= STOP_ONE)
+                {
+                    stopVoices(STOP_ONE - request);
+                }
+                else
+                {
+                    startVoice(request);
+                }
+            }
+            
+            //start with silence
+            Arrays.fill(mixed, 0);
+            
+            for (int voice = 0; voice < VOICES; voice++)
+            {
+                if (voiceSounds[voice] < 0)
+                    continue;
+                
+                final short[] sound = samples[voiceSounds[voice]];
+                
+                //the number of samples we can add from this voice
+                final int length = Math.min(mixed.length, sound.length - voicePositions[voice]);
+                
+                for (int i = 0; i < length; i++)
+                {
+                    mixed[i] += sound[voicePositions[voice] + i];
+                }
+                
+                voicePositions[voice] += length;
+                
+                //if the sound is finished, the voice is free
+                if (voicePositions[voice] >= sound.length)
+                    voiceSounds[voice] = -1;
+            }
+            
+            for (int i = 0; i < mixed.length; i++)
+            {
+                //keep the sample within range
+                final int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixed[i]));
+                
+                buffer[(i * 2)] = (byte)sample;
+                buffer[(i * 2) + 1] = (byte)(sample >> 8);
+            }
+            
+            //this will wait until the line has room, which keeps the thread in time with the audio
+            line.write(buffer, 0, buffer.length);
+        }
+    }
+    
+    /**
+     * Silence every voice playing the sound effect
+     * @param index The index of the sound effect
+     */
+    private void stopVoices(final int index)
+    {
+        for (int voice = 0; voice < VOICES; voice++)
+        {
+            if (voiceSounds[voice] == index)
+                voiceSounds[voice] = -1;
+        }
+    }
+    
+    /**
+     * Start playing the sound effect on a free voice, if all voices are busy the one closest to finishing is used
+     * @param index The index of the sound effect
+     */
+    private void startVoice(final int index)
+    {
+        int choice = 0;
+        
+        for (int voice = 0; voice < VOICES; voice++)
+        {
+            //use the first silent voice
+            if (voiceSounds[voice] < 0)
+            {
+                choice = voice;
+                break;
+            }
+            
+            //otherwise pick the voice that has played the longest
+            if (voicePositions[voice] > voicePositions[choice])
+                choice = voice;
+        }
+        
+        voiceSounds[choice] = index;
+        voicePositions[choice] = 0;
+    }
+    
+    @Override
+    public void dispose()
+    {
+        running = false;
+        
+        if (thread != null)
+        {
+            try
+            {
+                thread.join(1000L);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            
+            thread = null;
+        }
+        
+        if (line != null)
+        {
+            line.stop();
+            line.close();
+            line = null;
+        }
+        
+        samples = null;
+        locations = null;
+    }
+}
\ No newline at end of file
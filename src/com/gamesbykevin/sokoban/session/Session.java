@@ -0,0 +1,204 @@
+package com.gamesbykevin.sokoban.session;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Journal;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.level.Direction;
+import com.gamesbykevin.sokoban.replay.ReplayWriter;
+
+import java.io.IOException;
+
+/**
+ * A single puzzle being played without a window.<br>
+ * The session only keeps the board and the moves that can be undone, the layout is shared with every other session.
+ * The moves are kept in a journal of fixed size, once full the oldest move can no longer be undone, so the memory of a session never grows.
+ * Each method is synchronized, so different sessions can be used from different threads at the same time.
+ * @author GOD
+ */
+public final class Session
+{
+    //the most moves that can be undone
+    public static final int MAX_UNDO = 1024;
+    
+    //the id of the session
+    private final long id;
+    
+    //the board being played
+    private final Board board;
+    
+    //the moves that can be undone and redone
+    private final Journal journal = new Journal(MAX_UNDO);
+    
+    //the time the session was last used (milliseconds)
+    private volatile long accessed;
+    
+    //the replay the session is recorded to, null if not recorded
+    private ReplayWriter replay;
+    
+    /**
+     * Create the session
+     * @param id The id of the session
+     * @param layout The layout to play
+     */
+    protected Session(final long id, final Layout layout)
+    {
+        this.id = id;
+        this.board = new Board(layout);
+        this.accessed = System.currentTimeMillis();
+    }
+    
+    /**
+     * Get the id
+     * @return The id of the session
+     */
+    public long getId()
+    {
+        return this.id;
+    }
+    
+    /**
+     * Get the time the session was last used
+     * @return The time (milliseconds)
+     */
+    public long getAccessed()
+    {
+        return this.accessed;
+    }
+    
+    /**
+     * Move the player
+     * @param direction The direction we want to move
+     * @return Board.BLOCKED if the player can't move, Board.PUSHED if a box was pushed, Board.MOVED otherwise
+     * @throws IOException if the move can't be recorded
+     */
+    public synchronized int move(final Direction direction) throws IOException
+    {
+        accessed = System.currentTimeMillis();
+        
+        final int result = board.step(direction);
+        
+        if (result != Board.BLOCKED)
+        {
+            journal.add(direction, result == Board.PUSHED);
+            
+            if (replay != null)
+                replay.move(direction, result == Board.PUSHED, accessed);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Undo the last move
+     * @return true if a move was undone, false if there are no moves to undo
+     * @throws IOException if the undo can't be recorded
+     */
+    public synchronized boolean undo() throws IOException
+    {
+        accessed = System.currentTimeMillis();
+        
+        if (!board.undo(journal))
+            return false;
+        
+        if (replay != null)
+            replay.undo(accessed);
+        
+        return true;
+    }
+    
+    /**
+     * Redo the last move undone
+     * @return true if a move was redone, false if there are no moves to redo
+     * @throws IOException if the redo can't be recorded
+     */
+    public synchronized boolean redo() throws IOException
+    {
+        accessed = System.currentTimeMillis();
+        
+        if (!board.redo(journal))
+            return false;
+        
+        if (replay != null)
+            replay.redo(accessed);
+        
+        return true;
+    }
+    
+    /**
+     * Have moves been made since the level started, including moves undone
+     * @return true if moves were made, false if the level is at the start and can be recorded
+     */
+    public synchronized boolean hasMoved()
+    {
+        return (board.getMoves() > 0 || journal.canRedo());
+    }
+    
+    /**
+     * Record the session from now on, the level has to be at the start
+     * @param replay The replay the session is recorded to, it is closed when the session is closed
+     * @throws Exception if moves were already made
+     */
+    public synchronized void record(final ReplayWriter replay) throws Exception
+    {
+        if (hasMoved())
+            throw new Exception("A session can only be recorded from the start of the level");
+        
+        this.replay = replay;
+    }
+    
+    /**
+     * Stop recording the session
+     * @throws IOException if the replay can't be closed
+     */
+    public synchronized void close() throws IOException
+    {
+        if (replay != null)
+        {
+            replay.close();
+            replay = null;
+        }
+    }
+    
+    /**
+     * Start the level from the beginning, if the session was recorded the recording stops
+     * @throws IOException if the replay can't be closed
+     */
+    public synchronized void reset() throws IOException
+    {
+        accessed = System.currentTimeMillis();
+        
+        board.reset();
+        journal.clear();
+        
+        close();
+    }
+    
+    /**
+     * Get the layout
+     * @return The layout being played
+     */
+    public Layout getLayout()
+    {
+        return board.getLayout();
+    }
+    
+    /**
+     * Describe the state of the session, a line for each value followed by the board
+     * @return The state as text
+     */
+    public synchronized String getState()
+    {
+        accessed = System.currentTimeMillis();
+        
+        final Layout layout = board.getLayout();
+        
+        return "id=" + id + "\n" +
+            "level=" + layout.getIndex() + "\n" +
+            "name=" + (layout.getName() == null ? "" : layout.getName()) + "\n" +
+            "moves=" + board.getMoves() + "\n" +
+            "pushes=" + board.getPushes() + "\n" +
+            "placed=" + board.getPlaced() + "/" + layout.getBoxCount() + "\n" +
+            "solved=" + board.isSolved() + "\n" +
+            board.toString() + "\n";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,233 @@
+package com.gamesbykevin.sokoban.session;
+
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.level.Direction;
+import com.gamesbykevin.sokoban.replay.ReplayWriter;
+
+import java.io.OutputStream;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages many puzzle sessions in one JVM, without an Engine, game thread or window for each.<br>
+ * The parsed layouts are shared by every session, so a session only costs its board and undo history.
+ * A session does not own a thread, any thread can call the manager and calls for different sessions do not wait on each other.
+ * @author GOD
+ */
+public final class SessionManager
+{
+    //the layouts that can be played, shared by every session
+    private final List<Layout> layouts;
+    
+    //the most sessions open at once
+    private final int maxSessions;
+    
+    //the open sessions, by id
+    private final ConcurrentMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    
+    //the number of sessions open
+    private final AtomicInteger count = new AtomicInteger();
+    
+    //the id of the last session created
+    private final AtomicLong ids = new AtomicLong();
+    
+    /**
+     * Create the manager
+     * @param layouts The layouts that can be played, in the order they were read
+     * @param maxSessions The most sessions open at once
+     */
+    public SessionManager(final List<Layout> layouts, final int maxSessions)
+    {
+        this.layouts = layouts;
+        this.maxSessions = maxSessions;
+    }
+    
+    /**
+     * Create a session
+     * @param level The index of the level to play, the same index the game gives the level
+     * @return The id of the session
+     * @throws Exception if the level does not exist, or too many sessions are open
+     */
+    public long create(final int level) throws Exception
+    {
+        final Layout layout = Layouts.find(layouts, level);
+        
+        if (layout == null)
+            throw new Exception("Level not found " + level);
+        
+        if (count.incrementAndGet() > maxSessions)
+        {
+            count.decrementAndGet();
+            throw new Exception("Too many sessions, limit = " + maxSessions);
+        }
+        
+        final Session session = new Session(ids.incrementAndGet(), layout);
+        
+        sessions.put(session.getId(), session);
+        
+        return session.getId();
+    }
+    
+    /**
+     * Get the session
+     * @param id The id of the session
+     * @return The session
+     * @throws Exception if the session does not exist
+     */
+    public Session get(final long id) throws Exception
+    {
+        final Session session = sessions.get(id);
+        
+        if (session == null)
+            throw new Exception("Session not found " + id);
+        
+        return session;
+    }
+    
+    /**
+     * Move the player
+     * @param id The id of the session
+     * @param direction The direction we want to move
+     * @return Board.BLOCKED if the player can't move, Board.PUSHED if a box was pushed, Board.MOVED otherwise
+     * @throws Exception if the session does not exist
+     */
+    public int move(final long id, final Direction direction) throws Exception
+    {
+        return get(id).move(direction);
+    }
+    
+    /**
+     * Undo the last move
+     * @param id The id of the session
+     * @return true if a move was undone, false if there are no moves to undo
+     * @throws Exception if the session does not exist
+     */
+    public boolean undo(final long id) throws Exception
+    {
+        return get(id).undo();
+    }
+    
+    /**
+     * Redo the last move undone
+     * @param id The id of the session
+     * @return true if a move was redone, false if there are no moves to redo
+     * @throws Exception if the session does not exist
+     */
+    public boolean redo(final long id) throws Exception
+    {
+        return get(id).redo();
+    }
+    
+    /**
+     * Get the state of the session
+     * @param id The id of the session
+     * @return The state as text
+     * @throws Exception if the session does not exist
+     */
+    public String getState(final long id) throws Exception
+    {
+        return get(id).getState();
+    }
+    
+    /**
+     * Record the session as a replay, the session has to be at the start of the level
+     * @param id The id of the session
+     * @param output Where the replay is written, this is closed when the session is closed or reset, or right away if the session can't be recorded
+     * @throws Exception if the session does not exist, moves were already made, or the replay can't be written
+     */
+    public void record(final long id, final OutputStream output) throws Exception
+    {
+        try
+        {
+            final Session session = get(id);
+            
+            //check before the replay is started, so nothing is written if the session can't be recorded
+            if (session.hasMoved())
+                throw new Exception("A session can only be recorded from the start of the level");
+            
+            session.record(new ReplayWriter(output, session.getLayout().getIndex(), System.currentTimeMillis()));
+        }
+        catch (Exception e)
+        {
+            //the replay isn't kept, a move could also have been made since the check
+            output.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Close the session
+     * @param id The id of the session
+     * @return true if the session was closed, false if it does not exist
+     * @throws Exception if the replay of the session can't be closed
+     */
+    public boolean close(final long id) throws Exception
+    {
+        final Session session = sessions.remove(id);
+        
+        if (session == null)
+            return false;
+        
+        count.decrementAndGet();
+        
+        session.close();
+        
+        return true;
+    }
+    
+    /**
+     * Close every session that has not been used for a while
+     * @param idle The time a session can go unused (milliseconds)
+     * @return The number of sessions closed
+     */
+    public int expire(final long idle)
+    {
+        final long time = System.currentTimeMillis() - idle;
+        
+        int expired = 0;
+        
+        for (Session session : sessions.values())
+        {
+            //only count the session if it wasn't closed at the same time
+            if (session.getAccessed() < time && sessions.remove(session.getId(), session))
+            {
+                count.decrementAndGet();
+                expired++;
+                
+                try
+                {
+                    session.close();
+                }
+                catch (Exception e)
+                {
+                    e.printStackTrace();
+                }
+            }
+        }
+        
+        return expired;
+    }
+    
+    /**
+     * Get the number of sessions open
+     * @return The total number of sessions open
+     */
+    public int getCount()
+    {
+        return count.get();
+    }
+    
+    /**
+     * Get the number of levels
+     * @return The total number of layouts that can be played
+     */
+    public int getLevels()
+    {
+        return layouts.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,360 @@
+package com.gamesbykevin.sokoban.session;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small http front end to the session manager, used for testing.<br>
+ * Every request is a GET with the parameters in the query, and the response is plain text.
+ * <ul>
+ * <li>/create?level=0 responds with the id of the new session</li>
+ * <li>/move?id=1&amp;direction=WEST responds with blocked, moved or pushed, the direction can also be L, R, U or D</li>
+ * <li>/undo?id=1 responds with true if a move was undone</li>
+ * <li>/redo?id=1 responds with true if a move was redone</li>
+ * <li>/reset?id=1 starts the level over</li>
+ * <li>/state?id=1 responds with the state of the session</li>
+ * <li>/close?id=1 responds with true if the session was closed</li>
+ * </ul>
+ * Requests are handled by a fixed number of threads, the sessions themselves don't need a thread.
+ * The requests aren't checked in any way, so by default the server only listens on this computer.
+ * @author GOD
+ */
+public final class SessionServer implements Disposable
+{
+    //the default port
+    public static final int DEFAULT_PORT = 8080;
+    
+    //the default number of sessions allowed
+    public static final int DEFAULT_MAX_SESSIONS = 50000;
+    
+    //sessions not used for this long are closed (milliseconds)
+    private static final long IDLE_TIME = 30L * 60L * 1000L;
+    
+    //how often we look for idle sessions (milliseconds)
+    private static final long EXPIRE_DELAY = 60L * 1000L;
+    
+    //the sessions
+    private final SessionManager manager;
+    
+    //the http server
+    private HttpServer server;
+    
+    //the threads handling the requests
+    private ExecutorService executor;
+    
+    //the thread closing idle sessions
+    private ScheduledExecutorService expire;
+    
+    /**
+     * Create the server
+     * @param manager The sessions
+     */
+    public SessionServer(final SessionManager manager)
+    {
+        this.manager = manager;
+    }
+    
+    /**
+     * Start the server, only listening on this computer
+     * @param port The port to listen on
+     * @param threads The number of threads handling requests
+     * @throws Exception if the server can't be started
+     */
+    public void start(final int port, final int threads) throws Exception
+    {
+        start(InetAddress.getLoopbackAddress(), port, threads);
+    }
+    
+    /**
+     * Start the server
+     * @param address The address to listen on, anyone who can reach it can play and close every session
+     * @param port The port to listen on
+     * @param threads The number of threads handling requests
+     * @throws Exception if the server can't be started
+     */
+    public void start(final InetAddress address, final int port, final int threads) throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        
+        final HttpHandler handler = new HttpHandler()
+        {
+            @Override
+            public void handle(final HttpExchange exchange)
+            {
+                SessionServer.this.handle(exchange);
+            }
+        };
+        
+        server.createContext("/", handler);
+        
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.start();
+        
+        expire = Executors.newSingleThreadScheduledExecutor();
+        expire.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                manager.expire(IDLE_TIME);
+            }
+        }, EXPIRE_DELAY, EXPIRE_DELAY, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Handle a request, sending the response
+     * @param exchange The request and response
+     */
+    private void handle(final HttpExchange exchange)
+    {
+        int status = 200;
+        String response;
+        
+        try
+        {
+            response = respond(exchange.getRequestURI().getPath(), parse(exchange.getRequestURI().getRawQuery()));
+        }
+        catch (Exception e)
+        {
+            status = 400;
+            response = e.getMessage() + "\n";
+        }
+        
+        try
+        {
+            final byte[] bytes = response.getBytes("UTF-8");
+            
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            
+            try (OutputStream output = exchange.getResponseBody())
+            {
+                output.write(bytes);
+            }
+        }
+        catch (Exception e)
+        {
+            //the client went away, nothing else we can do
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Perform the request
+     * @param path The path of the request
+     * @param parameters The parameters of the request
+     * @return The response
+     * @throws Exception if the request is not valid
+     */
+    private String respond(final String path, final Map<String, String> parameters) throws Exception
+    {
+        switch (path)
+        {
+            case "/create":
+                return manager.create(getInt(parameters, "level")) + "\n";
+            
+            case "/move":
+                switch (manager.move(getId(parameters), getDirection(parameters)))
+                {
+                    case Board.BLOCKED:
+                        return "blocked\n";
+                    
+                    case Board.PUSHED:
+                        return "pushed\n";
+                    
+                    default:
+                        return "moved\n";
+                }
+            
+            case "/undo":
+                return manager.undo(getId(parameters)) + "\n";
+            
+            case "/redo":
+                return manager.redo(getId(parameters)) + "\n";
+            
+            case "/reset":
+                manager.get(getId(parameters)).reset();
+                return "true\n";
+            
+            case "/state":
+                return manager.getState(getId(parameters));
+            
+            case "/close":
+                return manager.close(getId(parameters)) + "\n";
+            
+            default:
+                throw new Exception("Unknown request " + path);
+        }
+    }
+    
+    /**
+     * Read the parameters from the query
+     * @param query The raw query, can be null
+     * @return The parameters by name
+     * @throws Exception if the query can't be decoded
+     */
+    private static Map<String, String> parse(final String query) throws Exception
+    {
+        final Map<String, String> parameters = new HashMap<>();
+        
+        if (query == null)
+            return parameters;
+        
+        for (String pair : query.split("&"))
+        {
+            final int index = pair.indexOf('=');
+            
+            if (index > 0)
+                parameters.put(URLDecoder.decode(pair.substring(0, index), "UTF-8"), URLDecoder.decode(pair.substring(index + 1), "UTF-8"));
+        }
+        
+        return parameters;
+    }
+    
+    /**
+     * Get a number parameter
+     * @param parameters The parameters of the request
+     * @param name The name of the parameter
+     * @return The value
+     * @throws Exception if the parameter is missing or not a number
+     */
+    private static int getInt(final Map<String, String> parameters, final String name) throws Exception
+    {
+        final String value = parameters.get(name);
+        
+        if (value == null)
+            throw new Exception("Missing parameter " + name);
+        
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new Exception("Invalid " + name + " " + value);
+        }
+    }
+    
+    /**
+     * Get the session id parameter
+     * @param parameters The parameters of the request
+     * @return The id of the session
+     * @throws Exception if the id is missing or not a number
+     */
+    private static long getId(final Map<String, String> parameters) throws Exception
+    {
+        final String value = parameters.get("id");
+        
+        if (value == null)
+            throw new Exception("Missing parameter id");
+        
+        try
+        {
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new Exception("Invalid id " + value);
+        }
+    }
+    
+    /**
+     * Get the direction parameter
+     * @param parameters The parameters of the request
+     * @return The direction
+     * @throws Exception if the direction is missing or not valid
+     */
+    private static Direction getDirection(final Map<String, String> parameters) throws Exception
+    {
+        final String value = parameters.get("direction");
+        
+        if (value == null)
+            throw new Exception("Missing parameter direction");
+        
+        switch (value.toUpperCase())
+        {
+            case "L":
+                return Direction.WEST;
+            
+            case "R":
+                return Direction.EAST;
+            
+            case "U":
+                return Direction.NORTH;
+            
+            case "D":
+                return Direction.SOUTH;
+            
+            default:
+                try
+                {
+                    return Direction.valueOf(value.toUpperCase());
+                }
+                catch (IllegalArgumentException e)
+                {
+                    throw new Exception("Invalid direction " + value);
+                }
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (server != null)
+        {
+            server.stop(0);
+            server = null;
+        }
+        
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+        
+        if (expire != null)
+        {
+            expire.shutdown();
+            expire = null;
+        }
+    }
+    
+    /**
+     * Start the server with the levels included with the game
+     * @param args The port, the number of threads handling requests, and the address to listen on (only this computer if not set)
+     * @throws Exception if the levels can't be read or the server can't be started
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        final int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        final int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        final InetAddress address = (args.length > 2) ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        
+        final SessionServer server = new SessionServer(new SessionManager(Layouts.read(), DEFAULT_MAX_SESSIONS));
+        server.start(address, port, threads);
+        
+        System.out.println("Session server listening on " + address.getHostAddress() + ":" + port);
+    }
+}
\ No newline at end of file
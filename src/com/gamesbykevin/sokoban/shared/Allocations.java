@@ -0,0 +1,143 @@
+package com.gamesbykevin.sokoban.shared;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the memory allocated by the game thread each update.<br>
+ * Once the game has warmed up the average of each second is kept, along with the largest average.
+ * This only measures, the limit is checked by the tests.
+ * @author GOD
+ */
+public final class Allocations
+{
+    //the number of updates before we start checking, so loading isn't counted
+    private static final int WARMUP = Shared.DEFAULT_UPS * 10;
+    
+    //the number of updates averaged for each check
+    private static final int WINDOW = Shared.DEFAULT_UPS;
+    
+    //object used to read the allocated bytes, null if not supported by this JVM
+    private final com.sun.management.ThreadMXBean bean;
+    
+    //the id of the game thread, -1 until the first update
+    private long thread = -1;
+    
+    //the bytes allocated by reading the allocated bytes
+    private long overhead = 0;
+    
+    //the bytes allocated when last checked
+    private long previous = 0;
+    
+    //the number of updates measured
+    private long updates = 0;
+    
+    //the bytes allocated in the current window
+    private long bytes = 0;
+    
+    //the average bytes per update of the last window, and the largest average since warming up
+    private long average = 0, max = 0;
+    
+    public Allocations()
+    {
+        final ThreadMXBean tmp = ManagementFactory.getThreadMXBean();
+        
+        if (tmp instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)tmp).isThreadAllocatedMemorySupported())
+        {
+            this.bean = (com.sun.management.ThreadMXBean)tmp;
+            this.bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        else
+        {
+            this.bean = null;
+        }
+    }
+    
+    /**
+     * Measure the bytes allocated since the last update, this is called once at the end of each update on the game thread
+     */
+    public void update()
+    {
+        //we can't measure
+        if (bean == null)
+            return;
+        
+        //the first update starts measuring
+        if (thread < 0)
+        {
+            thread = Thread.currentThread().getId();
+            
+            //measure the cost of reading the bytes, so it isn't counted
+            final long first = bean.getThreadAllocatedBytes(thread);
+            previous = bean.getThreadAllocatedBytes(thread);
+            overhead = previous - first;
+            return;
+        }
+        
+        final long current = bean.getThreadAllocatedBytes(thread);
+        
+        bytes += Math.max(0, current - previous - overhead);
+        previous = current;
+        updates++;
+        
+        //check once the window is complete
+        if (updates % WINDOW != 0)
+            return;
+        
+        average = bytes / WINDOW;
+        bytes = 0;
+        
+        //don't check until we have warmed up
+        if (updates < WARMUP)
+            return;
+        
+        max = Math.max(max, average);
+    }
+    
+    /**
+     * Can the allocations be measured
+     * @return true if this JVM can measure the bytes allocated by a thread, false otherwise
+     */
+    public boolean isSupported()
+    {
+        return (bean != null);
+    }
+    
+    /**
+     * Get the largest average
+     * @return The largest average bytes per update since warming up
+     */
+    public long getMax()
+    {
+        return this.max;
+    }
+    
+    /**
+     * Draw the results
+     * @param graphics Object used to draw
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return The y-coordinate below the last line drawn
+     */
+    public int render(final Graphics graphics, final int x, final int y)
+    {
+        final int height = graphics.getFontMetrics().getHeight();
+        
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(x, y, 360, height);
+        graphics.setColor(Color.WHITE);
+        
+        if (bean == null)
+        {
+            graphics.drawString("Allocations can't be measured", x + 2, y + height);
+        }
+        else
+        {
+            graphics.drawString("Allocated per update = " + average + " bytes, max = " + max + " bytes", x + 2, y + height);
+        }
+        
+        return y + height;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,284 @@
+package com.gamesbykevin.sokoban.shared;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * A recording of what the game was doing, kept in memory and written to a file when requested.<br>
+ * The most recent events are kept in fixed arrays, so recording an event never creates any objects.
+ * The name of each thread is kept the first time it records an event, each event keeps only the index of the name.
+ * The updates are kept apart from the other events, so the updates of a long game don't replace the rare events.
+ * The time of each event is written as time since the JVM started, the same as the GC log, so they can be compared.
+ * @author GOD
+ */
+public final class Events
+{
+    /**
+     * The types of events and the values they record
+     */
+    public enum Type
+    {
+        //a single update, values are the update, render and present time (nanoseconds)
+        GameTick,
+        
+        //all levels parsed, values are the lines, levels created and time spent parsing (nanoseconds)
+        LevelParse,
+        
+        //a single resource loaded, name is the group, value is the index in the group
+        ResourceLoad,
+        
+        //a level started, values are the level id and 1 if it was restarted
+        LevelStart,
+        
+        //a level solved, values are the level id and the number of moves, duration is the time since it started
+        LevelComplete,
+        
+        //audio played, name is the key, value is 1 if it is music
+        AudioPlay
+    }
+    
+    //the file the events are written to, in the user's home directory
+    private static final String FILE_NAME = "sokoban-events.csv";
+    
+    //the most updates kept, about 4 minutes of updates
+    private static final int TICK_CAPACITY = 16384;
+    
+    //the most of every other event kept, these are rare so they are kept much longer than the updates
+    private static final int CAPACITY = 4096;
+    
+    //how many nanoseconds are there in one millisecond
+    private static final double NANO_SECONDS_PER_MILLISECOND = 1000000.0;
+    
+    //the updates are kept on their own, so they don't replace the other events
+    private static final Ring TICKS = new Ring(TICK_CAPACITY);
+    
+    //every other event
+    private static final Ring OTHERS = new Ring(CAPACITY);
+    
+    //the id and name of each thread that recorded an event, the name is only read once as reading it creates a new string
+    private static long[] threadIds = new long[8];
+    private static String[] threadNames = new String[8];
+    
+    //the number of threads that recorded an event
+    private static int threadCount = 0;
+    
+    //the time the JVM started, as nano time
+    private static final long ORIGIN = System.nanoTime() - (ManagementFactory.getRuntimeMXBean().getUptime() * 1000000L);
+    
+    /**
+     * The most recent events, when full the oldest event is replaced
+     */
+    private static final class Ring
+    {
+        //the data for each event
+        private final Type[] types;
+        private final int[] threads;
+        private final String[] names;
+        private final long[] starts;
+        private final long[] durations;
+        private final long[] values1;
+        private final long[] values2;
+        private final long[] values3;
+        
+        //the most events kept
+        private final int capacity;
+        
+        //the total number of events recorded
+        private long count = 0;
+        
+        private Ring(final int capacity)
+        {
+            this.capacity = capacity;
+            this.types = new Type[capacity];
+            this.threads = new int[capacity];
+            this.names = new String[capacity];
+            this.starts = new long[capacity];
+            this.durations = new long[capacity];
+            this.values1 = new long[capacity];
+            this.values2 = new long[capacity];
+            this.values3 = new long[capacity];
+        }
+        
+        /**
+         * Add an event, replacing the oldest if full, the values are the same as record
+         */
+        private void add(final Type type, final int thread, final long start, final long duration, final String name, final long value1, final long value2, final long value3)
+        {
+            final int index = (int)(count % capacity);
+            
+            types[index] = type;
+            threads[index] = thread;
+            names[index] = name;
+            starts[index] = start;
+            durations[index] = duration;
+            values1[index] = value1;
+            values2[index] = value2;
+            values3[index] = value3;
+            
+            count++;
+        }
+        
+        /**
+         * Get the number of events kept
+         * @return The number of events that can be read
+         */
+        private int size()
+        {
+            return (int)Math.min(count, capacity);
+        }
+        
+        /**
+         * Get where the event is kept
+         * @param order The order of the event kept, 0 is the oldest
+         * @return The index in the arrays
+         */
+        private int getIndex(final int order)
+        {
+            return (int)((Math.max(0, count - capacity) + order) % capacity);
+        }
+        
+        /**
+         * Copy every event kept
+         * @return A new ring containing only the events kept, the oldest first
+         */
+        private Ring copy()
+        {
+            final Ring ring = new Ring(Math.max(1, size()));
+            
+            for (int i = 0; i < size(); i++)
+            {
+                final int index = getIndex(i);
+                
+                ring.add(types[index], threads[index], starts[index], durations[index], names[index], values1[index], values2[index], values3[index]);
+            }
+            
+            return ring;
+        }
+        
+        /**
+         * Write the event as a line of the file
+         * @param writer Where the line is written
+         * @param threadNames The name of each thread
+         * @param order The order of the event kept, 0 is the oldest
+         */
+        private void write(final PrintWriter writer, final String[] threadNames, final int order)
+        {
+            final int index = getIndex(order);
+            
+            writer.println(
+                String.format("%.3f", (starts[index] - ORIGIN) / NANO_SECONDS_PER_MILLISECOND) + "," +
+                threadNames[threads[index]] + "," +
+                types[index] + "," +
+                String.format("%.3f", durations[index] / NANO_SECONDS_PER_MILLISECOND) + "," +
+                (names[index] != null ? names[index] : "") + "," +
+                values1[index] + "," +
+                values2[index] + "," +
+                values3[index]
+            );
+        }
+    }
+    
+    private Events()
+    {
+        //no instances of this class
+    }
+    
+    /**
+     * Record an event, this can be called from any thread
+     * @param type The type of event
+     * @param start The time the event started (nanoseconds)
+     * @param duration How long the event took (nanoseconds)
+     * @param name The name of the event, can be null
+     * @param value1 The first value, depends on the type
+     * @param value2 The second value, depends on the type
+     * @param value3 The third value, depends on the type
+     */
+    public static synchronized void record(final Type type, final long start, final long duration, final String name, final long value1, final long value2, final long value3)
+    {
+        //the updates have their own events, so they don't replace the other events
+        final Ring ring = (type == Type.GameTick) ? TICKS : OTHERS;
+        
+        ring.add(type, getThread(), start, duration, name, value1, value2, value3);
+    }
+    
+    /**
+     * Get the index of the current thread's name, the name is kept the first time the thread records an event
+     * @return The index of the name of the current thread
+     */
+    private static int getThread()
+    {
+        final long id = Thread.currentThread().getId();
+        
+        for (int i = 0; i < threadCount; i++)
+        {
+            if (threadIds[i] == id)
+                return i;
+        }
+        
+        if (threadCount == threadIds.length)
+        {
+            threadIds = Arrays.copyOf(threadIds, threadCount * 2);
+            threadNames = Arrays.copyOf(threadNames, threadCount * 2);
+        }
+        
+        threadIds[threadCount] = id;
+        threadNames[threadCount] = Thread.currentThread().getName();
+        
+        return threadCount++;
+    }
+    
+    /**
+     * Record an event that happened at this time
+     * @param type The type of event
+     * @param name The name of the event, can be null
+     * @param value1 The first value, depends on the type
+     * @param value2 The second value, depends on the type
+     */
+    public static void record(final Type type, final String name, final long value1, final long value2)
+    {
+        record(type, System.nanoTime(), 0, name, value1, value2, 0);
+    }
+    
+    /**
+     * Write the events kept to the file in the user's home directory, replacing what was there.<br>
+     * The events are copied first, so recording only waits for the copy and not for the file to be written.
+     * @throws Exception if the file can't be written
+     */
+    public static void write() throws Exception
+    {
+        final Ring ticks, others;
+        final String[] threads;
+        
+        synchronized (Events.class)
+        {
+            ticks = TICKS.copy();
+            others = OTHERS.copy();
+            threads = Arrays.copyOf(threadNames, threadCount);
+        }
+        
+        final File file = new File(System.getProperty("user.home"), FILE_NAME);
+        
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file)))
+        {
+            writer.println("uptime_ms,thread,event,duration_ms,name,value1,value2,value3");
+            
+            int tick = 0, other = 0;
+            
+            //write the events of both in the order they started, from the oldest event kept
+            while (tick < ticks.size() || other < others.size())
+            {
+                if (other >= others.size() || tick < ticks.size() && ticks.starts[ticks.getIndex(tick)] <= others.starts[others.getIndex(other)])
+                {
+                    ticks.write(writer, threads, tick++);
+                }
+                else
+                {
+                    others.write(writer, threads, other++);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
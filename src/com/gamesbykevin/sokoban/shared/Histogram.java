@@ -0,0 +1,137 @@
+package com.gamesbykevin.sokoban.shared;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations using a fixed number of equal sized buckets.<br>
+ * Adding a value only increases a counter, so it can be done every update without creating any objects.
+ * @author GOD
+ */
+public final class Histogram
+{
+    //how many nanoseconds are there in one millisecond
+    private static final double NANO_SECONDS_PER_MILLISECOND = 1000000.0;
+    
+    //the size of each bucket (nanoseconds)
+    private final long width;
+    
+    //the number of values in each bucket, the last bucket also holds every value too large for the others
+    private final long[] buckets;
+    
+    //the number of values added
+    private long count = 0;
+    
+    //the sum of all values added (nanoseconds)
+    private long total = 0;
+    
+    //the largest value added (nanoseconds)
+    private long max = 0;
+    
+    /**
+     * Create a new histogram
+     * @param width The size of each bucket (nanoseconds)
+     * @param size The number of buckets
+     */
+    public Histogram(final long width, final int size)
+    {
+        this.width = width;
+        this.buckets = new long[size];
+    }
+    
+    /**
+     * Add a value
+     * @param value The duration (nanoseconds)
+     */
+    public void add(final long value)
+    {
+        final long tmp = Math.max(0, value);
+        
+        buckets[(int)Math.min(tmp / width, buckets.length - 1)]++;
+        
+        count++;
+        total += tmp;
+        max = Math.max(max, tmp);
+    }
+    
+    /**
+     * Get the number of values added
+     * @return The total number of values
+     */
+    public long getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Get the largest value added
+     * @return The largest duration (nanoseconds)
+     */
+    public long getMax()
+    {
+        return this.max;
+    }
+    
+    /**
+     * Get the average value
+     * @return The average duration (nanoseconds), 0 if nothing has been added
+     */
+    public long getMean()
+    {
+        return (count > 0) ? total / count : 0;
+    }
+    
+    /**
+     * Get the percentile.<br>
+     * The result is the top of the bucket the percentile falls in, so it is accurate to the bucket size.
+     * @param percentile The percentile we want (0.0 - 1.0)
+     * @return The duration (nanoseconds) that percentile of the values are at or below, 0 if nothing has been added
+     */
+    public long getPercentile(final double percentile)
+    {
+        if (count == 0)
+            return 0;
+        
+        //the number of values that need to be at or below the result
+        final long rank = Math.max(1, (long)Math.ceil(percentile * count));
+        
+        long sum = 0;
+        
+        for (int i = 0; i < buckets.length; i++)
+        {
+            sum += buckets[i];
+            
+            if (sum >= rank)
+                return Math.min(max, (i + 1) * width);
+        }
+        
+        return max;
+    }
+    
+    /**
+     * Remove all values
+     */
+    public void reset()
+    {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+    
+    /**
+     * Describe the histogram in milliseconds
+     * @return Text containing the count, p50, p95, p99 and max
+     */
+    @Override
+    public String toString()
+    {
+        return String.format(
+            "n = %d, p50 = %.1f, p95 = %.1f, p99 = %.1f, max = %.1f ms",
+            count,
+            getPercentile(0.50) / NANO_SECONDS_PER_MILLISECOND,
+            getPercentile(0.95) / NANO_SECONDS_PER_MILLISECOND,
+            getPercentile(0.99) / NANO_SECONDS_PER_MILLISECOND,
+            max / NANO_SECONDS_PER_MILLISECOND
+        );
+    }
+}
\ No newline at end of file
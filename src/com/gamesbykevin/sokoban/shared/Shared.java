@@ -1,6 +1,7 @@
 package com.gamesbykevin.sokoban.shared;
 
 import java.awt.Cursor;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
@@ -26,15 +27,21 @@ public final class Shared
     public static final int ORIGINAL_WIDTH  = 512;
     public static final int ORIGINAL_HEIGHT = 512;
     
-    //do we hide mouse when the menu is not visible and actual gameplay has started
-    public static boolean HIDE_MOUSE = true;
+    //do we hide mouse when the menu is not visible and actual gameplay has started, the mouse is shown so cells can be clicked to move
+    public static boolean HIDE_MOUSE = false;
+    
+    //do the level objects move instantly instead of sliding to their destination
+    public static boolean INSTANT_MOVES = false;
     
     //how many updates per second, controls speed of game
     public static final int DEFAULT_UPS = 60;
     
+    //how much of each update can be spent loading (nanoseconds), half of the update leaves time to draw the progress
+    public static final long LOAD_TIME_SLICE = (1000000000L / DEFAULT_UPS) / 2;
+    
     //what is the name of our game
     public static final String GAME_NAME = "Sokoban";
     
-    //blank cursor created here to hide the mouse cursor
-    public static final Cursor CURSOR = Toolkit.getDefaultToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(0, 0), "blank cursor");
+    //blank cursor created here to hide the mouse cursor, without a display (the tests) there is no cursor to hide
+    public static final Cursor CURSOR = GraphicsEnvironment.isHeadless() ? Cursor.getDefaultCursor() : Toolkit.getDefaultToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(0, 0), "blank cursor");
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.gamesbykevin.sokoban.shared;
+
+/**
+ * A portion of time in each update that work can use before it needs to yield.<br>
+ * Loading is split into small units of work, and we keep doing units until the time slice is used up.
+ * @author GOD
+ */
+public final class TimeSlice
+{
+    //how long the slice lasts (nanoseconds)
+    private final long duration;
+    
+    //the time the slice started (nanoseconds)
+    private long start;
+    
+    /**
+     * Create a new time slice
+     * @param duration How long the slice lasts (nanoseconds)
+     */
+    public TimeSlice(final long duration)
+    {
+        this.duration = duration;
+        
+        //start the slice
+        start();
+    }
+    
+    /**
+     * Start the slice at the current time, this is done at the beginning of each update
+     */
+    public void start()
+    {
+        this.start = System.nanoTime();
+    }
+    
+    /**
+     * Has the time slice been used up
+     * @return true if the duration has passed since the slice started, false otherwise
+     */
+    public boolean hasExpired()
+    {
+        return (System.nanoTime() - start >= duration);
+    }
+}
\ No newline at end of file
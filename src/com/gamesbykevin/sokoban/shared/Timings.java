@@ -0,0 +1,252 @@
+package com.gamesbykevin.sokoban.shared;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent in each part of the game loop, every update.<br>
+ * The results are kept in histograms which are written to a file periodically and then started over.
+ * @author GOD
+ */
+public final class Timings
+{
+    /**
+     * The parts of the game loop that are timed
+     */
+    public enum Key
+    {
+        Frame, EngineUpdate, ManagerUpdate, LevelsUpdate, PlayerUpdate, EngineRender, DrawScreen
+    }
+    
+    //the file the results are written to, in the user's home directory
+    private static final String FILE_NAME = "sokoban-metrics.txt";
+    
+    //how often the results are written to the file (nanoseconds)
+    private static final long EXPORT_PERIOD = 10000000000L;
+    
+    //the longest we wait for the results to be written when disposed (milliseconds)
+    private static final long DISPOSE_TIMEOUT = 2000L;
+    
+    //each bucket is 0.1 milliseconds, up to 100 milliseconds
+    private static final long BUCKET_WIDTH = 100000L;
+    private static final int BUCKETS = 1000;
+    
+    //how many nanoseconds are there in one second
+    private static final long NANO_SECONDS_PER_SECOND = 1000000000L;
+    
+    //the histogram for each key
+    private final Histogram[] histograms;
+    
+    //the time the current period started (nanoseconds)
+    private long period;
+    
+    //the time the current second started (nanoseconds)
+    private long second;
+    
+    //the number of updates in the current second, and in the last complete second
+    private int updates = 0, ups = 0;
+    
+    //the results are written on a separate thread so the game loop never waits on the file
+    private ExecutorService writer;
+    
+    public Timings()
+    {
+        this.histograms = new Histogram[Key.values().length];
+        
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new Histogram(BUCKET_WIDTH, BUCKETS);
+        }
+        
+        this.period = System.nanoTime();
+        this.second = this.period;
+    }
+    
+    /**
+     * Add the time spent
+     * @param key The part of the game loop
+     * @param duration The time spent (nanoseconds)
+     */
+    public void add(final Key key, final long duration)
+    {
+        histograms[key.ordinal()].add(duration);
+    }
+    
+    /**
+     * Get the histogram
+     * @param key The part of the game loop
+     * @return The histogram containing the time spent in the current period
+     */
+    public Histogram get(final Key key)
+    {
+        return histograms[key.ordinal()];
+    }
+    
+    /**
+     * Count the update, this is called once at the end of each update
+     * @param time The current time (nanoseconds)
+     */
+    public void update(final long time)
+    {
+        updates++;
+        
+        //if 1 second has passed store the updates per second
+        if (time - second >= NANO_SECONDS_PER_SECOND)
+        {
+            ups = updates;
+            updates = 0;
+            second = time;
+        }
+        
+        //if the period has passed write the results and start over
+        if (time - period >= EXPORT_PERIOD)
+        {
+            export();
+            period = time;
+        }
+    }
+    
+    /**
+     * Get the updates per second
+     * @return The number of updates in the last complete second
+     */
+    public int getUps()
+    {
+        return this.ups;
+    }
+    
+    /**
+     * Write the results of the current period to the file and start over
+     */
+    private void export()
+    {
+        //create the text here, so the histograms can be reset right away
+        final String text = toString();
+        
+        for (Histogram histogram : histograms)
+        {
+            histogram.reset();
+        }
+        
+        if (writer == null)
+        {
+            writer = Executors.newSingleThreadExecutor(new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, "Timings");
+                    
+                    //don't keep the application running because of the file
+                    thread.setDaemon(true);
+                    
+                    return thread;
+                }
+            });
+        }
+        
+        writer.submit(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                write(text);
+            }
+        });
+    }
+    
+    /**
+     * Add the text to the end of the file in the user's home directory
+     * @param text The results to write
+     */
+    private static void write(final String text)
+    {
+        try (PrintWriter tmp = new PrintWriter(new FileWriter(new File(System.getProperty("user.home"), FILE_NAME), true)))
+        {
+            tmp.println(text);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Draw the results
+     * @param graphics Object used to draw
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return The y-coordinate below the last line drawn
+     */
+    public int render(final Graphics graphics, final int x, final int y)
+    {
+        final int height = graphics.getFontMetrics().getHeight();
+        
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(x, y, 360, height * (histograms.length + 2));
+        graphics.setColor(Color.WHITE);
+        graphics.drawString("UPS = " + ups, x + 2, y + height);
+        
+        for (Key key : Key.values())
+        {
+            graphics.drawString(key + " " + get(key), x + 2, y + (height * (key.ordinal() + 2)));
+        }
+        
+        return y + (height * (histograms.length + 2));
+    }
+    
+    /**
+     * Write the results that haven't been written yet, and stop the thread writing to the file.<br>
+     * The thread doesn't keep the application running, so this waits a short time for the results to be written.
+     */
+    public void dispose()
+    {
+        if (get(Key.Frame).getCount() > 0)
+            export();
+        
+        if (writer != null)
+        {
+            //the results waiting will still be written
+            writer.shutdown();
+            
+            try
+            {
+                if (!writer.awaitTermination(DISPOSE_TIMEOUT, TimeUnit.MILLISECONDS))
+                    System.err.println("Timings were not written to " + FILE_NAME);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            
+            writer = null;
+        }
+    }
+    
+    /**
+     * Describe the results of the current period
+     * @return Text containing a line for each part of the game loop
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder();
+        
+        builder.append(new Date()).append(", UPS = ").append(ups).append(System.lineSeparator());
+        
+        for (Key key : Key.values())
+        {
+            builder.append(String.format("%-14s %s", key, get(key))).append(System.lineSeparator());
+        }
+        
+        return builder.toString();
+    }
+}
\ No newline at end of file
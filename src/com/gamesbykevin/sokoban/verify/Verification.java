@@ -0,0 +1,68 @@
+package com.gamesbykevin.sokoban.verify;
+
+/**
+ * The result of checking a solution
+ * @author GOD
+ */
+public final class Verification
+{
+    //the index of the level
+    private final int level;
+    
+    //does the solution solve the level
+    private final boolean valid;
+    
+    //the moves and pushes made before the solution ended or was found invalid
+    private final int moves, pushes;
+    
+    //why the solution is not valid, null if it is valid
+    private final String reason;
+    
+    protected Verification(final int level, final boolean valid, final int moves, final int pushes, final String reason)
+    {
+        this.level = level;
+        this.valid = valid;
+        this.moves = moves;
+        this.pushes = pushes;
+        this.reason = reason;
+    }
+    
+    public int getLevel()
+    {
+        return this.level;
+    }
+    
+    public boolean isValid()
+    {
+        return this.valid;
+    }
+    
+    public int getMoves()
+    {
+        return this.moves;
+    }
+    
+    public int getPushes()
+    {
+        return this.pushes;
+    }
+    
+    /**
+     * Get the reason
+     * @return Why the solution is not valid, null if it is valid
+     */
+    public String getReason()
+    {
+        return this.reason;
+    }
+    
+    /**
+     * Describe the result on a single line, separated by tabs
+     * @return The level, valid, moves, pushes and the reason if not valid
+     */
+    @Override
+    public String toString()
+    {
+        return level + "\t" + valid + "\t" + moves + "\t" + pushes + (reason != null ? "\t" + reason : "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,311 @@
+package com.gamesbykevin.sokoban.verify;
+
+import com.gamesbykevin.framework.resources.Disposable;
+
+import com.gamesbykevin.sokoban.board.Board;
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.board.Lurd;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Checks LURD solutions against the rules, using only the layouts and a board for each thread.<br>
+ * A solution is valid if every move can be made, every letter marks a push exactly when the move pushes a box,
+ * and the level is solved after the last move. Spaces and line breaks in a solution are ignored.
+ * A file of solutions is read in batches, each batch is checked on every thread and written out in order,
+ * so the file is never loaded whole.
+ * @author GOD
+ */
+public final class Verifier implements Disposable
+{
+    //the number of solutions read at once from a file
+    private static final int BATCH_SIZE = 4096;
+    
+    //the layouts the solutions are for
+    private final List<Layout> layouts;
+    
+    //the number of threads checking
+    private final int threads;
+    
+    //the threads checking a batch, null if checked on the calling thread
+    private ExecutorService executor;
+    
+    /**
+     * Create the verifier
+     * @param layouts The layouts the solutions are for
+     * @param threads The number of threads checking a batch
+     */
+    public Verifier(final List<Layout> layouts, final int threads)
+    {
+        this.layouts = layouts;
+        this.threads = threads;
+        
+        if (threads > 1)
+        {
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, "Verifier");
+                    
+                    //don't keep the application running because of the verifier
+                    thread.setDaemon(true);
+                    
+                    return thread;
+                }
+            });
+        }
+    }
+    
+    /**
+     * Check a solution
+     * @param level The index of the level
+     * @param solution The LURD moves
+     * @return The result
+     */
+    public Verification verify(final int level, final CharSequence solution)
+    {
+        return verify(null, level, solution);
+    }
+    
+    /**
+     * Check a solution
+     * @param board The board to check on, reset to the level first, null to create one
+     * @param level The index of the level
+     * @param solution The LURD moves
+     * @return The result
+     */
+    private Verification verify(final Board board, final int level, final CharSequence solution)
+    {
+        final Layout layout = Layouts.find(layouts, level);
+        
+        if (layout == null)
+            return new Verification(level, false, 0, 0, "level not found");
+        
+        final Board tmp;
+        
+        if (board == null)
+        {
+            tmp = new Board(layout);
+        }
+        else
+        {
+            tmp = board;
+            tmp.reset(layout);
+        }
+        
+        for (int i = 0; i < solution.length(); i++)
+        {
+            final char move = solution.charAt(i);
+            
+            if (Character.isWhitespace(move))
+                continue;
+            
+            final Direction direction = Lurd.getDirection(move);
+            
+            if (direction == null)
+                return new Verification(level, false, tmp.getMoves(), tmp.getPushes(), "invalid letter '" + move + "' at " + i);
+            
+            final int result = tmp.step(direction);
+            
+            if (result == Board.BLOCKED)
+                return new Verification(level, false, tmp.getMoves(), tmp.getPushes(), "blocked move at " + i);
+            
+            if ((result == Board.PUSHED) != Lurd.isPush(move))
+                return new Verification(level, false, tmp.getMoves(), tmp.getPushes(), "push does not match letter at " + i);
+        }
+        
+        if (!tmp.isSolved())
+            return new Verification(level, false, tmp.getMoves(), tmp.getPushes(), "not solved");
+        
+        return new Verification(level, true, tmp.getMoves(), tmp.getPushes(), null);
+    }
+    
+    /**
+     * Check a file of solutions, each line is the index of the level, then a space or tab, then the solution.<br>
+     * A result is written for each line in the same order, blank lines are skipped.
+     * @param input The solutions, this will be closed
+     * @param output Where the results are written, this will be closed
+     * @return The number of valid solutions
+     * @throws Exception if the solutions can't be read or the results can't be written
+     */
+    public int verify(final InputStream input, final OutputStream output) throws Exception
+    {
+        int valid = 0;
+        
+        try (Reader tmp = new InputStreamReader(input, "UTF-8"); BufferedReader reader = new BufferedReader(tmp);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, "UTF-8")))
+        {
+            final List<String> lines = new ArrayList<>(BATCH_SIZE);
+            final Verification[] results = new Verification[BATCH_SIZE];
+            
+            String line;
+            
+            do
+            {
+                lines.clear();
+                
+                while (lines.size() < BATCH_SIZE && (line = reader.readLine()) != null)
+                {
+                    if (line.trim().length() > 0)
+                        lines.add(line);
+                }
+                
+                verify(lines, results);
+                
+                for (int i = 0; i < lines.size(); i++)
+                {
+                    if (results[i].isValid())
+                        valid++;
+                    
+                    writer.write(results[i].toString());
+                    writer.write('\n');
+                }
+            }
+            while (lines.size() == BATCH_SIZE);
+        }
+        
+        return valid;
+    }
+    
+    /**
+     * Check a batch of lines, split across the threads
+     * @param lines The lines to check
+     * @param results The result of each line is written here
+     * @throws Exception if there was a problem checking on a thread
+     */
+    private void verify(final List<String> lines, final Verification[] results) throws Exception
+    {
+        if (executor == null)
+        {
+            verify(lines, results, 0, lines.size());
+            return;
+        }
+        
+        final List<Callable<Void>> tasks = new ArrayList<>(threads);
+        
+        for (int i = 0; i < threads; i++)
+        {
+            final int start = (lines.size() * i) / threads;
+            final int end = (lines.size() * (i + 1)) / threads;
+            
+            tasks.add(new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    verify(lines, results, start, end);
+                    return null;
+                }
+            });
+        }
+        
+        //wait for every thread to finish, if there was a problem the exception will be thrown here
+        for (Future<Void> future : executor.invokeAll(tasks))
+        {
+            future.get();
+        }
+    }
+    
+    /**
+     * Check a range of lines on one board
+     * @param lines The lines to check
+     * @param results The result of each line is written here
+     * @param start The first line
+     * @param end The line after the last
+     */
+    private void verify(final List<String> lines, final Verification[] results, final int start, final int end)
+    {
+        Board board = null;
+        
+        for (int i = start; i < end; i++)
+        {
+            final String line = lines.get(i).trim();
+            
+            //the level and solution are separated by the first space or tab
+            int split = 0;
+            
+            while (split < line.length() && !Character.isWhitespace(line.charAt(split)))
+            {
+                split++;
+            }
+            
+            final int level;
+            
+            try
+            {
+                level = Integer.parseInt(line.substring(0, split));
+            }
+            catch (NumberFormatException e)
+            {
+                results[i] = new Verification(-1, false, 0, 0, "invalid level '" + line.substring(0, split) + "'");
+                continue;
+            }
+            
+            final Layout layout = Layouts.find(layouts, level);
+            
+            //the board is created once for each range, then reset for each solution
+            if (board == null && layout != null)
+                board = new Board(layout);
+            
+            results[i] = verify(board, level, line.substring(split).trim());
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Check a file of solutions against the levels included with the game
+     * @param args The solutions file, the results file (- for the console), and the number of threads
+     * @throws Exception if the files can't be read or written
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        if (args.length < 1)
+            throw new Exception("Usage: Verifier solutions [results] [threads]");
+        
+        final OutputStream output = (args.length > 1 && !args[1].equals("-")) ? new FileOutputStream(args[1]) : System.out;
+        final int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        
+        final Verifier verifier = new Verifier(Layouts.read(), threads);
+        
+        try
+        {
+            final long time = System.nanoTime();
+            final int valid = verifier.verify(new FileInputStream(args[0]), output);
+            
+            System.err.println("Valid solutions " + valid + ", time " + ((System.nanoTime() - time) / 1000000L) + "ms");
+        }
+        finally
+        {
+            verifier.dispose();
+        }
+    }
+}
\ No newline at end of file
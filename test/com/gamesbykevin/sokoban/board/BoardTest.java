@@ -0,0 +1,78 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks moving and pushing on the board
+ * @author GOD
+ */
+public class BoardTest
+{
+    /**
+     * Create a layout from the rows of a level
+     * @param rows The rows of the level
+     * @return The layout of the level
+     * @throws Exception if the level can't be created
+     */
+    protected static Layout create(final String... rows) throws Exception
+    {
+        final String[] lines = Arrays.copyOf(rows, rows.length + 1);
+        
+        //the line ending the level
+        lines[rows.length] = "; test";
+        
+        return Layouts.parse(Arrays.asList(lines)).get(0);
+    }
+    
+    @Test
+    public void testStep() throws Exception
+    {
+        final Board board = new Board(create(
+            "#######",
+            "#@ $ .#",
+            "#######"));
+        
+        //the wall is to the west
+        assertEquals(Board.BLOCKED, board.step(Direction.WEST));
+        assertEquals(8, board.getPlayer());
+        
+        assertEquals(Board.MOVED, board.step(Direction.EAST));
+        assertEquals(Board.PUSHED, board.step(Direction.EAST));
+        assertTrue(board.hasBox(11));
+        assertFalse(board.hasBox(10));
+        assertFalse(board.isSolved());
+        
+        assertEquals(Board.PUSHED, board.step(Direction.EAST));
+        assertTrue(board.hasBox(12));
+        assertTrue(board.isSolved());
+        
+        //the box is against the wall
+        assertEquals(Board.BLOCKED, board.step(Direction.EAST));
+        assertEquals(11, board.getPlayer());
+        assertEquals(3, board.getMoves());
+        assertEquals(2, board.getPushes());
+    }
+    
+    @Test
+    public void testPushBlockedByBox() throws Exception
+    {
+        final Board board = new Board(create(
+            "#######",
+            "#@$$..#",
+            "#######"));
+        
+        assertEquals(Board.BLOCKED, board.check(Direction.EAST));
+        assertEquals(Board.BLOCKED, board.step(Direction.EAST));
+        assertEquals(8, board.getPlayer());
+        assertTrue(board.hasBox(9));
+        assertTrue(board.hasBox(10));
+        assertEquals(0, board.getMoves());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the journal keeps the newest moves once the ring is full, and the board undoes and redoes the moves kept
+ * @author GOD
+ */
+public class JournalTest
+{
+    //an odd capacity, so the last byte only holds 1 move
+    private static final int CAPACITY = 5;
+    
+    /**
+     * Get the move added
+     * @param index The order the move was added
+     * @return The direction of the move
+     */
+    private static Direction getDirection(final int index)
+    {
+        return Board.getDirection(index % 4);
+    }
+    
+    /**
+     * Did the move added push a box
+     * @param index The order the move was added
+     * @return true if the move pushed a box, false otherwise
+     */
+    private static boolean isPushed(final int index)
+    {
+        return (index % 3 == 0);
+    }
+    
+    @Test
+    public void testWraparound()
+    {
+        final Journal journal = new Journal(CAPACITY);
+        
+        final int total = (CAPACITY * 2) + 3;
+        
+        for (int i = 0; i < total; i++)
+        {
+            journal.add(getDirection(i), isPushed(i));
+        }
+        
+        //only the newest moves are kept
+        assertEquals(CAPACITY, journal.getPosition());
+        assertEquals(CAPACITY, journal.getSize());
+        
+        for (int i = 0; i < CAPACITY; i++)
+        {
+            final int move = journal.get(i);
+            
+            assertEquals(getDirection(total - CAPACITY + i), Journal.getDirection(move));
+            assertEquals(isPushed(total - CAPACITY + i), Journal.isPushed(move));
+        }
+        
+        //undo returns the newest move first
+        for (int i = total - 1; i >= total - CAPACITY; i--)
+        {
+            final int move = journal.undo();
+            
+            assertEquals(getDirection(i), Journal.getDirection(move));
+            assertEquals(isPushed(i), Journal.isPushed(move));
+        }
+        
+        assertFalse(journal.canUndo());
+        assertEquals(Journal.NONE, journal.undo());
+        
+        //redo returns the oldest move first
+        for (int i = total - CAPACITY; i < total; i++)
+        {
+            final int move = journal.redo();
+            
+            assertEquals(getDirection(i), Journal.getDirection(move));
+            assertEquals(isPushed(i), Journal.isPushed(move));
+        }
+        
+        assertFalse(journal.canRedo());
+        assertEquals(Journal.NONE, journal.redo());
+    }
+    
+    @Test
+    public void testAddForgetsRedo()
+    {
+        final Journal journal = new Journal(CAPACITY);
+        
+        //fill and wrap, then undo some
+        for (int i = 0; i < CAPACITY + 2; i++)
+        {
+            journal.add(getDirection(i), isPushed(i));
+        }
+        
+        journal.undo();
+        journal.undo();
+        
+        assertTrue(journal.canRedo());
+        
+        journal.add(Direction.NORTH, true);
+        
+        assertFalse(journal.canRedo());
+        assertEquals(CAPACITY - 1, journal.getPosition());
+        assertEquals(CAPACITY - 1, journal.getSize());
+        
+        final int move = journal.undo();
+        
+        assertEquals(Direction.NORTH, Journal.getDirection(move));
+        assertTrue(Journal.isPushed(move));
+    }
+    
+    @Test
+    public void testBoardUndoRedo() throws Exception
+    {
+        final Board board = new Board(BoardTest.create(
+            "######",
+            "#    #",
+            "#  $$#",
+            "#@ ..#",
+            "######"));
+        
+        final Journal journal = new Journal(64);
+        
+        final Direction[] moves = {
+            Direction.NORTH, Direction.NORTH, Direction.EAST, Direction.EAST, Direction.SOUTH, Direction.NORTH, Direction.EAST, Direction.SOUTH
+        };
+        
+        for (Direction direction : moves)
+        {
+            final int result = board.step(direction);
+            
+            assertTrue(result != Board.BLOCKED);
+            
+            journal.add(direction, result == Board.PUSHED);
+        }
+        
+        assertTrue(board.isSolved());
+        
+        final int player = board.getPlayer();
+        
+        //undo every move, the board is back at the start
+        while (board.undo(journal))
+        {
+        }
+        
+        assertFalse(board.undo(journal));
+        assertEquals(board.getLayout().getPlayer(), board.getPlayer());
+        assertEquals(0, board.getMoves());
+        assertEquals(0, board.getPushes());
+        
+        for (int i = 0; i < board.getLayout().getBoxCount(); i++)
+        {
+            assertTrue(board.hasBox(board.getLayout().getBox(i)));
+        }
+        
+        //redo every move, the board is solved again
+        while (board.redo(journal))
+        {
+        }
+        
+        assertFalse(board.redo(journal));
+        assertTrue(board.isSolved());
+        assertEquals(player, board.getPlayer());
+        assertEquals(moves.length, board.getMoves());
+        assertEquals(2, board.getPushes());
+    }
+    
+    @Test
+    public void testRedoMismatch() throws Exception
+    {
+        final Board board = new Board(BoardTest.create(
+            "#######",
+            "#@ $ .#",
+            "#######"));
+        
+        //the journal says the first move east pushed a box, but there is no box next to the player
+        final Journal journal = new Journal(CAPACITY);
+        journal.add(Direction.EAST, true);
+        journal.undo();
+        
+        assertFalse(board.redo(journal));
+        
+        //nothing moved, and the move can still be redone
+        assertEquals(board.getLayout().getPlayer(), board.getPlayer());
+        assertEquals(0, board.getMoves());
+        assertTrue(journal.canRedo());
+        assertFalse(journal.canUndo());
+    }
+}
\ No newline at end of file
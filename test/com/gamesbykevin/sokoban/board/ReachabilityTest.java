@@ -0,0 +1,125 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+import com.gamesbykevin.sokoban.level.Levels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the search doesn't wrap between the first and last column, where the cells are next to each other in the bits
+ * @author GOD
+ */
+public class ReachabilityTest
+{
+    //the widest grid, the last column ends each quarter of a long
+    private static final int COLS = Levels.MAX_DIMENSIONS;
+    
+    /**
+     * Walk the path
+     * @param from The cell the path starts
+     * @param path The directions
+     * @param length The length of the path
+     * @return The cell the path ends, -1 if the path leaves the grid or wraps to another row
+     */
+    private static int walk(final int from, final Direction[] path, final int length)
+    {
+        int col = from % COLS;
+        int row = from / COLS;
+        
+        for (int i = 0; i < length; i++)
+        {
+            col += path[i].getCol();
+            row += path[i].getRow();
+            
+            if (col < 0 || col >= COLS || row < 0 || row >= COLS)
+                return -1;
+        }
+        
+        return (row * COLS) + col;
+    }
+    
+    @Test
+    public void testLastColumnIsolated()
+    {
+        final Reachability reachability = new Reachability();
+        reachability.reset(COLS, COLS);
+        
+        //wall off the last column of row 3, the next cell is the first column of row 4 in the next long
+        final int last = (3 * COLS) + COLS - 1;
+        
+        reachability.setWall(last - 1, true);
+        reachability.setWall(last - COLS, true);
+        reachability.setWall(last + COLS, true);
+        
+        assertTrue(reachability.isReachable(last, last));
+        assertFalse(reachability.isReachable(last, last + 1));
+        assertFalse(reachability.isReachable(last + 1, last));
+        assertFalse(reachability.isReachable(0, last));
+    }
+    
+    @Test
+    public void testFirstColumnIsolated()
+    {
+        final Reachability reachability = new Reachability();
+        reachability.reset(COLS, COLS);
+        
+        //wall off the first column of row 2, the previous cell is the last column of row 1
+        final int first = 2 * COLS;
+        
+        reachability.setWall(first + 1, true);
+        reachability.setWall(first - COLS, true);
+        reachability.setWall(first + COLS, true);
+        
+        assertTrue(reachability.isReachable(first, first));
+        assertFalse(reachability.isReachable(first, first - 1));
+        assertFalse(reachability.isReachable(first - 1, first));
+    }
+    
+    @Test
+    public void testPathAcrossRows()
+    {
+        final Reachability reachability = new Reachability();
+        reachability.reset(COLS, COLS);
+        
+        final Direction[] path = new Direction[Board.MAX_CELLS];
+        
+        //the last column of row 3 to the first column of row 4, the path has to cross the whole row
+        final int last = (3 * COLS) + COLS - 1;
+        
+        assertEquals(COLS, reachability.getPath(last, last + 1, path));
+        assertEquals(last + 1, walk(last, path, COLS));
+        
+        assertEquals(COLS, reachability.getPath(last + 1, last, path));
+        assertEquals(last, walk(last + 1, path, COLS));
+    }
+    
+    @Test
+    public void testPushAlongEdges() throws Exception
+    {
+        final Reachability reachability = new Reachability();
+        reachability.reset(COLS, COLS);
+        
+        final Direction[] path = new Direction[Board.MAX_CELLS];
+        
+        //push a box down the last column, then one down the first column
+        final int box = (2 * COLS) + COLS - 1;
+        reachability.setBox(box, true);
+        
+        final int length = reachability.getPushPath(box - COLS, box, box + (4 * COLS), path);
+        
+        assertEquals(4, length);
+        assertEquals(box + (3 * COLS), walk(box - COLS, path, length));
+        
+        reachability.setBox(box, false);
+        reachability.setBox(2 * COLS, true);
+        
+        assertEquals(4, reachability.getPushPath(COLS, 2 * COLS, 6 * COLS, path));
+        assertEquals(5 * COLS, walk(COLS, path, 4));
+        
+        //a box in the first column can't be pushed west
+        assertEquals(-1, reachability.getPushPath(2 * COLS + 1, 2 * COLS, 2 * COLS - 1, path));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.gamesbykevin.sokoban.board;
+
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks a snapshot is the same after writing and reading it, and bad input is refused
+ * @author GOD
+ */
+public class SnapshotTest
+{
+    //where the facing byte is written, after the level and player
+    private static final int FACING_OFFSET = 5;
+    
+    /**
+     * Write the snapshot
+     * @param snapshot The snapshot
+     * @return The bytes written
+     * @throws Exception if the snapshot can't be written
+     */
+    private static byte[] write(final Snapshot snapshot) throws Exception
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        try (DataOutputStream output = new DataOutputStream(bytes))
+        {
+            snapshot.write(output);
+        }
+        
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Read a snapshot
+     * @param bytes The bytes written
+     * @return The snapshot read
+     * @throws Exception if the snapshot can't be read
+     */
+    private static Snapshot read(final byte[] bytes) throws Exception
+    {
+        return Snapshot.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+    
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        final Snapshot snapshot = new Snapshot(7253, 255, Direction.SOUTH, 1000, 300, new int[] { 200, 17, 254 }, 3);
+        
+        final byte[] bytes = write(snapshot);
+        
+        assertEquals(15 + 3, bytes.length);
+        
+        final Snapshot tmp = read(bytes);
+        
+        assertEquals(7253, tmp.getLevel());
+        assertEquals(255, tmp.getPlayer());
+        assertEquals(Direction.SOUTH, tmp.getFacing());
+        assertEquals(1000, tmp.getMoves());
+        assertEquals(300, tmp.getPushes());
+        assertEquals(3, tmp.getBoxCount());
+        
+        //the boxes are kept in ascending order
+        assertEquals(17, tmp.getBox(0));
+        assertEquals(200, tmp.getBox(1));
+        assertEquals(254, tmp.getBox(2));
+    }
+    
+    @Test
+    public void testRoundTripBoard() throws Exception
+    {
+        final Board board = new Board(BoardTest.create(
+            "######",
+            "#    #",
+            "#  $$#",
+            "#@ ..#",
+            "######"));
+        
+        board.step(Direction.NORTH);
+        board.step(Direction.NORTH);
+        board.step(Direction.EAST);
+        board.step(Direction.EAST);
+        board.step(Direction.SOUTH);
+        
+        final Snapshot snapshot = read(write(Snapshot.create(board, null)));
+        
+        assertNull(snapshot.getFacing());
+        
+        //undo everything, then restore
+        board.reset();
+        assertFalse(board.hasBox(21));
+        
+        board.restore(snapshot);
+        
+        assertEquals(15, board.getPlayer());
+        assertEquals(5, board.getMoves());
+        assertEquals(1, board.getPushes());
+        assertTrue(board.hasBox(21));
+        assertTrue(board.hasBox(16));
+        assertFalse(board.hasBox(15));
+    }
+    
+    @Test(expected = EOFException.class)
+    public void testTruncated() throws Exception
+    {
+        final byte[] bytes = write(new Snapshot(1, 10, Direction.WEST, 5, 1, new int[] { 20, 30 }, 2));
+        
+        //the last box is missing
+        read(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+    
+    @Test(expected = EOFException.class)
+    public void testEmpty() throws Exception
+    {
+        read(new byte[0]);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testCorruptFacing() throws Exception
+    {
+        final byte[] bytes = write(new Snapshot(1, 10, Direction.WEST, 5, 1, new int[] { 20, 30 }, 2));
+        
+        bytes[FACING_OFFSET] = 9;
+        
+        read(bytes);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testCorruptBoxes() throws Exception
+    {
+        final byte[] bytes = write(new Snapshot(1, 10, Direction.WEST, 5, 1, new int[] { 20, 30 }, 2));
+        
+        //two boxes in the same cell
+        bytes[bytes.length - 1] = bytes[bytes.length - 2];
+        
+        read(bytes);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testRestoreWrongLevel() throws Exception
+    {
+        final Board board = new Board(BoardTest.create(
+            "#####",
+            "#@$.#",
+            "#####"));
+        
+        //the snapshot has more boxes than the layout
+        board.restore(new Snapshot(0, 6, null, 0, 0, new int[] { 7, 8 }, 2));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks the id the game gives each level is the index of the same level in the layouts
+ * @author GOD
+ */
+public class LevelsTest
+{
+    //every line of the levels text file
+    private static List<String> lines;
+    
+    //every layout in the levels text file
+    private static List<Layout> layouts;
+    
+    @BeforeClass
+    public static void setUpClass() throws Exception
+    {
+        lines = new ArrayList<>();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Layouts.class.getResourceAsStream(Layouts.LEVELS_FILE), "UTF-8")))
+        {
+            String line;
+            
+            while ((line = reader.readLine()) != null)
+            {
+                lines.add(line);
+            }
+        }
+        
+        layouts = Layouts.parse(lines);
+    }
+    
+    @Test
+    public void testIds() throws Exception
+    {
+        //the number of playable levels of every difficulty
+        int total = 0;
+        
+        for (int difficulty = Levels.DIFFICULTY_VERY_EASY; difficulty <= Levels.DIFFICULTY_HARDEST; difficulty++)
+        {
+            final Levels levels = new Levels(difficulty);
+            levels.create(lines, new Random(difficulty));
+            
+            assertTrue(levels.getCount() > 0);
+            
+            for (int i = 0; i < levels.getCount(); i++)
+            {
+                final Level level = levels.getLevel(i);
+                final Layout layout = Layouts.find(layouts, level.getId());
+                
+                //a level without a player is created by the game, but has no layout
+                if (level.getStart() == null)
+                {
+                    assertNull(layout);
+                    continue;
+                }
+                
+                assertNotNull("No layout for level " + level.getId(), layout);
+                assertEquals(level.getColumns(), layout.getColumns());
+                assertEquals(level.getRows(), layout.getRows());
+                assertEquals(layout.getCell((int)level.getStart().getCol(), (int)level.getStart().getRow()), layout.getPlayer());
+                assertEquals(level.getBoxCount(), layout.getBoxCount());
+                
+                total++;
+            }
+        }
+        
+        //each playable level has a difficulty
+        assertEquals(layouts.size(), total);
+    }
+}
\ No newline at end of file
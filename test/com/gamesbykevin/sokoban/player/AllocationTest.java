@@ -0,0 +1,159 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.framework.input.Keyboard;
+import com.gamesbykevin.framework.input.Mouse;
+
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.engine.InputQueue;
+import com.gamesbykevin.sokoban.engine.Latency;
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.Levels;
+import com.gamesbykevin.sokoban.shared.Allocations;
+import com.gamesbykevin.sokoban.shared.Events;
+import com.gamesbykevin.sokoban.shared.Shared;
+import com.gamesbykevin.sokoban.shared.Timings;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+/**
+ * Plays a level without a game window, checking the memory allocated each update.<br>
+ * Each update is the same as the game loop once the level is playing: the level and player are updated with a key pressed,
+ * drawn to an image the size of the window, and then timed and recorded the same as Main.
+ * The menu, the input received by the Engine, and drawing the image to the screen need a game window so they aren't checked,
+ * and the character is drawn by the framework's sprite so it isn't drawn here.
+ * @author GOD
+ */
+public class AllocationTest
+{
+    //the most bytes allowed per update
+    private static final long LIMIT = 256;
+    
+    //the number of updates played before measuring, drawing only stops creating objects once it has been compiled
+    private static final int WARMUP = Shared.DEFAULT_UPS * 30;
+    
+    //the number of updates played, 1 minute of the game
+    private static final int UPDATES = Shared.DEFAULT_UPS * 60;
+    
+    //a move is undone after this many updates
+    private static final int UNDO_RATE = Shared.DEFAULT_UPS;
+    
+    //the keys pressed to move
+    private static final int[] KEYS = {
+        KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_UP, KeyEvent.VK_DOWN
+    };
+    
+    /**
+     * Read the lines of the levels text file included with the game
+     * @return Every line in the file
+     * @throws Exception if the file can't be read
+     */
+    private static List<String> read() throws Exception
+    {
+        final List<String> lines = new ArrayList<>();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Layouts.class.getResourceAsStream(Layouts.LEVELS_FILE), "UTF-8")))
+        {
+            String line;
+            
+            while ((line = reader.readLine()) != null)
+            {
+                lines.add(line);
+            }
+        }
+        
+        return lines;
+    }
+    
+    @Test
+    public void testFrameAllocations() throws Exception
+    {
+        final Allocations allocations = new Allocations();
+        
+        //we can't measure on this JVM
+        assumeTrue(allocations.isSupported());
+        
+        final Random random = new Random(1);
+        
+        final Levels levels = new Levels(Levels.DIFFICULTY_EASY);
+        levels.create(read(), random);
+        
+        final Level level = levels.getLevel();
+        level.reset();
+        
+        final Player player = new Player();
+        player.setCharacterStart(level.getStart());
+        
+        //the image the game is drawn to, and a blank sprite sheet
+        final BufferedImage screen = new BufferedImage(Shared.ORIGINAL_WIDTH, Shared.ORIGINAL_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        final BufferedImage sheet = new BufferedImage(Shared.ORIGINAL_WIDTH, Shared.ORIGINAL_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = screen.createGraphics();
+        
+        level.setImage(sheet);
+        player.renderImages(new Rectangle(0, 0, Shared.ORIGINAL_WIDTH, Shared.ORIGINAL_HEIGHT));
+        
+        final Keyboard keyboard = new Keyboard();
+        final Mouse mouse = new Mouse();
+        final InputQueue input = new InputQueue();
+        final Latency latency = new Latency();
+        final Timings timings = new Timings();
+        
+        //the time of each update (nanoseconds)
+        final long time = 1000000000L / Shared.DEFAULT_UPS;
+        
+        try
+        {
+            for (int i = 0; i < WARMUP + UPDATES; i++)
+            {
+                final long before = System.nanoTime();
+                
+                //the moves are used when pressed, undo when released
+                keyboard.addKeyPressed(KEYS[random.nextInt(KEYS.length)]);
+                
+                if (i % UNDO_RATE == UNDO_RATE - 1)
+                    keyboard.addKeyReleased(KeyEvent.VK_Z);
+                
+                if (!level.hasCompleted())
+                    level.update(time);
+                
+                player.update(levels, keyboard, mouse, input, latency, time);
+                
+                final long updated = System.nanoTime();
+                
+                level.render(graphics);
+                player.render(graphics);
+                latency.setPresented();
+                
+                final long after = System.nanoTime();
+                
+                timings.add(Timings.Key.EngineUpdate, updated - before);
+                timings.add(Timings.Key.EngineRender, after - updated);
+                timings.add(Timings.Key.Frame, after - before);
+                timings.update(after);
+                
+                Events.record(Events.Type.GameTick, before, after - before, null, updated - before, after - updated, 0);
+                
+                if (i >= WARMUP)
+                    allocations.update();
+            }
+        }
+        finally
+        {
+            graphics.dispose();
+            timings.dispose();
+        }
+        
+        assertTrue("Allocated " + allocations.getMax() + " bytes per update, the limit is " + LIMIT + " bytes", allocations.getMax() <= LIMIT);
+    }
+}
\ No newline at end of file
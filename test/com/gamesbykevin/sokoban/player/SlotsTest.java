@@ -0,0 +1,135 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.sokoban.board.Snapshot;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the slots are the same after reading the file again, and a file that can't be read is never replaced
+ * @author GOD
+ */
+public class SlotsTest
+{
+    //where the slots are kept
+    private File file;
+    
+    //where a file that can't be read is moved
+    private File backup;
+    
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("sokoban-slots", ".dat");
+        backup = new File(file.getPath() + ".bad");
+        
+        //start without a file
+        file.delete();
+    }
+    
+    @After
+    public void tearDown()
+    {
+        file.delete();
+        backup.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+    
+    @Test
+    public void testReopen() throws Exception
+    {
+        final Slots slots = new Slots(file);
+        
+        assertNull(slots.get(5, 0));
+        
+        slots.set(0, new Snapshot(5, 10, Direction.EAST, 3, 1, new int[] { 11, 12 }, 2));
+        slots.set(3, new Snapshot(5, 20, null, 7, 2, new int[] { 21, 22 }, 2));
+        slots.set(1, new Snapshot(900, 30, Direction.NORTH, 9, 0, new int[] { 31 }, 1));
+        
+        final Slots tmp = new Slots(file);
+        
+        assertEquals(10, tmp.get(5, 0).getPlayer());
+        assertEquals(Direction.EAST, tmp.get(5, 0).getFacing());
+        assertEquals(20, tmp.get(5, 3).getPlayer());
+        assertNull(tmp.get(5, 1));
+        assertEquals(31, tmp.get(900, 1).getBox(0));
+        assertNull(tmp.get(6, 0));
+    }
+    
+    @Test
+    public void testCorruptFileKept() throws Exception
+    {
+        final byte[] bytes = "not a slots file".getBytes("UTF-8");
+        
+        try (FileOutputStream output = new FileOutputStream(file))
+        {
+            output.write(bytes);
+        }
+        
+        final Slots slots = new Slots(file);
+        
+        try
+        {
+            slots.get(5, 0);
+            fail("The file can't be read");
+        }
+        catch (Exception e)
+        {
+            //expected
+        }
+        
+        //the file was moved aside, not replaced
+        assertFalse(file.exists());
+        assertArrayEquals(bytes, Files.readAllBytes(backup.toPath()));
+        
+        //saving now starts a new file
+        slots.set(0, new Snapshot(5, 10, null, 0, 0, new int[] { 11 }, 1));
+        
+        assertEquals(10, new Slots(file).get(5, 0).getPlayer());
+        assertArrayEquals(bytes, Files.readAllBytes(backup.toPath()));
+    }
+    
+    @Test
+    public void testTruncatedFileKept() throws Exception
+    {
+        final Slots slots = new Slots(file);
+        
+        slots.set(0, new Snapshot(5, 10, null, 3, 1, new int[] { 11, 12 }, 2));
+        slots.set(1, new Snapshot(6, 20, null, 3, 1, new int[] { 21, 22 }, 2));
+        
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        
+        //the last box is missing
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+        
+        final Slots tmp = new Slots(file);
+        
+        try
+        {
+            tmp.set(2, new Snapshot(7, 30, null, 0, 0, new int[] { 31 }, 1));
+            fail("The file can't be read");
+        }
+        catch (Exception e)
+        {
+            //expected
+        }
+        
+        //nothing read from the file is kept, and the file is kept aside
+        assertTrue(backup.isFile());
+        assertEquals(bytes.length - 1, backup.length());
+        assertNull(tmp.get(5, 0));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.gamesbykevin.sokoban.progress;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the records are the same after opening the log again, and a damaged log is repaired or refused
+ * @author GOD
+ */
+public class RecordLogTest
+{
+    //the size of each record in bytes
+    private static final int RECORD_SIZE = 20;
+    
+    //where the records are kept
+    private File file;
+    
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("sokoban-records", ".dat");
+    }
+    
+    @After
+    public void tearDown()
+    {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+    
+    @Test
+    public void testReopen() throws Exception
+    {
+        try (RecordLog log = new RecordLog(file))
+        {
+            assertTrue(log.add(3, 100, 20, 5000));
+            assertTrue(log.add(7000, 50, 10, 9000));
+            
+            //worse in every way
+            assertFalse(log.add(3, 120, 30, 6000));
+            
+            //fewer moves, but slower
+            assertTrue(log.add(3, 90, 25, 7000));
+        }
+        
+        try (RecordLog log = new RecordLog(file))
+        {
+            assertEquals(90, log.getMoves(3));
+            assertEquals(25, log.getPushes(3));
+            assertEquals(5000, log.getTime(3));
+            assertEquals(50, log.getMoves(7000));
+            assertEquals(10, log.getPushes(7000));
+            assertEquals(9000, log.getTime(7000));
+            assertEquals(0, log.getMoves(4));
+            assertEquals(0, log.getMoves(100000));
+        }
+        
+        assertEquals(3 * RECORD_SIZE, file.length());
+    }
+    
+    @Test
+    public void testPartialRecord() throws Exception
+    {
+        try (RecordLog log = new RecordLog(file))
+        {
+            log.add(1, 10, 2, 1000);
+            log.add(2, 20, 4, 2000);
+        }
+        
+        //the game stopped while writing a record
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file, true)))
+        {
+            output.writeInt(3);
+            output.writeInt(30);
+        }
+        
+        try (RecordLog log = new RecordLog(file))
+        {
+            assertEquals(10, log.getMoves(1));
+            assertEquals(20, log.getMoves(2));
+            assertEquals(0, log.getMoves(3));
+            
+            //the partial record is removed, so new records are read again
+            assertTrue(log.add(4, 40, 8, 4000));
+        }
+        
+        assertEquals(3 * RECORD_SIZE, file.length());
+        
+        try (RecordLog log = new RecordLog(file))
+        {
+            assertEquals(40, log.getMoves(4));
+            assertEquals(8, log.getPushes(4));
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testCorruptRecord() throws Exception
+    {
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file)))
+        {
+            output.writeInt(-5);
+            output.writeInt(10);
+            output.writeInt(2);
+            output.writeLong(1000);
+        }
+        
+        new RecordLog(file).close();
+    }
+    
+    @Test
+    public void testCompact() throws Exception
+    {
+        //keep beating the same level until the log is compacted
+        try (RecordLog log = new RecordLog(file))
+        {
+            for (int moves = 5000; moves > 3000; moves--)
+            {
+                assertTrue(log.add(0, moves, 0, 1000));
+            }
+        }
+        
+        assertTrue(file.length() < 1024 * RECORD_SIZE);
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        
+        try (RecordLog log = new RecordLog(file))
+        {
+            assertEquals(3001, log.getMoves(0));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.gamesbykevin.sokoban.session;
+
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+import com.gamesbykevin.sokoban.env.Environment;
+import com.gamesbykevin.sokoban.level.Direction;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks a level is found by the index the game gives it, not its position in the layouts
+ * @author GOD
+ */
+public class SessionManagerTest
+{
+    //the layouts, the level with index 1 has no player so it is skipped
+    private List<Layout> layouts;
+    
+    @Before
+    public void setUp() throws Exception
+    {
+        layouts = Layouts.parse(Arrays.asList(
+            "#####",
+            "#@$.#",
+            "#####",
+            "; first",
+            "#####",
+            "#   #",
+            "#####",
+            "; no player",
+            "######",
+            "#@$ .#",
+            "######",
+            "; third"));
+        
+        assertEquals(2, layouts.size());
+    }
+    
+    @Test
+    public void testCreate() throws Exception
+    {
+        final SessionManager manager = new SessionManager(layouts, 4);
+        
+        assertEquals("third", manager.get(manager.create(2)).getLayout().getName());
+        assertEquals("first", manager.get(manager.create(0)).getLayout().getName());
+        
+        //the level without a player, and past the end
+        for (int level : new int[] { 1, 3, -1 })
+        {
+            try
+            {
+                manager.create(level);
+                fail("Level " + level + " does not exist");
+            }
+            catch (Exception e)
+            {
+                //expected
+            }
+        }
+    }
+    
+    @Test
+    public void testEnvironmentReset() throws Exception
+    {
+        final Environment environment = new Environment(layouts, 10);
+        
+        environment.reset(2);
+        
+        assertEquals(2, environment.getBoard().getLayout().getIndex());
+        
+        try
+        {
+            environment.reset(1);
+            fail("Level 1 does not exist");
+        }
+        catch (Exception e)
+        {
+            //expected
+        }
+        
+        //the episode of the level found is kept
+        assertEquals(2, environment.getBoard().getLayout().getIndex());
+    }
+    
+    @Test
+    public void testRecordAfterMove() throws Exception
+    {
+        final SessionManager manager = new SessionManager(layouts, 4);
+        
+        final long id = manager.create(0);
+        
+        manager.move(id, Direction.EAST);
+        
+        //remember if the output was closed
+        final boolean[] closed = new boolean[1];
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream()
+        {
+            @Override
+            public void close()
+            {
+                closed[0] = true;
+            }
+        };
+        
+        try
+        {
+            manager.record(id, output);
+            fail("A session can only be recorded from the start of the level");
+        }
+        catch (Exception e)
+        {
+            //expected
+        }
+        
+        //nothing was written, and the output was closed
+        assertEquals(0, output.size());
+        assertTrue(closed[0]);
+    }
+}
\ No newline at end of file
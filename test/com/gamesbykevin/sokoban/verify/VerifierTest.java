@@ -0,0 +1,83 @@
+package com.gamesbykevin.sokoban.verify;
+
+import com.gamesbykevin.sokoban.board.Layout;
+import com.gamesbykevin.sokoban.board.Layouts;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the solutions are refused when the case of a letter doesn't match the push made
+ * @author GOD
+ */
+public class VerifierTest
+{
+    //the verifier checking the solutions
+    private Verifier verifier;
+    
+    @Before
+    public void setUp() throws Exception
+    {
+        //the first level is skipped as it has no player, so the level checked has index 1
+        final List<Layout> layouts = Layouts.parse(Arrays.asList(
+            "#####",
+            "#   #",
+            "#####",
+            "; no player",
+            "#######",
+            "#@ $ .#",
+            "#######",
+            "; one box"));
+        
+        verifier = new Verifier(layouts, 1);
+    }
+    
+    @After
+    public void tearDown()
+    {
+        verifier.dispose();
+    }
+    
+    @Test
+    public void testValid()
+    {
+        final Verification result = verifier.verify(1, "rRR");
+        
+        assertTrue(result.toString(), result.isValid());
+        assertEquals(3, result.getMoves());
+        assertEquals(2, result.getPushes());
+    }
+    
+    @Test
+    public void testPushWrittenAsMove()
+    {
+        final Verification result = verifier.verify(1, "rRr");
+        
+        assertFalse(result.isValid());
+        assertEquals("push does not match letter at 2", result.getReason());
+        assertEquals(3, result.getMoves());
+    }
+    
+    @Test
+    public void testMoveWrittenAsPush()
+    {
+        final Verification result = verifier.verify(1, "RRR");
+        
+        assertFalse(result.isValid());
+        assertEquals("push does not match letter at 0", result.getReason());
+    }
+    
+    @Test
+    public void testLevelNotFound()
+    {
+        assertFalse(verifier.verify(0, "rRR").isValid());
+        assertEquals("level not found", verifier.verify(0, "rRR").getReason());
+    }
+}
\ No newline at end of file